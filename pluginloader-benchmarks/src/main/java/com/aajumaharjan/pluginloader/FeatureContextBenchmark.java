@@ -0,0 +1,46 @@
+package com.aajumaharjan.pluginloader;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building one feature's child context by classpath scan, by explicit bean classes and from the descriptor's
+ * bean index (the {@code createFeatureContext} paths), measured through {@link FeatureManager#initialize}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeatureContextBenchmark {
+
+    @Param({"SCAN", "CLASSES", "INDEX"})
+    public SyntheticFeatures.Registration registration;
+
+    private SyntheticFeatures synthetic;
+
+    @Setup
+    public void setUp() {
+        synthetic = new SyntheticFeatures(1, registration);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        synthetic.close();
+    }
+
+    @Benchmark
+    public int createFeatureContext() {
+        GenericApplicationContext parent = new GenericApplicationContext();
+        FeatureManager manager = synthetic.initialize(parent);
+        try {
+            return manager.getStartupReport().getFeatures().get(0).getBeansRegistered().get();
+        } finally {
+            SyntheticFeatures.close(manager, parent);
+        }
+    }
+}
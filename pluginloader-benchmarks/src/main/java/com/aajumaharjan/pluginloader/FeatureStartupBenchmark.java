@@ -0,0 +1,50 @@
+package com.aajumaharjan.pluginloader;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FeatureManager#initialize} with N synthetic features: descriptor lookup, child-context refresh and
+ * exposure into a fresh host context, sequentially and on a startup pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeatureStartupBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int features;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private SyntheticFeatures synthetic;
+
+    @Setup
+    public void setUp() {
+        synthetic = new SyntheticFeatures(features, SyntheticFeatures.Registration.INDEX);
+        synthetic.properties().getStartup().setParallelism(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        synthetic.close();
+    }
+
+    @Benchmark
+    public int initialize() {
+        GenericApplicationContext parent = new GenericApplicationContext();
+        FeatureManager manager = synthetic.initialize(parent);
+        try {
+            return manager.getLoadedFeatures().size();
+        } finally {
+            SyntheticFeatures.close(manager, parent);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.aajumaharjan.pluginloader;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.aajumaharjan.pluginloader.synthetic.SyntheticApi;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a call on an exposed interface bean: direct call, the reflective proxy FeatureManager used to install
+ * (method lookup + {@code Method.invoke} per call), the {@link FeatureBridge} proxy, and the bean a synthetic
+ * feature actually exposes to the host (with and without invocation metrics).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProxyDispatchBenchmark {
+
+    public interface PricingService {
+        long price(long base, int quantity);
+    }
+
+    static class DefaultPricingService implements PricingService {
+        @Override
+        public long price(long base, int quantity) {
+            return base * quantity;
+        }
+    }
+
+    private PricingService direct;
+    private PricingService reflectiveProxy;
+    private PricingService bridgeProxy;
+    private long base;
+    private int quantity;
+
+    private SyntheticFeatures synthetic;
+    private final GenericApplicationContext[] hosts = {new GenericApplicationContext(), new GenericApplicationContext()};
+    private final FeatureManager[] managers = new FeatureManager[2];
+    private SyntheticApi exposed;
+    private SyntheticApi exposedWithMetrics;
+
+    @Setup
+    public void setUp() {
+        PricingService target = new DefaultPricingService();
+        ClassLoader cl = getClass().getClassLoader();
+        direct = target;
+        reflectiveProxy = (PricingService) Proxy.newProxyInstance(cl, new Class[]{PricingService.class}, (proxyObj, method, args) -> {
+            try {
+                Method implMethod = target.getClass().getMethod(method.getName(), method.getParameterTypes());
+                implMethod.setAccessible(true);
+                return implMethod.invoke(target, args);
+            } catch (NoSuchMethodException ns) {
+                return method.invoke(target, args);
+            }
+        });
+        bridgeProxy = (PricingService) FeatureBridge.newProxy(PricingService.class, target, cl);
+        base = 42;
+        quantity = 3;
+
+        // the interface bean registered through exposeBeansToParent, as the host sees it
+        synthetic = new SyntheticFeatures(1, SyntheticFeatures.Registration.INDEX);
+        managers[0] = synthetic.initialize(hosts[0]);
+        synthetic.properties().getMetrics().setInvocations(true);
+        managers[1] = synthetic.initialize(hosts[1]);
+        for (GenericApplicationContext host : hosts) {
+            host.refresh();
+        }
+        exposed = hosts[0].getBean("syntheticApi", SyntheticApi.class);
+        exposedWithMetrics = hosts[1].getBean("syntheticApi", SyntheticApi.class);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        for (int i = 0; i < hosts.length; i++) {
+            SyntheticFeatures.close(managers[i], hosts[i]);
+        }
+        synthetic.close();
+    }
+
+    @Benchmark
+    public long directCall() {
+        return direct.price(base, quantity);
+    }
+
+    @Benchmark
+    public long reflectiveProxy() {
+        return reflectiveProxy.price(base, quantity);
+    }
+
+    @Benchmark
+    public long methodHandleBridge() {
+        return bridgeProxy.price(base, quantity);
+    }
+
+    @Benchmark
+    public long exposedBean() {
+        return exposed.price(base, quantity);
+    }
+
+    @Benchmark
+    public long exposedBeanWithMetrics() {
+        return exposedWithMetrics.price(base, quantity);
+    }
+}
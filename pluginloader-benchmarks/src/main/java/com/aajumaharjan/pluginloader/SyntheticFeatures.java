@@ -0,0 +1,120 @@
+package com.aajumaharjan.pluginloader;
+
+import com.aajumaharjan.pluginloader.config.PluginLoaderProperties;
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
+import com.aajumaharjan.pluginloader.model.BinaryDescriptor;
+import com.aajumaharjan.pluginloader.model.DescriptorIndexEntry;
+import com.aajumaharjan.pluginloader.model.FeatureConfig;
+import com.aajumaharjan.pluginloader.synthetic.SyntheticApi;
+import com.aajumaharjan.pluginloader.synthetic.SyntheticConfiguration;
+import com.aajumaharjan.pluginloader.synthetic.SyntheticRepository;
+import com.aajumaharjan.pluginloader.synthetic.SyntheticService;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * N features over the classes in {@code com.aajumaharjan.pluginloader.synthetic}, described by binary descriptors
+ * and a descriptor index in a temp directory, so benchmarks need no cloned repositories or generated classes.
+ */
+public final class SyntheticFeatures implements AutoCloseable {
+    private static final String PACKAGE = SyntheticApi.class.getPackageName();
+
+    /** How a feature's beans are registered in its child context. */
+    public enum Registration {
+        // PACKAGES only: classpath scan
+        SCAN,
+        // BEAN_CLASSES only: explicit registerBean per class
+        CLASSES,
+        // BEAN_INDEX: definitions straight from the build-time index
+        INDEX
+    }
+
+    private final Path root;
+    private final URLClassLoader classLoader;
+    private final PluginLoaderProperties properties = new PluginLoaderProperties();
+
+    SyntheticFeatures(int count, Registration registration) {
+        try {
+            root = Files.createTempDirectory("pluginloader-bench");
+            List<FeatureConfig> features = new ArrayList<>();
+            StringBuilder index = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                String name = "Synthetic" + i;
+                String descriptor = "generated." + name + "Descriptor";
+                FeatureConfig feature = new FeatureConfig();
+                feature.setRepository("file:///bench/" + name.toLowerCase() + ".git");
+                features.add(feature);
+                index.append(new DescriptorIndexEntry(descriptor, feature.getRepository()).encode()).append('\n');
+
+                Path resource = root.resolve(BinaryDescriptor.resourceName(descriptor));
+                Files.createDirectories(resource.getParent());
+                Files.write(resource, descriptor(name, registration).encode());
+            }
+            Path indexFile = root.resolve(DescriptorIndexEntry.RESOURCE);
+            Files.createDirectories(indexFile.getParent());
+            Files.writeString(indexFile, index);
+            properties.setFeatures(features);
+            classLoader = new URLClassLoader(new URL[]{root.toUri().toURL()}, SyntheticFeatures.class.getClassLoader());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BinaryDescriptor descriptor(String name, Registration registration) {
+        List<String> beanClasses = List.of(SyntheticService.class.getName(), SyntheticRepository.class.getName(), SyntheticConfiguration.class.getName());
+        // like generated descriptors, INDEX carries packages and bean classes too; the index takes precedence
+        return new BinaryDescriptor(name, null, null,
+                registration != Registration.CLASSES ? List.of(PACKAGE) : List.of(),
+                registration != Registration.SCAN ? beanClasses : List.of(),
+                List.of(SyntheticApi.class.getName()),
+                registration == Registration.INDEX ? List.of(
+                        new BeanIndexEntry(SyntheticService.class.getName(), "Service", null, "syntheticService", false, false),
+                        new BeanIndexEntry(SyntheticRepository.class.getName(), "Repository", null, "syntheticRepository", false, false),
+                        new BeanIndexEntry(SyntheticConfiguration.class.getName(), "Configuration", null, "syntheticConfiguration", false, false))
+                        : List.of());
+    }
+
+    PluginLoaderProperties properties() {
+        return properties;
+    }
+
+    /** Initializes a manager against {@code parent}, resolving descriptors through the synthetic classpath. */
+    FeatureManager initialize(GenericApplicationContext parent) {
+        FeatureManager manager = new FeatureManager(properties);
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            manager.initialize(parent);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+        return manager;
+    }
+
+    static void close(FeatureManager manager, GenericApplicationContext parent) {
+        manager.onApplicationEvent(new ContextClosedEvent(parent));
+        parent.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        classLoader.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
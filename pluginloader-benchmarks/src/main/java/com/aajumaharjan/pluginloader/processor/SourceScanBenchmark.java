@@ -0,0 +1,188 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * The processor's import path over synthetic feature source trees: {@link SourceGenerator#scanSources} (scan and
+ * classification, off the processor thread in a real compile) followed by {@link SourceGenerator#writeSources}
+ * (the copy through the Filer, into a discarding writer, so only the processor's own cost is measured).
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SourceScanBenchmark {
+    private static final int FILES_PER_PACKAGE = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int files;
+
+    @Param({"1", "4"})
+    public int scanParallelism;
+
+    private Path srcRoot;
+    private SourceGenerator generator;
+    private final ProcessingEnvironment processingEnv = new DiscardingProcessingEnvironment();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        generator = new SourceGenerator(scanParallelism);
+        srcRoot = Files.createTempDirectory("pluginloader-sources");
+        for (int i = 0; i < files; i++) {
+            String pkg = "com.synthetic.p" + (i / FILES_PER_PACKAGE);
+            Path dir = srcRoot.resolve(pkg.replace('.', '/'));
+            if (i % FILES_PER_PACKAGE == 0) {
+                Files.createDirectories(dir);
+            }
+            String name = "Type" + i;
+            Files.writeString(dir.resolve(name + ".java"), source(pkg, name, i));
+        }
+    }
+
+    // a bean every fourth file, a public interface every eighth, plain classes otherwise
+    private static String source(String pkg, String name, int i) {
+        StringBuilder sb = new StringBuilder("/*\n * Synthetic feature source ").append(i).append("\n */\n")
+                .append("package ").append(pkg).append(";\n\n")
+                .append("import java.util.List;\nimport java.util.Map;\n\n");
+        if (i % 8 == 1) {
+            return sb.append("public interface ").append(name).append(" {\n    long value(int input);\n}\n").toString();
+        }
+        if (i % 4 == 0) {
+            sb.append("@Service\n");
+        }
+        sb.append("public class ").append(name).append(" {\n");
+        for (int m = 0; m < 10; m++) {
+            sb.append("    public int method").append(m).append("(List<String> values, Map<String, Integer> counts) {\n")
+                    .append("        int total = 0;\n")
+                    .append("        for (String value : values) total += counts.getOrDefault(value, ").append(m).append(");\n")
+                    .append("        return total;\n    }\n\n");
+        }
+        return sb.append("}\n").toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(srcRoot)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public int scanAndWriteSources() {
+        ScanResult result = generator.scanSources(srcRoot, Set.of(), processingEnv.getMessager());
+        generator.writeSources(result, processingEnv.getFiler(), processingEnv.getMessager());
+        return result.sourceFiles().size();
+    }
+
+    private static final class DiscardingProcessingEnvironment implements ProcessingEnvironment {
+        private final Messager messager = new Messager() {
+            @Override
+            public void printMessage(Diagnostic.Kind kind, CharSequence msg) {
+            }
+
+            @Override
+            public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e) {
+            }
+
+            @Override
+            public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a) {
+            }
+
+            @Override
+            public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a, AnnotationValue v) {
+            }
+        };
+
+        private final Filer filer = new Filer() {
+            @Override
+            public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) {
+                return new SimpleJavaFileObject(URI.create("string:///" + name.toString().replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+                    @Override
+                    public Writer openWriter() {
+                        return Writer.nullWriter();
+                    }
+                };
+            }
+
+            @Override
+            public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public FileObject createResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public FileObject getResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName) {
+                throw new UnsupportedOperationException();
+            }
+        };
+
+        @Override
+        public Map<String, String> getOptions() {
+            return Map.of();
+        }
+
+        @Override
+        public Messager getMessager() {
+            return messager;
+        }
+
+        @Override
+        public Filer getFiler() {
+            return filer;
+        }
+
+        @Override
+        public Elements getElementUtils() {
+            return null;
+        }
+
+        @Override
+        public Types getTypeUtils() {
+            return null;
+        }
+
+        @Override
+        public SourceVersion getSourceVersion() {
+            return SourceVersion.RELEASE_17;
+        }
+
+        @Override
+        public Locale getLocale() {
+            return Locale.ROOT;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.aajumaharjan.pluginloader.synthetic;
+
+public interface SyntheticApi {
+    long price(long base, int quantity);
+}
@@ -0,0 +1,14 @@
+package com.aajumaharjan.pluginloader.synthetic;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration(proxyBeanMethods = false)
+public class SyntheticConfiguration {
+    @Bean
+    Clock syntheticClock() {
+        return Clock.systemUTC();
+    }
+}
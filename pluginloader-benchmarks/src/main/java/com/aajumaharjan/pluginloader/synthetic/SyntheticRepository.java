@@ -0,0 +1,10 @@
+package com.aajumaharjan.pluginloader.synthetic;
+
+import org.springframework.stereotype.Repository;
+
+@Repository
+public class SyntheticRepository {
+    public long surcharge() {
+        return 1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.aajumaharjan.pluginloader.synthetic;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public class SyntheticService implements SyntheticApi {
+    private final SyntheticRepository repository;
+
+    public SyntheticService(SyntheticRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public long price(long base, int quantity) {
+        return base * quantity + repository.surcharge();
+    }
+}
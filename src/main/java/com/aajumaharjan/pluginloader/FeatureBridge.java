@@ -0,0 +1,268 @@
+package com.aajumaharjan.pluginloader;
+
+import com.aajumaharjan.pluginloader.metrics.InvocationStats;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches calls on an exposed interface to the feature bean behind it.
+ * <p>
+ * Every interface method (plus {@code equals}/{@code hashCode}/{@code toString}) is resolved to the
+ * implementation once, when the bridge is bound to a target, and adapted to a {@link MethodHandle} of shape
+ * {@code (Object, Object[])Object}. A call is then a map lookup and an {@code invokeExact}; exceptions thrown
+ * by the feature propagate unchanged. Implementations are matched by name and parameter types, so the target does not
+ * have to implement the host's copy of the interface (isolated features).
+ * <p>
+ * The target can be swapped while the proxy stays registered in the host ({@link #retarget}): calls already running
+ * finish on the old target, which can be drained with {@link #awaitDrained} before its feature is closed.
+ * <p>
+ * A bridge can also start unbound with an activator (lazy features): the first call obtains the target from it.
+ * Concurrent first callers all wait for that call; a failed activation propagates and is retried by the next call.
+ * <p>
+ * With per-method {@link InvocationStats} slots, each call also records its latency and whether it threw.
+ */
+final class FeatureBridge implements InvocationHandler {
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private final Class<?> exposedType;
+    // preallocated per-method slots when invocation metrics are on, null otherwise
+    private final Map<Method, InvocationStats> stats;
+    // false when a generated StaticBridge calls the target directly: no method handles are resolved
+    private final boolean reflective;
+    private volatile Binding binding;
+    // supplies the target of an unbound bridge on first use; cleared once bound, retargeted or detached
+    private volatile Supplier<Object> activator;
+
+    FeatureBridge(Class<?> exposedType, Object target) {
+        this(exposedType, target, null);
+    }
+
+    FeatureBridge(Class<?> exposedType, Object target, Map<Method, InvocationStats> stats) {
+        this(exposedType, target, null, stats, true);
+    }
+
+    FeatureBridge(Class<?> exposedType, Supplier<Object> activator) {
+        this(exposedType, activator, null);
+    }
+
+    FeatureBridge(Class<?> exposedType, Supplier<Object> activator, Map<Method, InvocationStats> stats) {
+        this(exposedType, null, activator, stats, true);
+    }
+
+    private FeatureBridge(Class<?> exposedType, Object target, Supplier<Object> activator, Map<Method, InvocationStats> stats, boolean reflective) {
+        this.exposedType = exposedType;
+        this.stats = stats;
+        this.reflective = reflective;
+        this.activator = activator;
+        this.binding = target == null ? null : bind(target);
+    }
+
+    /**
+     * Bridge behind a generated {@link StaticBridge}: same retargeting, draining and activation, but the generated
+     * class calls the target itself. Either {@code target} or {@code activator} is null.
+     */
+    static FeatureBridge forStaticBridge(Class<?> exposedType, Object target, Supplier<Object> activator, Map<Method, InvocationStats> stats) {
+        return new FeatureBridge(exposedType, target, activator, stats, false);
+    }
+
+    static Object newProxy(Class<?> exposedType, Object target, ClassLoader classLoader) {
+        return newProxy(exposedType, new FeatureBridge(exposedType, target), classLoader);
+    }
+
+    static Object newProxy(Class<?> exposedType, FeatureBridge bridge, ClassLoader classLoader) {
+        return Proxy.newProxyInstance(classLoader, new Class<?>[]{exposedType}, bridge);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        InvocationStats methodStats = stats == null ? null : stats.get(method);
+        if (methodStats == null) {
+            return dispatch(method, args);
+        }
+        long start = System.nanoTime();
+        try {
+            return dispatch(method, args);
+        } catch (Throwable t) {
+            methodStats.recordError();
+            throw t;
+        } finally {
+            methodStats.record(System.nanoTime() - start);
+        }
+    }
+
+    private Object dispatch(Method method, Object[] args) throws Throwable {
+        Binding current = enter();
+        try {
+            MethodHandle handle = current.handles.get(method);
+            if (handle == null) {
+                throw new UnsupportedOperationException("No implementation bound for " + method);
+            }
+            Object[] arguments = args == null ? NO_ARGS : args;
+            return handle.invokeExact(current.target, arguments);
+        } finally {
+            current.inFlight.decrementAndGet();
+        }
+    }
+
+    Object getTarget() {
+        Binding current = binding;
+        return current == null ? null : current.target;
+    }
+
+    /**
+     * Points the bridge at a new target, or detaches it when {@code target} is null (calls then fail with
+     * {@link IllegalStateException}). Returns the previous binding so callers can wait for it to drain.
+     */
+    synchronized Binding retarget(Object target) {
+        activator = null;
+        Binding next = target == null ? null : bind(target);
+        Binding previous = binding;
+        binding = next;
+        if (previous != null) {
+            previous.retired = true;
+        }
+        return previous;
+    }
+
+    /**
+     * Waits until no call is running on a binding returned by {@link #retarget}; false on timeout.
+     */
+    static boolean awaitDrained(Binding retired, Duration timeout) throws InterruptedException {
+        if (retired == null) {
+            return true;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (retired.inFlight.get() > 0) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    // Counts the call on the current binding; a binding retired between the read and the increment is not used,
+    // so a drained binding never sees new calls
+    Binding enter() {
+        while (true) {
+            Binding current = binding;
+            if (current == null) {
+                current = activate();
+            }
+            if (current == null) {
+                throw new IllegalStateException("Feature behind " + exposedType.getName() + " has been unloaded");
+            }
+            current.inFlight.incrementAndGet();
+            if (!current.retired) {
+                return current;
+            }
+            current.inFlight.decrementAndGet();
+        }
+    }
+
+    // The activator runs outside the bridge's monitor (it synchronizes itself and returns the same bean to
+    // concurrent callers); only the first result is bound, unless the bridge was retargeted meanwhile
+    private Binding activate() {
+        Supplier<Object> pending = activator;
+        if (pending == null) {
+            return binding;
+        }
+        Object target = pending.get();
+        synchronized (this) {
+            if (binding == null && activator == pending) {
+                binding = bind(target);
+                activator = null;
+            }
+            return binding;
+        }
+    }
+
+    // Slots of a generated bridge, in the order of its method signatures; null when metrics are off
+    InvocationStats[] slotsFor(String[] signatures) {
+        if (stats == null) {
+            return null;
+        }
+        InvocationStats[] slots = new InvocationStats[signatures.length];
+        for (InvocationStats slot : stats.values()) {
+            for (int i = 0; i < signatures.length; i++) {
+                if (signatures[i].equals(slot.getMethod())) slots[i] = slot;
+            }
+        }
+        return slots;
+    }
+
+    private Binding bind(Object target) {
+        if (!reflective) {
+            return new Binding(target, Map.of());
+        }
+        Map<Method, MethodHandle> resolved = new HashMap<>();
+        for (Method method : exposedType.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) continue;
+            resolved.put(method, resolve(method, target));
+        }
+        for (String name : new String[]{"equals", "hashCode", "toString"}) {
+            Method objectMethod = objectMethod(name);
+            resolved.put(objectMethod, resolve(objectMethod, target));
+        }
+        return new Binding(target, Map.copyOf(resolved));
+    }
+
+    private static MethodHandle resolve(Method method, Object target) {
+        Method implementation = method;
+        try {
+            implementation = target.getClass().getMethod(method.getName(), method.getParameterTypes());
+            implementation.setAccessible(true);
+        } catch (NoSuchMethodException | RuntimeException e) {
+            // not reachable on the implementation class; dispatch through the interface method itself
+            implementation = method;
+        }
+        try {
+            return MethodHandles.lookup().unreflect(implementation)
+                    .asSpreader(Object[].class, implementation.getParameterCount())
+                    .asType(SPREAD_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot bind " + method + " on " + target.getClass().getName(), e);
+        }
+    }
+
+    private static Method objectMethod(String name) {
+        try {
+            return name.equals("equals") ? Object.class.getMethod(name, Object.class) : Object.class.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static final class Binding {
+        private final Object target;
+        private final Map<Method, MethodHandle> handles;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean retired;
+
+        private Binding(Object target, Map<Method, MethodHandle> handles) {
+            this.target = target;
+            this.handles = handles;
+        }
+
+        Object target() {
+            return target;
+        }
+
+        // ends a call started with enter()
+        void exit() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.aajumaharjan.pluginloader;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Child-first classloader over a single feature jar.
+ * <p>
+ * Platform, Spring and pluginloader packages plus the configured shared packages (the API the host and the
+ * feature agree on) are always taken from the parent. Everything else is looked up in the feature jar first,
+ * and resource enumeration is confined to the jar so package scans never walk the host classpath.
+ */
+class FeatureClassLoader extends URLClassLoader {
+    private static final List<String> ALWAYS_PARENT_FIRST = List.of(
+            "java.", "javax.", "jakarta.", "jdk.", "sun.", "com.sun.",
+            "org.springframework.", "org.slf4j.", "org.apache.commons.logging.",
+            "com.aajumaharjan.pluginloader.");
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final String featureName;
+    private final List<String> parentFirstPrefixes;
+    private final AtomicInteger definedClasses = new AtomicInteger();
+
+    FeatureClassLoader(String featureName, URL jar, ClassLoader parent, Collection<String> sharedPackages) {
+        super("feature-" + featureName, new URL[]{jar}, parent);
+        this.featureName = featureName;
+        List<String> prefixes = new ArrayList<>(ALWAYS_PARENT_FIRST);
+        if (sharedPackages != null) {
+            for (String pkg : sharedPackages) {
+                if (pkg != null && !pkg.isBlank()) prefixes.add(pkg.trim() + ".");
+            }
+        }
+        this.parentFirstPrefixes = List.copyOf(prefixes);
+    }
+
+    String getFeatureName() {
+        return featureName;
+    }
+
+    // Classes defined from the feature jar so far
+    int getDefinedClassCount() {
+        return definedClasses.get();
+    }
+
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Class<?> defined = super.findClass(name);
+        definedClasses.incrementAndGet();
+        return defined;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (isParentFirst(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded == null) {
+                try {
+                    loaded = findClass(name);
+                } catch (ClassNotFoundException notInJar) {
+                    loaded = getParent().loadClass(name);
+                }
+            }
+            if (resolve) resolveClass(loaded);
+            return loaded;
+        }
+    }
+
+    @Override
+    public URL getResource(String name) {
+        if (isParentFirst(toClassName(name))) {
+            return super.getResource(name);
+        }
+        URL own = findResource(name);
+        return own != null ? own : getParent().getResource(name);
+    }
+
+    @Override
+    public Enumeration<URL> getResources(String name) throws IOException {
+        if (isParentFirst(toClassName(name))) {
+            return super.getResources(name);
+        }
+        Enumeration<URL> own = findResources(name);
+        if (own.hasMoreElements()) {
+            return own;
+        }
+        // nothing in the jar: let shared resources (e.g. META-INF entries of host libraries) through
+        return getParent() == null ? Collections.emptyEnumeration() : getParent().getResources(name);
+    }
+
+    boolean isParentFirst(String className) {
+        for (String prefix : parentFirstPrefixes) {
+            if (className.startsWith(prefix) || className.equals(prefix.substring(0, prefix.length() - 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String toClassName(String resourceName) {
+        String name = resourceName.startsWith("/") ? resourceName.substring(1) : resourceName;
+        if (name.endsWith(".class")) name = name.substring(0, name.length() - ".class".length());
+        return name.replace('/', '.');
+    }
+}
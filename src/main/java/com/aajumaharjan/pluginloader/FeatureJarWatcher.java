@@ -0,0 +1,123 @@
+package com.aajumaharjan.pluginloader;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Watches the feature jar directory and reports {@code <Feature>-<hash>.jar} files once they stopped changing
+ * for the settle period. Runs on a single daemon thread; the callback gets the feature's artifact name and jar.
+ */
+@Slf4j
+final class FeatureJarWatcher implements Closeable {
+    private static final Pattern FEATURE_JAR = Pattern.compile("(.+)-[0-9a-f]{16}\\.jar");
+
+    private final WatchService watchService;
+    private final Path directory;
+    private final long settleNanos;
+    private final BiConsumer<String, Path> onChange;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private FeatureJarWatcher(WatchService watchService, Path directory, Duration settle, BiConsumer<String, Path> onChange) {
+        this.watchService = watchService;
+        this.directory = directory;
+        this.settleNanos = settle.toNanos();
+        this.onChange = onChange;
+        this.thread = new Thread(this::run, "pluginloader-reload-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    static FeatureJarWatcher start(Path directory, Duration settle, BiConsumer<String, Path> onChange) throws IOException {
+        Files.createDirectories(directory);
+        WatchService watchService = directory.getFileSystem().newWatchService();
+        try {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+        FeatureJarWatcher watcher = new FeatureJarWatcher(watchService, directory, settle, onChange);
+        watcher.thread.start();
+        log.info("Watching {} for feature jars", directory.toAbsolutePath());
+        return watcher;
+    }
+
+    // Artifact name of a published feature jar, null for anything else
+    static String artifactName(String fileName) {
+        Matcher matcher = FEATURE_JAR.matcher(fileName);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    private void run() {
+        // jar -> time (nanos) after which it is considered settled
+        Map<Path, Long> pending = new LinkedHashMap<>();
+        try {
+            while (!closed) {
+                WatchKey key;
+                if (pending.isEmpty()) {
+                    key = watchService.take();
+                } else {
+                    long wait = pending.values().stream().min(Long::compare).orElseThrow() - System.nanoTime();
+                    key = watchService.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                }
+                if (key != null) {
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.context() instanceof Path name && artifactName(name.toString()) != null) {
+                            pending.put(directory.resolve(name), System.nanoTime() + settleNanos);
+                        }
+                    }
+                    key.reset();
+                }
+                fireSettled(pending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // closed
+        }
+    }
+
+    private void fireSettled(Map<Path, Long> pending) {
+        long now = System.nanoTime();
+        for (Iterator<Map.Entry<Path, Long>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Path, Long> entry = it.next();
+            if (entry.getValue() - now > 0) continue;
+            it.remove();
+            Path jar = entry.getKey();
+            if (!Files.isRegularFile(jar)) continue;
+            try {
+                onChange.accept(artifactName(jar.getFileName().toString()), jar);
+            } catch (RuntimeException e) {
+                log.warn("Failed to handle changed feature jar {}: {}", jar, e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("Failed to close watch service: {}", e.getMessage());
+        }
+        thread.interrupt();
+    }
+}
@@ -1,82 +1,495 @@
 package com.aajumaharjan.pluginloader;
 
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
+import com.aajumaharjan.pluginloader.model.BinaryDescriptor;
+import com.aajumaharjan.pluginloader.model.DescriptorIndexEntry;
 import com.aajumaharjan.pluginloader.model.FeatureConfig;
 import com.aajumaharjan.pluginloader.config.PluginLoaderProperties;
+import com.aajumaharjan.pluginloader.metrics.FeatureStartupReport;
+import com.aajumaharjan.pluginloader.metrics.InvocationMetrics;
+import com.aajumaharjan.pluginloader.metrics.InvocationStats;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.CachedIntrospectionResults;
+import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.beans.factory.support.RootBeanDefinition;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotatedBeanDefinitionReader;
 import org.springframework.context.annotation.AnnotationConfigUtils;
 import org.springframework.context.annotation.ClassPathBeanDefinitionScanner;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
 
 import java.beans.Introspector;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
 @Slf4j
 public class FeatureManager implements ApplicationListener<ContextClosedEvent> {
     private final PluginLoaderProperties pluginLoaderProperties;
 
-    private final List<GenericApplicationContext> featureContexts = new CopyOnWriteArrayList<>();
+    // integrated features by key; guarded by lifecycleLock, which also serializes reload and unload
+    private final Object lifecycleLock = new Object();
+    private final Map<String, LoadedFeature> loadedFeatures = new LinkedHashMap<>();
+    // lazy features being activated, by the loaded instance they start from; guarded by lifecycleLock
+    private final Map<LoadedFeature, CompletableFuture<Void>> activations = new IdentityHashMap<>();
+    private volatile ConfigurableApplicationContext parentContext;
+    private final FeatureStartupReport startupReport = new FeatureStartupReport();
+    private final InvocationMetrics invocationMetrics = new InvocationMetrics();
+    private FeatureJarWatcher jarWatcher;
 
     public FeatureManager(PluginLoaderProperties pluginLoaderProperties) {
         this.pluginLoaderProperties = pluginLoaderProperties;
     }
 
     public void initialize(ConfigurableApplicationContext parentContext) {
-        if (pluginLoaderProperties.getFeatures() == null || pluginLoaderProperties.getFeatures().isEmpty()) {
+        this.parentContext = parentContext;
+        List<FeatureConfig> features = pluginLoaderProperties.getFeatures();
+        if (features == null || features.isEmpty()) {
             return;
         }
+        checkNotNativeImage(NativeDetector.inNativeImage());
+        long start = System.nanoTime();
+        integrateAll(parentContext, features);
+        startupReport.setStartupNanos(System.nanoTime() - start);
+        log.info(startupReport.summary());
+        startJarWatcher();
+    }
 
-        for (FeatureConfig feature : pluginLoaderProperties.getFeatures()) {
+    // Feature contexts are refreshed at runtime (configuration class parsing, CGLIB proxies, scanning without an
+    // index), and no AOT initializers are generated for them, so a native image could not start them
+    static void checkNotNativeImage(boolean inNativeImage) {
+        if (inNativeImage) {
+            throw new IllegalStateException("pluginloader features are not supported in a native image: feature contexts"
+                    + " are refreshed at runtime and no AOT initializers are generated for them."
+                    + " Set pluginloader.enabled=false or run the application on the JVM");
+        }
+    }
+
+    /**
+     * Per-phase timings, counts and failures of feature integration; also published to Micrometer and the
+     * {@code pluginloader} actuator endpoint when those are on the classpath.
+     */
+    public FeatureStartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * Per-method call counts, errors and latency histograms of exposed interfaces; only filled when
+     * {@code pluginloader.metrics.invocations} is on.
+     */
+    public InvocationMetrics getInvocationMetrics() {
+        return invocationMetrics;
+    }
+
+    /**
+     * Rebuilds a feature in a fresh child context (and classloader, when isolated) from its descriptor's JAR_PATH.
+     * See {@link #reload(String, Path)}.
+     */
+    public boolean reload(String feature) {
+        return reload(feature, null);
+    }
+
+    /**
+     * Rebuilds a feature in a fresh child context and swaps it in behind the beans already exposed to the host.
+     * <p>
+     * {@code feature} is the feature's name, repository or descriptor name; {@code jar}, when given, replaces the
+     * descriptor's JAR_PATH for isolated features. Exposed interfaces keep their proxies: new calls go to the new
+     * beans, calls in flight on the old ones are drained (up to {@code pluginloader.reload.drain-timeout}) before
+     * the old context and classloader are closed. Concrete-class exposures are re-registered, so only new lookups
+     * see them. If the new version fails to start, the running one is kept and false is returned.
+     */
+    public boolean reload(String feature, Path jar) {
+        synchronized (lifecycleLock) {
+            LoadedFeature current = findLoaded(feature);
+            if (current == null) {
+                log.warn("Cannot reload {}: no such feature is loaded", feature);
+                return false;
+            }
+            ConfigurableApplicationContext parent = parentContext;
+            if (current.context() == null) {
+                return reloadInactive(parent, current, jar);
+            }
+            PreparedFeature prepared;
             try {
-                log.info("Processing feature {}", feature.getRepository());
+                prepared = buildFeature(parent, current.config(), current.descriptor(), jar);
+            } catch (Exception e) {
+                metricsOf(current.config()).failed(e);
+                log.error("Failed to reload feature {}, keeping the running version: {}", current.key(), e.getMessage(), e);
+                return false;
+            }
+
+            // resolve every replacement before swapping anything, so a broken build leaves the running version intact
+            Map<Exposure, Object> replacements = new LinkedHashMap<>();
+            for (Exposure exposure : current.exposures()) {
+                Object bean = resolveChildBean(parent.getClassLoader(), prepared.context(), exposure.type());
+                if (bean == null) {
+                    log.error("Failed to reload feature {}: new version has no bean for {}, keeping the running version", current.key(), exposure.type().getName());
+                    closeFeature(prepared.context(), prepared.classLoader());
+                    return false;
+                }
+                replacements.put(exposure, bean);
+            }
 
-                // 1) Try to find a generated descriptor on the client's classpath
-                Optional<DescriptorInfo> desc = loadGeneratedDescriptorIfPresent(feature);
-                DescriptorInfo descriptorInfo = desc.orElseGet(() -> {
-                    DescriptorInfo fallback = new DescriptorInfo();
-                    fallback.packages = feature.getPackages() == null ? Collections.emptyList() : feature.getPackages();
-                    fallback.beanClasses = Collections.emptyList();
-                    return fallback;
-                });
+            var beanFactory = (DefaultListableBeanFactory) parent.getBeanFactory();
+            List<FeatureBridge.Binding> retired = new ArrayList<>();
+            replacements.forEach((exposure, bean) -> {
+                if (exposure.bridge() != null) {
+                    retired.add(exposure.bridge().retarget(bean));
+                } else {
+                    if (beanFactory.containsBeanDefinition(exposure.beanName())) {
+                        beanFactory.removeBeanDefinition(exposure.beanName());
+                    }
+                    registerInstance(beanFactory, exposure.beanName(), exposure.type(), bean);
+                }
+            });
+            loadedFeatures.put(current.key(), new LoadedFeature(current.key(), current.config(), prepared.context(),
+                    prepared.classLoader(), current.descriptor(), current.exposures()));
+            drainAndClose(current, retired);
+            log.info("Reloaded feature {}", current.key());
+            return true;
+        }
+    }
 
-                if ((descriptorInfo.packages == null || descriptorInfo.packages.isEmpty())
-                        && (descriptorInfo.beanClasses == null || descriptorInfo.beanClasses.isEmpty())) {
-                    log.info("No packages or bean classes to register for feature {}", feature.getRepository());
-                    continue;
+    /**
+     * Removes a feature: its beans are removed from the host, proxies already injected elsewhere fail with
+     * {@link IllegalStateException}, and its context and classloader are closed once in-flight calls drained.
+     */
+    public boolean unload(String feature) {
+        synchronized (lifecycleLock) {
+            LoadedFeature current = findLoaded(feature);
+            if (current == null) {
+                log.warn("Cannot unload {}: no such feature is loaded", feature);
+                return false;
+            }
+            loadedFeatures.remove(current.key());
+            var beanFactory = (DefaultListableBeanFactory) parentContext.getBeanFactory();
+            List<FeatureBridge.Binding> retired = new ArrayList<>();
+            for (Exposure exposure : current.exposures()) {
+                if (exposure.bridge() != null) {
+                    retired.add(exposure.bridge().retarget(null));
                 }
+                if (beanFactory.containsBeanDefinition(exposure.beanName())) {
+                    beanFactory.removeBeanDefinition(exposure.beanName());
+                }
+            }
+            drainAndClose(current, retired);
+            log.info("Unloaded feature {}", current.key());
+            return true;
+        }
+    }
 
-                ClassLoader loader = parentContext.getClassLoader();
-                GenericApplicationContext featureContext = createFeatureContext(parentContext, loader, descriptorInfo.packages, descriptorInfo.beanClasses);
-                featureContexts.add(featureContext);
-                exposeBeansToParent(parentContext, featureContext, descriptorInfo.beanClasses);
-                log.info("Integrated feature {}", feature.getRepository());
+    // A lazy feature that was never used has nothing to swap: it just activates from the new jar later
+    private boolean reloadInactive(ConfigurableApplicationContext parent, LoadedFeature current, Path jar) {
+        FeatureClassLoader loader;
+        try {
+            loader = createIsolatedLoader(parent, current.config(), current.descriptor(), jar);
+        } catch (Exception e) {
+            log.error("Failed to reload feature {}, keeping the running version: {}", current.key(), e.getMessage(), e);
+            return false;
+        }
+        loadedFeatures.put(current.key(), new LoadedFeature(current.key(), current.config(), null, loader,
+                current.descriptor(), current.exposures()));
+        closeQuietly(current.classLoader());
+        log.info("Feature {} is not active yet; it will start from the new version on first use", current.key());
+        return true;
+    }
 
-            } catch (Exception e) {
-                log.error("Failed to integrate feature {}: {}", feature.getRepository(), e.getMessage(), e);
+    public Set<String> getLoadedFeatures() {
+        synchronized (lifecycleLock) {
+            return new LinkedHashSet<>(loadedFeatures.keySet());
+        }
+    }
+
+    private void integrateAll(ConfigurableApplicationContext parentContext, List<FeatureConfig> features) {
+        Map<String, String> descriptorIndex = readDescriptorIndex(Thread.currentThread().getContextClassLoader());
+        int parallelism = Math.min(Math.max(1, pluginLoaderProperties.getStartup().getParallelism()), features.size());
+        if (parallelism == 1) {
+            for (FeatureConfig feature : features) {
+                integrate(parentContext, feature, prepareFeature(parentContext, feature, descriptorIndex, new AtomicBoolean()));
+            }
+            return;
+        }
+
+        // Child contexts are built and refreshed on the pool; exposure into the parent bean factory stays on
+        // this thread and follows configuration order so bean names remain deterministic.
+        log.info("Preparing {} features with parallelism {}", features.size(), parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, startupThreadFactory());
+        // set when startup is interrupted: features still preparing are neither integrated nor counted as failed
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<Future<PreparedFeature>> prepared = new ArrayList<>(features.size());
+        int integrated = 0;
+        try {
+            for (FeatureConfig feature : features) {
+                prepared.add(executor.submit(() -> {
+                    PreparedFeature result = prepareFeature(parentContext, feature, descriptorIndex, abandoned);
+                    if (result != null && abandoned.get()) {
+                        closeFeature(result.context(), result.classLoader());
+                        return null;
+                    }
+                    return result;
+                }));
+            }
+            for (; integrated < features.size(); integrated++) {
+                integrate(parentContext, features.get(integrated), awaitPrepared(prepared.get(integrated), features.get(integrated)));
+            }
+        } catch (InterruptedException e) {
+            abandoned.set(true);
+            Thread.currentThread().interrupt();
+            discardPrepared(prepared.subList(integrated, prepared.size()));
+            log.warn("Interrupted while preparing features; {} of {} were not integrated", features.size() - integrated, features.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Cancels preparations still running and closes the contexts of those that already finished
+    private static void discardPrepared(List<Future<PreparedFeature>> futures) {
+        for (Future<PreparedFeature> future : futures) {
+            if (future.cancel(true) || future.isCancelled()) continue;
+            try {
+                PreparedFeature result = future.get();
+                if (result != null) closeFeature(result.context(), result.classLoader());
+            } catch (InterruptedException | ExecutionException ignored) {
+                // done futures do not block; failures were already reported by prepareFeature
+            }
+        }
+    }
+
+    // Descriptor lookup and child context refresh; safe to run concurrently for independent features
+    private PreparedFeature prepareFeature(ConfigurableApplicationContext parentContext, FeatureConfig feature, Map<String, String> descriptorIndex, AtomicBoolean abandoned) {
+        FeatureStartupReport.FeatureMetrics metrics = null;
+        try {
+            metrics = metricsOf(feature);
+            log.info("Processing feature {}", featureSource(feature));
+
+            // 1) Try to find a generated descriptor on the client's classpath
+            long start = System.nanoTime();
+            Optional<DescriptorInfo> desc = readDescriptor(feature, Thread.currentThread().getContextClassLoader(), descriptorIndex);
+            metrics.record(FeatureStartupReport.Phase.DESCRIPTOR_LOOKUP, System.nanoTime() - start);
+            DescriptorInfo descriptorInfo = desc.orElseGet(() -> {
+                DescriptorInfo fallback = new DescriptorInfo();
+                fallback.packages = feature.getPackages() == null ? Collections.emptyList() : feature.getPackages();
+                fallback.beanClasses = Collections.emptyList();
+                return fallback;
+            });
+
+            if ((descriptorInfo.packages == null || descriptorInfo.packages.isEmpty())
+                    && (descriptorInfo.beanClasses == null || descriptorInfo.beanClasses.isEmpty())) {
+                log.info("No packages or bean classes to register for feature {}", featureSource(feature));
+                return null;
+            }
+
+            if (feature.isLazy()) {
+                // context is built on first use; only the (cheap) classloader is created up front
+                return new PreparedFeature(null, createIsolatedLoader(parentContext, feature, descriptorInfo, null), descriptorInfo);
+            }
+            return buildFeature(parentContext, feature, descriptorInfo, null);
+        } catch (Exception e) {
+            if (abandoned.get()) {
+                log.debug("Stopped preparing feature {}: startup was interrupted", featureSource(feature));
+                return null;
+            }
+            if (metrics != null) metrics.failed(e);
+            log.error("Failed to integrate feature {}: {}", featureSource(feature), e.getMessage(), e);
+            return null;
+        }
+    }
+
+    // Classloader and refreshed child context for a feature; jarOverride replaces the descriptor's JAR_PATH
+    private PreparedFeature buildFeature(ConfigurableApplicationContext parentContext, FeatureConfig feature, DescriptorInfo descriptorInfo, Path jarOverride) {
+        FeatureClassLoader isolatedLoader = createIsolatedLoader(parentContext, feature, descriptorInfo, jarOverride);
+        ClassLoader loader = isolatedLoader != null ? isolatedLoader : parentContext.getClassLoader();
+        try {
+            GenericApplicationContext featureContext = createFeatureContext(parentContext, loader, descriptorInfo, metricsOf(feature));
+            return new PreparedFeature(featureContext, isolatedLoader, descriptorInfo);
+        } catch (RuntimeException e) {
+            closeQuietly(isolatedLoader);
+            throw e;
+        }
+    }
+
+    private PreparedFeature awaitPrepared(Future<PreparedFeature> future, FeatureConfig feature) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            metricsOf(feature).failed(e.getCause());
+            log.error("Failed to integrate feature {}: {}", featureSource(feature), e.getCause().getMessage(), e.getCause());
+        }
+        return null;
+    }
+
+    private void integrate(ConfigurableApplicationContext parentContext, FeatureConfig feature, PreparedFeature prepared) {
+        if (prepared == null) {
+            return;
+        }
+        FeatureStartupReport.FeatureMetrics metrics = null;
+        try {
+            metrics = metricsOf(feature);
+            LoadedFeature loaded;
+            synchronized (lifecycleLock) {
+                String key = featureName(feature);
+                for (int i = 2; loadedFeatures.containsKey(key); i++) {
+                    key = featureName(feature) + i;
+                }
+                loaded = new LoadedFeature(key, feature, prepared.context(), prepared.classLoader(), prepared.descriptor(), new ArrayList<>());
+                loadedFeatures.put(key, loaded);
+            }
+            long start = System.nanoTime();
+            if (prepared.context() == null) {
+                loaded.exposures().addAll(exposeLazyPlaceholders(parentContext, loaded));
+            } else {
+                loaded.exposures().addAll(exposeBeansToParent(parentContext, loaded.key(), prepared.context(), prepared.descriptor()));
+            }
+            metrics.record(FeatureStartupReport.Phase.EXPOSURE, System.nanoTime() - start);
+            metrics.getExposedBeans().set(loaded.exposures().size());
+            log.info(prepared.context() == null ? "Integrated lazy feature {}, activating on first use" : "Integrated feature {}", featureSource(feature));
+        } catch (Exception e) {
+            if (metrics != null) metrics.failed(e);
+            log.error("Failed to integrate feature {}: {}", featureSource(feature), e.getMessage(), e);
+        }
+    }
+
+    // Per-feature child-first loader over the descriptor's JAR_PATH; null keeps the host classloader
+    private FeatureClassLoader createIsolatedLoader(ConfigurableApplicationContext parentContext, FeatureConfig feature, DescriptorInfo descriptorInfo, Path jarOverride) {
+        if (!loadsFromJar(feature)) {
+            if (jarOverride != null) {
+                log.warn("Feature {} is not isolated; ignoring jar {}", featureSource(feature), jarOverride);
+            }
+            return null;
+        }
+        if (jarOverride == null && descriptorInfo.jarPath == null) {
+            return hostFallback(feature, "its descriptor has no JAR_PATH");
+        }
+        Path jar = jarOverride != null ? jarOverride : Path.of(descriptorInfo.jarPath);
+        if (!jar.isAbsolute()) {
+            // JAR_PATH is written relative to the project root the processor ran in
+            jar = Path.of(System.getProperty("user.dir")).resolve(jar);
+        }
+        if (!Files.isRegularFile(jar)) {
+            return hostFallback(feature, "its jar " + jar + " was not found");
+        }
+        try {
+            FeatureClassLoader loader = new FeatureClassLoader(featureName(feature), jar.toUri().toURL(),
+                    parentContext.getClassLoader(), feature.getSharedPackages());
+            log.debug("Loading feature {} from {}", featureSource(feature), jar);
+            return loader;
+        } catch (MalformedURLException e) {
+            return hostFallback(feature, "its jar path " + jar + " is invalid (" + e.getMessage() + ")");
+        }
+    }
+
+    // Binary features were not compiled into the host, so there is nothing to fall back to
+    private static FeatureClassLoader hostFallback(FeatureConfig feature, String reason) {
+        if (feature.isBinary()) {
+            throw new IllegalStateException("Binary feature " + featureSource(feature) + " cannot be loaded: " + reason);
+        }
+        log.warn("Feature {} is isolated but {}; using the host classloader", featureSource(feature), reason);
+        return null;
+    }
+
+    private static boolean loadsFromJar(FeatureConfig feature) {
+        return feature.isIsolated() || feature.isBinary();
+    }
+
+    private static ThreadFactory startupThreadFactory() {
+        // pool threads resolve descriptors through the context classloader, so hand them the caller's
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "pluginloader-startup-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setContextClassLoader(contextClassLoader);
+            return thread;
+        };
+    }
+
+    /**
+     * Repository -> descriptor class from every {@value DescriptorIndexEntry#RESOURCE} visible to {@code cl}; the
+     * first entry for a repository wins. Null when no index is on the classpath (features compiled before the
+     * processor wrote one), in which case descriptors are found by their conventional names.
+     */
+    static Map<String, String> readDescriptorIndex(ClassLoader cl) {
+        Map<String, String> index = null;
+        try {
+            Enumeration<URL> resources = cl.getResources(DescriptorIndexEntry.RESOURCE);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if (index == null) index = new HashMap<>();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.isBlank() || line.startsWith("#")) continue;
+                        try {
+                            DescriptorIndexEntry entry = DescriptorIndexEntry.decode(line);
+                            index.putIfAbsent(entry.repository(), entry.descriptorClassName());
+                        } catch (IllegalArgumentException e) {
+                            log.warn("Ignoring entry in {}: {}", resource, e.getMessage());
+                        }
+                    }
+                }
             }
+        } catch (IOException e) {
+            log.warn("Failed reading {}: {}", DescriptorIndexEntry.RESOURCE, e.getMessage());
         }
+        return index;
     }
 
-    // Try to load a generated descriptor class (convention: generated.<FeatureName>Descriptor)
-    private Optional<DescriptorInfo> loadGeneratedDescriptorIfPresent(FeatureConfig feature) {
+    // Descriptor of a feature: looked up by repository in the descriptor index, or by the conventional
+    // generated.<FeatureName>Descriptor names when there is no index or it has no entry for the repository (a
+    // descriptor compiled separately from the index). Also used at build time by the AOT processor.
+    static Optional<DescriptorInfo> readDescriptor(FeatureConfig feature, ClassLoader cl, Map<String, String> descriptorIndex) {
+        // the index maps repositories; features configured only by packages are always looked up by name
+        String indexed = descriptorIndex == null || feature.getRepository() == null ? null : descriptorIndex.get(feature.getRepository());
+        if (descriptorIndex != null && feature.getRepository() != null && indexed == null) {
+            log.warn("No descriptor indexed for {}; trying the conventional descriptor names", featureSource(feature));
+        }
+        if (indexed != null) {
+            try {
+                return Optional.of(loadDescriptor(indexed, cl));
+            } catch (ClassNotFoundException e) {
+                log.warn("Descriptor {} indexed for {} is not on the classpath", indexed, featureSource(feature));
+            } catch (Exception e) {
+                log.warn("Failed reading descriptor {}: {}", indexed, e.getMessage());
+            }
+            return Optional.empty();
+        }
+
         List<String> candidates = new ArrayList<>();
-        String repo = feature.getRepository();
-        if (repo != null) {
-            String name = repo.substring(Math.max(repo.lastIndexOf('/'), repo.lastIndexOf('\\')) + 1);
-            if (name.endsWith(".git")) name = name.substring(0, name.length() - 4);
-            name = sanitizeIdentifier(name);
-            candidates.add("generated." + capitalize(name) + "Descriptor");
+        if (feature.getRepository() != null) {
+            candidates.add("generated." + featureName(feature) + "Descriptor");
         }
         if (feature.getPackages() != null && !feature.getPackages().isEmpty()) {
             for (String p : feature.getPackages()) {
@@ -85,14 +498,9 @@ public class FeatureManager implements ApplicationListener<ContextClosedEvent> {
             }
         }
 
-        ClassLoader cl = Thread.currentThread().getContextClassLoader();
         for (String c : candidates) {
             try {
-                Class<?> descriptor = Class.forName(c, true, cl);
-                DescriptorInfo di = new DescriptorInfo();
-                di.packages = readStringArrayField(descriptor, "PACKAGES");
-                di.beanClasses = readStringArrayField(descriptor, "BEAN_CLASSES");
-                return Optional.of(di);
+                return Optional.of(loadDescriptor(c, cl));
             } catch (ClassNotFoundException ignored) {
                 // continue searching
             } catch (Exception e) {
@@ -102,10 +510,60 @@ public class FeatureManager implements ApplicationListener<ContextClosedEvent> {
         return Optional.empty();
     }
 
+    // Binary descriptor resource when the processor wrote one, the descriptor class otherwise
+    private static DescriptorInfo loadDescriptor(String className, ClassLoader cl) throws ClassNotFoundException, IOException {
+        String resourceName = BinaryDescriptor.resourceName(className);
+        URL resource = cl.getResource(resourceName);
+        if (resource == null) {
+            return loadDescriptor(Class.forName(className, true, cl), cl);
+        }
+        BinaryDescriptor binary = BinaryDescriptor.decode(readResource(resource));
+        DescriptorInfo di = new DescriptorInfo();
+        di.className = className;
+        di.resource = resourceName;
+        di.name = binary.name();
+        di.packages = binary.packages();
+        di.beanClasses = binary.beanClasses();
+        di.exposedTypes = binary.exposedTypes();
+        di.jarPath = binary.jarPath();
+        di.beanIndex = binary.beanIndex();
+        di.bridges = readBridges(cl, "generated." + di.name + "Bridges");
+        return di;
+    }
+
+    // Mapped read-only when the resource is a plain file (exploded classpath), read into a heap buffer from jars
+    private static ByteBuffer readResource(URL resource) throws IOException {
+        if ("file".equals(resource.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Path.of(resource.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                // not representable as a path; fall through to the stream
+            }
+        }
+        try (InputStream in = resource.openStream()) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        }
+    }
+
+    private static DescriptorInfo loadDescriptor(Class<?> descriptor, ClassLoader cl) {
+        DescriptorInfo di = new DescriptorInfo();
+        di.className = descriptor.getName();
+        di.name = descriptor.getSimpleName().substring(0, descriptor.getSimpleName().length() - "Descriptor".length());
+        di.packages = readStringArrayField(descriptor, "PACKAGES");
+        di.beanClasses = readStringArrayField(descriptor, "BEAN_CLASSES");
+        di.exposedTypes = readStringArrayField(descriptor, "EXPOSED_TYPES");
+        di.jarPath = readStringField(descriptor, "JAR_PATH");
+        di.beanIndex = readStringArrayField(descriptor, "BEAN_INDEX").stream().map(BeanIndexEntry::decode).toList();
+        di.bridges = readBridges(cl, "generated." + di.name + "Bridges");
+        return di;
+    }
+
     // Expose plugin beans (interfaces visible to parent) as proxies in parent context
     // Modified: also register concrete instances in parent when the class is visible
-    private void exposeBeansToParent(ConfigurableApplicationContext parent, GenericApplicationContext child, List<String> beanClassNames) {
-        if (beanClassNames == null || beanClassNames.isEmpty()) return;
+    private List<Exposure> exposeBeansToParent(ConfigurableApplicationContext parent, String featureKey, GenericApplicationContext child, DescriptorInfo descriptor) {
+        List<String> beanClassNames = descriptor.exposableTypes();
+        List<Exposure> exposures = new ArrayList<>();
+        if (beanClassNames == null || beanClassNames.isEmpty()) return exposures;
         ClassLoader parentCl = parent.getClassLoader();
 
         var beanFactory = (DefaultListableBeanFactory) parent.getBeanFactory();
@@ -116,12 +574,7 @@ public class FeatureManager implements ApplicationListener<ContextClosedEvent> {
                 Class<?> clazz = Class.forName(fullyQualifiedClassName, true, parentCl);
 
                 // Obtain implementation from child context
-                Object childBean = null;
-                try {
-                    childBean = child.getBean(clazz);
-                } catch (Exception e) {
-                    try { childBean = child.getBean(fullyQualifiedClassName); } catch (Exception ignored) {}
-                }
+                Object childBean = resolveChildBean(parentCl, child, clazz);
                 if (childBean == null) continue;
 
                 // pick bean name (avoid collisions)
@@ -131,28 +584,19 @@ public class FeatureManager implements ApplicationListener<ContextClosedEvent> {
                 }
 
                 if (clazz.isInterface()) {
-                    Object finalChildBean = childBean;
-                    Object proxy = Proxy.newProxyInstance(parentCl, new Class[]{clazz}, (proxyObj, method, args) -> {
-                        try {
-                            Method implMethod = finalChildBean.getClass().getMethod(method.getName(), method.getParameterTypes());
-                            implMethod.setAccessible(true);
-                            return implMethod.invoke(finalChildBean, args);
-                        } catch (NoSuchMethodException ns) {
-                            return method.invoke(finalChildBean, args);
-                        }
-                    });
-
-                    var def = new RootBeanDefinition(clazz);
-                    def.setInstanceSupplier(() -> proxy);
-                    beanFactory.registerBeanDefinition(beanName, def);
+                    // the bridge outlives the child context, so reload can retarget it under existing injections
+                    Class<?> staticBridge = staticBridgeClass(clazz, descriptor, child.getClassLoader(), parentCl);
+                    FeatureBridge bridge = staticBridge != null
+                            ? FeatureBridge.forStaticBridge(clazz, childBean, null, invocationSlots(featureKey, clazz))
+                            : new FeatureBridge(clazz, childBean, invocationSlots(featureKey, clazz));
+                    registerInstance(beanFactory, beanName, clazz, exposedInstance(clazz, bridge, staticBridge, parentCl));
+                    exposures.add(new Exposure(clazz, beanName, bridge));
                     log.info("Registered interface-proxy bean definition {} -> {}", fullyQualifiedClassName, beanName);
 
                 } else {
                     // Concrete class: register a bean definition with an instance supplier returning the child instance
-                    var beanDefinition = new RootBeanDefinition(clazz);
-                    Object finalChildBean = childBean;
-                    beanDefinition.setInstanceSupplier(() -> finalChildBean);
-                    beanFactory.registerBeanDefinition(beanName, beanDefinition);
+                    registerInstance(beanFactory, beanName, clazz, childBean);
+                    exposures.add(new Exposure(clazz, beanName, null));
                     log.info("Registered concrete bean definition {} -> {}", fullyQualifiedClassName, beanName);
                 }
 
@@ -163,13 +607,238 @@ public class FeatureManager implements ApplicationListener<ContextClosedEvent> {
                 log.warn("Failed to expose bean {}: {}", fullyQualifiedClassName, e.getMessage());
             }
         }
+        return exposures;
+    }
+
+    // Lazy features: proxies whose bridges activate the feature on the first call, and lazy-init definitions for
+    // concrete classes. Only types implemented by one of the descriptor's bean classes get a placeholder.
+    private List<Exposure> exposeLazyPlaceholders(ConfigurableApplicationContext parent, LoadedFeature loaded) {
+        List<Exposure> exposures = new ArrayList<>();
+        ClassLoader parentCl = parent.getClassLoader();
+        ClassLoader featureLoader = loaded.classLoader() != null ? loaded.classLoader() : parentCl;
+        var beanFactory = (DefaultListableBeanFactory) parent.getBeanFactory();
+        String key = loaded.key();
+
+        for (String fullyQualifiedClassName : loaded.descriptor().exposableTypes()) {
+            try {
+                Class<?> clazz = Class.forName(fullyQualifiedClassName, false, parentCl);
+                if (!implementedByFeature(clazz, featureLoader, loaded.descriptor())) continue;
+                if (!clazz.isInterface() && loaded.classLoader() != null) continue;
+
+                String beanName = Introspector.decapitalize(clazz.getSimpleName());
+                if (beanFactory.containsBeanDefinition(beanName) || beanFactory.containsSingleton(beanName)) {
+                    beanName = beanName + "-" + UUID.randomUUID();
+                }
+
+                if (clazz.isInterface()) {
+                    Class<?> staticBridge = staticBridgeClass(clazz, loaded.descriptor(), featureLoader, parentCl);
+                    FeatureBridge bridge = staticBridge != null
+                            ? FeatureBridge.forStaticBridge(clazz, null, () -> activate(key, clazz), invocationSlots(key, clazz))
+                            : new FeatureBridge(clazz, () -> activate(key, clazz), invocationSlots(key, clazz));
+                    registerInstance(beanFactory, beanName, clazz, exposedInstance(clazz, bridge, staticBridge, parentCl));
+                    exposures.add(new Exposure(clazz, beanName, bridge));
+                } else {
+                    var beanDefinition = new RootBeanDefinition(clazz);
+                    beanDefinition.setInstanceSupplier(() -> activate(key, clazz));
+                    beanDefinition.setLazyInit(true);
+                    beanFactory.registerBeanDefinition(beanName, beanDefinition);
+                    exposures.add(new Exposure(clazz, beanName, null));
+                }
+                log.info("Registered lazy placeholder {} -> {}", fullyQualifiedClassName, beanName);
+            } catch (ClassNotFoundException cnf) {
+                log.debug("Class {} not visible to parent classloader, skipping exposure", fullyQualifiedClassName);
+            } catch (Exception e) {
+                log.warn("Failed to expose bean {}: {}", fullyQualifiedClassName, e.getMessage());
+            }
+        }
+        return exposures;
+    }
+
+    // The processor-generated bridge for an interface, usable only when the feature sees the host's copy of the
+    // interface (the generated code casts to it); null means a JDK proxy is used
+    private static Class<?> staticBridgeClass(Class<?> type, DescriptorInfo descriptor, ClassLoader featureLoader, ClassLoader parentCl) {
+        String bridgeClassName = descriptor.bridges.get(type.getName());
+        if (bridgeClassName == null) return null;
+        try {
+            if (Class.forName(type.getName(), false, featureLoader) != type) return null;
+            Class<?> bridgeClass = Class.forName(bridgeClassName, true, parentCl);
+            return type.isAssignableFrom(bridgeClass) && StaticBridge.class.isAssignableFrom(bridgeClass) ? bridgeClass : null;
+        } catch (ClassNotFoundException | LinkageError e) {
+            log.debug("Generated bridge {} not usable, falling back to a proxy: {}", bridgeClassName, e.getMessage());
+            return null;
+        }
+    }
+
+    private static Object exposedInstance(Class<?> type, FeatureBridge bridge, Class<?> staticBridge, ClassLoader parentCl) throws ReflectiveOperationException {
+        if (staticBridge == null) {
+            return FeatureBridge.newProxy(type, bridge, parentCl);
+        }
+        return staticBridge.getConstructor(Object.class).newInstance(bridge);
+    }
+
+    // Whether a descriptor bean class extends or implements the type (by name, so isolated copies count too).
+    // Descriptors without bean classes (package scan only) cannot be checked without a refresh: assume yes.
+    private static boolean implementedByFeature(Class<?> type, ClassLoader featureLoader, DescriptorInfo descriptor) {
+        List<String> beanClasses = descriptor.beanIndex.isEmpty()
+                ? descriptor.beanClasses
+                : descriptor.beanIndex.stream().map(BeanIndexEntry::className).toList();
+        if (beanClasses == null || beanClasses.isEmpty()) return true;
+        for (String beanClass : beanClasses) {
+            try {
+                if (hasSupertypeNamed(Class.forName(beanClass, false, featureLoader), type.getName())) return true;
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.debug("Bean class {} not loadable: {}", beanClass, e.getMessage());
+            }
+        }
+        return false;
     }
-    private GenericApplicationContext createFeatureContext(ConfigurableApplicationContext parentContext, ClassLoader featureLoader, List<String> packagesToScan, List<String> beanClassNames) {
+
+    private static boolean hasSupertypeNamed(Class<?> clazz, String name) {
+        if (clazz == null) return false;
+        if (clazz.getName().equals(name)) return true;
+        for (Class<?> iface : clazz.getInterfaces()) {
+            if (hasSupertypeNamed(iface, name)) return true;
+        }
+        return hasSupertypeNamed(clazz.getSuperclass(), name);
+    }
+
+    // First use of a lazy feature: builds and refreshes its context once, outside lifecycleLock so other features
+    // can be reloaded, unloaded or shut down meanwhile; concurrent callers for the same feature wait for that build.
+    // The lock is only taken to claim the activation and to publish its result, which is dropped if the feature
+    // was reloaded, unloaded or closed in between.
+    private Object activate(String key, Class<?> type) {
+        LoadedFeature loaded;
+        while (true) {
+            CompletableFuture<Void> activation;
+            boolean owner = false;
+            synchronized (lifecycleLock) {
+                loaded = loadedFeatures.get(key);
+                if (loaded == null) {
+                    throw new IllegalStateException("Feature " + key + " has been unloaded");
+                }
+                if (loaded.context() != null) {
+                    break;
+                }
+                activation = activations.get(loaded);
+                // a caller holding lifecycleLock (a reload or activation resolving beans) cannot wait for another
+                // thread that needs the lock to publish: it starts its own context, and the first one published wins
+                if (activation == null || Thread.holdsLock(lifecycleLock)) {
+                    activation = new CompletableFuture<>();
+                    activations.putIfAbsent(loaded, activation);
+                    owner = true;
+                }
+            }
+            if (owner) {
+                startContext(loaded, activation);
+            } else {
+                try {
+                    activation.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        Object bean = resolveChildBean(parentContext.getClassLoader(), loaded.context(), type);
+        if (bean == null) {
+            throw new IllegalStateException("Feature " + key + " has no bean for " + type.getName());
+        }
+        return bean;
+    }
+
+    // Completes the activation normally once it is published or found stale, so waiters look the feature up again
+    private void startContext(LoadedFeature loaded, CompletableFuture<Void> activation) {
+        String key = loaded.key();
+        long start = System.nanoTime();
+        ConfigurableApplicationContext parent = parentContext;
+        FeatureStartupReport.FeatureMetrics metrics = metricsOf(loaded.config());
+        GenericApplicationContext context = null;
+        RuntimeException failure = null;
+        try {
+            ClassLoader loader = loaded.classLoader() != null ? loaded.classLoader() : parent.getClassLoader();
+            context = createFeatureContext(parent, loader, loaded.descriptor(), metrics);
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        boolean current;
+        synchronized (lifecycleLock) {
+            activations.remove(loaded, activation);
+            current = loadedFeatures.get(key) == loaded;
+            if (current && context != null) {
+                loadedFeatures.put(key, new LoadedFeature(key, loaded.config(), context, loaded.classLoader(),
+                        loaded.descriptor(), loaded.exposures()));
+            }
+        }
+        if (!current) {
+            log.info("Feature {} changed while activating (reloaded, unloaded or activated by another caller), discarding the started context", key);
+            closeFeature(context, null);
+            activation.complete(null);
+            return;
+        }
+        if (failure != null) {
+            metrics.failed(failure);
+            activation.completeExceptionally(failure);
+            throw failure;
+        }
+        log.info("Activated feature {} in {} ms", key, (System.nanoTime() - start) / 1_000_000);
+        activation.complete(null);
+    }
+
+    // The child's bean for a type the parent sees; null when the child has none or only an incompatible copy
+    private Object resolveChildBean(ClassLoader parentCl, GenericApplicationContext child, Class<?> clazz) {
+        Object childBean = null;
+        try {
+            childBean = child.getBean(clazz);
+        } catch (Exception e) {
+            try { childBean = child.getBean(clazz.getName()); } catch (Exception ignored) {}
+        }
+        if (childBean == null && child.getClassLoader() != parentCl) {
+            // isolated feature: the child sees its own copy of non-shared types
+            try {
+                Class<?> childType = Class.forName(clazz.getName(), false, child.getClassLoader());
+                if (childType != clazz) childBean = child.getBean(childType);
+            } catch (Exception ignored) {}
+        }
+        if (childBean != null && !clazz.isInterface() && !clazz.isInstance(childBean)) {
+            log.debug("Class {} is loaded separately by the feature and the host, skipping exposure", clazz.getName());
+            return null;
+        }
+        return childBean;
+    }
+
+    private static void registerInstance(DefaultListableBeanFactory beanFactory, String beanName, Class<?> type, Object instance) {
+        var beanDefinition = new RootBeanDefinition(type);
+        beanDefinition.setInstanceSupplier(() -> instance);
+        beanFactory.registerBeanDefinition(beanName, beanDefinition);
+    }
+
+    private GenericApplicationContext createFeatureContext(ConfigurableApplicationContext parentContext, ClassLoader featureLoader, DescriptorInfo descriptorInfo, FeatureStartupReport.FeatureMetrics metrics) {
+        long start = System.nanoTime();
         GenericApplicationContext child = new GenericApplicationContext();
         child.setParent(parentContext);
         child.setClassLoader(featureLoader);
 
         AnnotationConfigUtils.registerAnnotationConfigProcessors(child.getDefaultListableBeanFactory());
+        registerFeatureBeans(child, featureLoader, descriptorInfo.packages, descriptorInfo.beanClasses, descriptorInfo.beanIndex);
+        long scanned = System.nanoTime();
+        metrics.record(FeatureStartupReport.Phase.SCAN, scanned - start);
+
+        child.refresh();
+        metrics.record(FeatureStartupReport.Phase.REFRESH, System.nanoTime() - scanned);
+        metrics.getBeansRegistered().set((int) Arrays.stream(child.getBeanDefinitionNames())
+                .filter(name -> child.getBeanDefinition(name).getRole() == BeanDefinition.ROLE_APPLICATION)
+                .count());
+        if (featureLoader instanceof FeatureClassLoader isolated) {
+            metrics.getClassesLoaded().set(isolated.getDefinedClassCount());
+        }
+        return child;
+    }
+
+    private void registerFeatureBeans(GenericApplicationContext child, ClassLoader featureLoader, List<String> packagesToScan, List<String> beanClassNames, List<BeanIndexEntry> beanIndex) {
+        if (beanIndex != null && !beanIndex.isEmpty()) {
+            // build-time index from the descriptor: no classpath scanning
+            registerIndexedBeans(child, featureLoader, beanIndex);
+            return;
+        }
 
         boolean scannedPackages = packagesToScan != null && !packagesToScan.isEmpty();
         if (scannedPackages) {
@@ -189,23 +858,186 @@ public class FeatureManager implements ApplicationListener<ContextClosedEvent> {
                 }
             }
         }
+    }
+
+    // Registered like the classpath scanner would: conditions, scope proxies and @Lazy/@Primary/@DependsOn/@Role/@Description
+    // are read from the class by AnnotatedBeanDefinitionReader. The index's scope, primary and lazy flags are then
+    // applied on top, before a scoped proxy is created; they hold only literal values, so they agree with the class.
+    private void registerIndexedBeans(GenericApplicationContext child, ClassLoader featureLoader, List<BeanIndexEntry> beanIndex) {
+        AnnotatedBeanDefinitionReader reader = new AnnotatedBeanDefinitionReader(child);
+        for (BeanIndexEntry entry : beanIndex) {
+            try {
+                Class<?> beanClass = Class.forName(entry.className(), false, featureLoader);
+                reader.registerBean(beanClass, entry.beanName(), null, definition -> applyIndexEntry(definition, entry));
+            } catch (ClassNotFoundException e) {
+                log.warn("Indexed bean class {} not found on feature loader: {}", entry.className(), e.getMessage());
+            }
+        }
+    }
 
-        child.refresh();
-        return child;
+    private static void applyIndexEntry(BeanDefinition definition, BeanIndexEntry entry) {
+        if (entry.scope() != null) definition.setScope(entry.scope());
+        if (entry.primary()) definition.setPrimary(true);
+        if (entry.lazy()) definition.setLazyInit(true);
     }
 
     @Override
     public void onApplicationEvent(ContextClosedEvent event) {
-        for (GenericApplicationContext ctx : featureContexts) {
-            try { ctx.close(); } catch (Exception e) { log.warn("Failed to close feature context: {}", e.getMessage()); }
+        // feature contexts publish their own close events to the parent; only the host's shutdown matters here
+        if (parentContext != null && event.getApplicationContext() != parentContext) {
+            return;
+        }
+        List<LoadedFeature> features;
+        synchronized (lifecycleLock) {
+            if (jarWatcher != null) {
+                jarWatcher.close();
+                jarWatcher = null;
+            }
+            features = new ArrayList<>(loadedFeatures.values());
+            loadedFeatures.clear();
+        }
+        for (LoadedFeature feature : features) {
+            closeFeature(feature.context(), feature.classLoader());
+        }
+    }
+
+    private LoadedFeature findLoaded(String feature) {
+        LoadedFeature byKey = loadedFeatures.get(feature);
+        if (byKey != null) return byKey;
+        for (LoadedFeature loaded : loadedFeatures.values()) {
+            if (loaded.key().equalsIgnoreCase(feature) || feature.equals(loaded.config().getRepository()) || feature.equals(loaded.descriptor().name)) {
+                return loaded;
+            }
+        }
+        return null;
+    }
+
+    private void startJarWatcher() {
+        PluginLoaderProperties.Reload reload = pluginLoaderProperties.getReload();
+        if (!reload.isWatch()) {
+            return;
+        }
+        synchronized (lifecycleLock) {
+            if (jarWatcher != null) return;
+            try {
+                jarWatcher = FeatureJarWatcher.start(Path.of(reload.getDirectory()), reload.getSettle(), this::onFeatureJarChanged);
+            } catch (IOException e) {
+                log.warn("Cannot watch {} for feature jars: {}", reload.getDirectory(), e.getMessage());
+            }
         }
-        featureContexts.clear();
+    }
+
+    // Watcher callback: artifact names come from the descriptor, so the jar <Name>-<hash>.jar maps to <Name>Descriptor
+    private void onFeatureJarChanged(String artifactName, Path jar) {
+        LoadedFeature loaded;
+        synchronized (lifecycleLock) {
+            loaded = loadedFeatures.values().stream()
+                    .filter(f -> artifactName.equals(f.descriptor().name))
+                    .findFirst()
+                    .orElse(null);
+        }
+        if (loaded == null || !loadsFromJar(loaded.config())) {
+            log.debug("Ignoring changed jar {}: no isolated feature {} is loaded", jar, artifactName);
+            return;
+        }
+        log.info("Feature jar {} changed, reloading {}", jar, loaded.key());
+        reload(loaded.key(), jar);
+    }
+
+    // Waits for calls still running on the retired bindings, then closes the old context and classloader
+    private void drainAndClose(LoadedFeature old, List<FeatureBridge.Binding> retired) {
+        Duration timeout = pluginLoaderProperties.getReload().getDrainTimeout();
+        try {
+            for (FeatureBridge.Binding binding : retired) {
+                if (!FeatureBridge.awaitDrained(binding, timeout)) {
+                    log.warn("Calls into feature {} still running after {}, closing it anyway", old.key(), timeout);
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeFeature(old.context(), old.classLoader());
+    }
+
+    private static void closeFeature(GenericApplicationContext context, FeatureClassLoader loader) {
+        if (context != null) {
+            try { context.close(); } catch (Exception e) { log.warn("Failed to close feature context: {}", e.getMessage()); }
+        }
+        if (loader == null) return;
+        // drop Spring's caches keyed by the feature's classes so the loader can be collected
+        CachedIntrospectionResults.clearClassLoader(loader);
+        AnnotationUtils.clearCache();
+        ReflectionUtils.clearCache();
+        ResolvableType.clearCache();
+        closeQuietly(loader);
     }
 
     // helpers
-    private static class DescriptorInfo {
+    static class DescriptorInfo {
+        String className;
+        // binary descriptor resource the info was read from; null for descriptor classes
+        String resource;
+        String name;
         List<String> packages = Collections.emptyList();
         List<String> beanClasses = Collections.emptyList();
+        List<String> exposedTypes = Collections.emptyList();
+        List<BeanIndexEntry> beanIndex = Collections.emptyList();
+        Map<String, String> bridges = Collections.emptyMap();
+        String jarPath;
+
+        List<String> exposableTypes() {
+            if (exposedTypes.isEmpty()) return beanClasses;
+            List<String> all = new ArrayList<>(beanClasses);
+            all.addAll(exposedTypes);
+            return all;
+        }
+    }
+
+    private record PreparedFeature(GenericApplicationContext context, FeatureClassLoader classLoader, DescriptorInfo descriptor) {
+    }
+
+    private record LoadedFeature(String key, FeatureConfig config, GenericApplicationContext context,
+                                 FeatureClassLoader classLoader, DescriptorInfo descriptor, List<Exposure> exposures) {
+    }
+
+    // A bean registered in the parent on behalf of a feature; bridge is null for concrete classes
+    private record Exposure(Class<?> type, String beanName, FeatureBridge bridge) {
+    }
+
+    private Map<Method, InvocationStats> invocationSlots(String featureKey, Class<?> type) {
+        return pluginLoaderProperties.getMetrics().isInvocations() ? invocationMetrics.register(featureKey, type) : null;
+    }
+
+    private FeatureStartupReport.FeatureMetrics metricsOf(FeatureConfig feature) {
+        return startupReport.feature(featureName(feature), featureSource(feature));
+    }
+
+    // The repository, or the configured packages of a feature without one; identifies it in the startup report
+    private static String featureSource(FeatureConfig feature) {
+        if (feature.getRepository() != null) return feature.getRepository();
+        return "packages:" + (feature.getPackages() == null ? "" : String.join(",", feature.getPackages()));
+    }
+
+    // From the repository's last path segment; features configured only by packages use the first package's
+    // last segment, matching the descriptor names readDescriptor tries for them
+    private static String featureName(FeatureConfig feature) {
+        String repo = feature.getRepository();
+        String name = "";
+        if (repo != null && !repo.isBlank()) {
+            name = repo.substring(Math.max(repo.lastIndexOf('/'), repo.lastIndexOf('\\')) + 1);
+            if (name.endsWith(".git")) name = name.substring(0, name.length() - 4);
+        } else if (feature.getPackages() != null && !feature.getPackages().isEmpty()) {
+            String first = feature.getPackages().get(0);
+            name = first.substring(first.lastIndexOf('.') + 1);
+        }
+        name = capitalize(sanitizeIdentifier(name));
+        return name.isEmpty() ? "Feature" : name;
+    }
+
+    private static void closeQuietly(FeatureClassLoader loader) {
+        if (loader == null) return;
+        try { loader.close(); } catch (IOException e) { log.warn("Failed to close classloader of feature {}: {}", loader.getFeatureName(), e.getMessage()); }
     }
 
     private static String capitalize(String s) {
@@ -217,6 +1049,29 @@ public class FeatureManager implements ApplicationListener<ContextClosedEvent> {
         return s.replaceAll("[^A-Za-z0-9_]", "");
     }
 
+    // exposed interface -> generated StaticBridge class, from the processor's generated.<Feature>Bridges index
+    private static Map<String, String> readBridges(ClassLoader cl, String indexName) {
+        Map<String, String> bridges = new HashMap<>();
+        try {
+            for (String entry : readStringArrayField(Class.forName(indexName, true, cl), "BRIDGES")) {
+                int separator = entry.indexOf('=');
+                if (separator > 0) bridges.put(entry.substring(0, separator), entry.substring(separator + 1));
+            }
+        } catch (ClassNotFoundException ignored) {
+            // built without generated bridges: proxies are used
+        }
+        return bridges;
+    }
+
+    private static String readStringField(Class<?> clazz, String name) {
+        try {
+            Object v = clazz.getField(name).get(null);
+            return v instanceof String str ? str : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private static List<String> readStringArrayField(Class<?> clazz, String name) {
         try {
             Field f = clazz.getField(name);
@@ -0,0 +1,101 @@
+package com.aajumaharjan.pluginloader;
+
+import com.aajumaharjan.pluginloader.FeatureManager.DescriptorInfo;
+import com.aajumaharjan.pluginloader.config.PluginLoaderProperties;
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
+import com.aajumaharjan.pluginloader.model.FeatureConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the configured features' descriptors during Spring AOT processing and registers the reflection and
+ * proxy hints for what {@link FeatureManager} loads reflectively: descriptor constants, bean classes, bridges and
+ * proxied interfaces.
+ * <p>
+ * This is not native-image support. Feature contexts are still refreshed at startup, through configuration class
+ * parsing, CGLIB proxies and (without a bean index) classpath scanning, and no AOT initializers are generated for
+ * them; {@link FeatureManager} therefore refuses to start features in a native image.
+ */
+@Slf4j
+class PluginLoaderAotProcessor implements BeanFactoryInitializationAotProcessor {
+
+    @Override
+    public BeanFactoryInitializationAotContribution processAheadOfTime(ConfigurableListableBeanFactory beanFactory) {
+        if (!beanFactory.containsBean("environment")) {
+            return null;
+        }
+        Environment environment = beanFactory.getBean("environment", Environment.class);
+        if (!environment.getProperty("pluginloader.enabled", Boolean.class, false)) {
+            return null;
+        }
+        PluginLoaderProperties properties = Binder.get(environment)
+                .bind("pluginloader", PluginLoaderProperties.class)
+                .orElseGet(PluginLoaderProperties::new);
+        if (properties.getFeatures() == null) {
+            return null;
+        }
+        ClassLoader classLoader = beanFactory.getBeanClassLoader();
+        Map<String, String> descriptorIndex = FeatureManager.readDescriptorIndex(classLoader);
+        List<DescriptorInfo> descriptors = new ArrayList<>();
+        for (FeatureConfig feature : properties.getFeatures()) {
+            if (feature.isBinary()) {
+                log.debug("Feature {} is binary-only; its classes are not part of the host and get no hints", feature.getRepository());
+                continue;
+            }
+            FeatureManager.readDescriptor(feature, classLoader, descriptorIndex).ifPresentOrElse(descriptor -> {
+                descriptors.add(descriptor);
+            }, () -> log.warn("No descriptor found for feature {}; no hints are registered for it", feature.getRepository()));
+        }
+        if (descriptors.isEmpty()) {
+            return null;
+        }
+        return (generationContext, code) -> registerHints(generationContext.getRuntimeHints(), descriptors);
+    }
+
+    static void registerHints(RuntimeHints hints, List<DescriptorInfo> descriptors) {
+        for (DescriptorInfo descriptor : descriptors) {
+            if (descriptor.resource != null) {
+                hints.resources().registerPattern(descriptor.resource);
+            } else {
+                // constants read with getField
+                hints.reflection().registerType(TypeReference.of(descriptor.className), MemberCategory.PUBLIC_FIELDS);
+            }
+            if (!descriptor.bridges.isEmpty()) {
+                hints.reflection().registerType(TypeReference.of("generated." + descriptor.name + "Bridges"), MemberCategory.PUBLIC_FIELDS);
+            }
+            for (String bridge : descriptor.bridges.values()) {
+                hints.reflection().registerType(TypeReference.of(bridge), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            }
+
+            List<String> beanClasses = new ArrayList<>(descriptor.beanClasses);
+            descriptor.beanIndex.stream().map(BeanIndexEntry::className)
+                    .filter(name -> !beanClasses.contains(name))
+                    .forEach(beanClasses::add);
+            for (String beanClass : beanClasses) {
+                // instantiated, autowired and introspected by the feature context; bridges resolve public methods on it
+                hints.reflection().registerType(TypeReference.of(beanClass),
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_DECLARED_METHODS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS, MemberCategory.DECLARED_FIELDS);
+            }
+
+            for (String type : descriptor.exposedTypes) {
+                // exposed interfaces are called through FeatureBridge by Method, behind a JDK proxy unless bridged
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_METHODS);
+                if (!descriptor.bridges.containsKey(type)) {
+                    hints.proxies().registerJdkProxy(TypeReference.of(type));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.aajumaharjan.pluginloader;
+
+import com.aajumaharjan.pluginloader.model.DescriptorIndexEntry;
+import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Hints for the plugin loader itself, independent of the configured features; the per-feature ones come from
+ * {@link PluginLoaderAotProcessor}.
+ */
+class PluginLoaderRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern(DescriptorIndexEntry.RESOURCE);
+        // FeatureBridge answers equals/hashCode/toString through Object's methods
+        try {
+            hints.reflection()
+                    .registerMethod(Object.class.getMethod("equals", Object.class), ExecutableMode.INVOKE)
+                    .registerMethod(Object.class.getMethod("hashCode"), ExecutableMode.INVOKE)
+                    .registerMethod(Object.class.getMethod("toString"), ExecutableMode.INVOKE);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
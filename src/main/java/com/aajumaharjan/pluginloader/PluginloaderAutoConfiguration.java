@@ -8,11 +8,13 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @Configuration
 @ComponentScan(basePackages = "com.aajumaharjan.pluginloader")
 @EnableConfigurationProperties(PluginLoaderProperties.class)
 @ConditionalOnProperty(prefix = "pluginloader", name = "enabled", havingValue = "true")
+@ImportRuntimeHints(PluginLoaderRuntimeHints.class)
 public class PluginloaderAutoConfiguration {
 
     private final FeatureManager featureManager;
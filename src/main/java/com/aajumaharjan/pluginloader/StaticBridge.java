@@ -0,0 +1,82 @@
+package com.aajumaharjan.pluginloader;
+
+import com.aajumaharjan.pluginloader.metrics.InvocationStats;
+
+/**
+ * Base of the delegating classes the annotation processor generates for exposed interfaces
+ * ({@code generated.<Feature>_<Interface>Bridge}).
+ * <p>
+ * A generated method casts the current target to the interface and calls it directly, so there is no proxy
+ * class to define at startup and no reflective dispatch per call. Retargeting on reload, draining, lazy
+ * activation and invocation metrics come from the {@link FeatureBridge} behind it. Generated code only uses
+ * the protected methods below; bindings are passed around as {@code Object}.
+ */
+public abstract class StaticBridge {
+    private final FeatureBridge bridge;
+    private final InvocationStats[] slots;
+
+    /**
+     * @param bridge  the {@link FeatureBridge} created by the feature manager
+     * @param methods signatures of the generated methods ({@code name(SimpleType,...)}), indexed like the calls below
+     */
+    protected StaticBridge(Object bridge, String[] methods) {
+        this.bridge = (FeatureBridge) bridge;
+        this.slots = this.bridge.slotsFor(methods);
+    }
+
+    // Starts a call: the returned binding stays valid (and is waited for by a reload) until exit()
+    protected final Object enter() {
+        return bridge.enter();
+    }
+
+    protected static Object target(Object binding) {
+        return ((FeatureBridge.Binding) binding).target();
+    }
+
+    protected final long start(int method) {
+        return slots == null ? 0 : System.nanoTime();
+    }
+
+    protected final void failed(int method) {
+        if (slots != null && slots[method] != null) {
+            slots[method].recordError();
+        }
+    }
+
+    protected final void exit(Object binding, int method, long start) {
+        ((FeatureBridge.Binding) binding).exit();
+        if (slots != null && slots[method] != null) {
+            slots[method].record(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        Object binding = enter();
+        try {
+            return target(binding).equals(other);
+        } finally {
+            ((FeatureBridge.Binding) binding).exit();
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        Object binding = enter();
+        try {
+            return target(binding).hashCode();
+        } finally {
+            ((FeatureBridge.Binding) binding).exit();
+        }
+    }
+
+    @Override
+    public String toString() {
+        Object binding = enter();
+        try {
+            return target(binding).toString();
+        } finally {
+            ((FeatureBridge.Binding) binding).exit();
+        }
+    }
+}
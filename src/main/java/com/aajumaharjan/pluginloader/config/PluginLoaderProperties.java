@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
 import java.util.List;
 
 @ConfigurationProperties(prefix = "pluginloader")
@@ -12,4 +13,50 @@ import java.util.List;
 @Setter
 public class PluginLoaderProperties {
     private List<FeatureConfig> features;
+    private Startup startup = new Startup();
+    private Reload reload = new Reload();
+    private Metrics metrics = new Metrics();
+
+    @Getter
+    @Setter
+    public static class Startup {
+        /**
+         * Number of feature child contexts built and refreshed concurrently. 1 keeps the sequential behaviour;
+         * registration into the host context always happens on the calling thread, in configuration order.
+         */
+        private int parallelism = 1;
+    }
+
+    @Getter
+    @Setter
+    public static class Reload {
+        /**
+         * Watch {@link #directory} and reload an isolated feature when a new jar for it appears there.
+         */
+        private boolean watch = false;
+
+        /**
+         * Where the processor copies feature jars ({@code <Feature>-<hash>.jar}).
+         */
+        private String directory = "target/pluginloader/features";
+
+        /**
+         * How long a reload or unload waits for calls already running in the old version before closing it.
+         */
+        private Duration drainTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Quiet period after the last change to a jar before it is loaded, so half-written files are not picked up.
+         */
+        private Duration settle = Duration.ofMillis(500);
+    }
+
+    @Getter
+    @Setter
+    public static class Metrics {
+        /**
+         * Count calls and errors and keep a latency histogram for every method of the interfaces features expose.
+         */
+        private boolean invocations = false;
+    }
 }
@@ -0,0 +1,171 @@
+package com.aajumaharjan.pluginloader.metrics;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * In-memory record of how features were integrated: per-phase timings, bean/class counts and failures per
+ * feature, plus the total time spent in {@code FeatureManager.initialize}.
+ * <p>
+ * Timings describe the latest integration of a feature, so a reload or a lazy activation overwrites the phases
+ * it ran. The report is always kept; Micrometer and the actuator endpoint only read from it.
+ */
+public class FeatureStartupReport {
+
+    public enum Phase {
+        DESCRIPTOR_LOOKUP("descriptor-lookup"),
+        SCAN("scan"),
+        REFRESH("refresh"),
+        EXPOSURE("exposure");
+
+        @Getter
+        private final String tagValue;
+
+        Phase(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+
+    // keyed by repository, in integration order; guarded by this
+    private final Map<String, FeatureMetrics> features = new LinkedHashMap<>();
+    private final List<Consumer<FeatureMetrics>> listeners = new ArrayList<>();
+    private volatile long startupNanos;
+
+    /**
+     * Metrics of a feature, created on first use; listeners registered with {@link #onFeature} are told about it.
+     */
+    public synchronized FeatureMetrics feature(String name, String repository) {
+        FeatureMetrics existing = features.get(repository);
+        if (existing != null) {
+            return existing;
+        }
+        FeatureMetrics created = new FeatureMetrics(name, repository);
+        features.put(repository, created);
+        listeners.forEach(listener -> listener.accept(created));
+        return created;
+    }
+
+    public synchronized List<FeatureMetrics> getFeatures() {
+        return List.copyOf(features.values());
+    }
+
+    /**
+     * Calls {@code listener} for every feature already recorded and for each one recorded later.
+     */
+    public synchronized void onFeature(Consumer<FeatureMetrics> listener) {
+        features.values().forEach(listener);
+        listeners.add(listener);
+    }
+
+    public long getStartupNanos() {
+        return startupNanos;
+    }
+
+    public void setStartupNanos(long startupNanos) {
+        this.startupNanos = startupNanos;
+    }
+
+    /**
+     * JSON-friendly view, as served by the {@code pluginloader} actuator endpoint.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startupMillis", TimeUnit.NANOSECONDS.toMillis(startupNanos));
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (FeatureMetrics feature : getFeatures()) {
+            entries.add(feature.toMap());
+        }
+        report.put("features", entries);
+        return report;
+    }
+
+    /**
+     * One line per feature, slowest first, for the startup log.
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "Feature startup took %d ms",
+                TimeUnit.NANOSECONDS.toMillis(startupNanos)));
+        getFeatures().stream()
+                .sorted((a, b) -> Long.compare(b.getTotalNanos(), a.getTotalNanos()))
+                .forEach(feature -> sb.append(System.lineSeparator()).append("  ").append(feature));
+        return sb.toString();
+    }
+
+    @Getter
+    public static final class FeatureMetrics {
+        private final String name;
+        private final String repository;
+        private final AtomicLongArray phaseNanos = new AtomicLongArray(Phase.values().length);
+        private final AtomicInteger beansRegistered = new AtomicInteger();
+        private final AtomicInteger classesLoaded = new AtomicInteger();
+        private final AtomicInteger exposedBeans = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private volatile String lastError;
+
+        FeatureMetrics(String name, String repository) {
+            this.name = name;
+            this.repository = repository;
+        }
+
+        public void record(Phase phase, long nanos) {
+            phaseNanos.set(phase.ordinal(), nanos);
+        }
+
+        public long getNanos(Phase phase) {
+            return phaseNanos.get(phase.ordinal());
+        }
+
+        public long getTotalNanos() {
+            long total = 0;
+            for (Phase phase : Phase.values()) {
+                total += getNanos(phase);
+            }
+            return total;
+        }
+
+        public void failed(Throwable error) {
+            failures.incrementAndGet();
+            lastError = String.valueOf(error.getMessage());
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", name);
+            entry.put("repository", repository);
+            Map<String, Long> phases = new LinkedHashMap<>();
+            for (Phase phase : Phase.values()) {
+                phases.put(phase.getTagValue(), TimeUnit.NANOSECONDS.toMillis(getNanos(phase)));
+            }
+            entry.put("phasesMillis", phases);
+            entry.put("beansRegistered", beansRegistered.get());
+            entry.put("classesLoaded", classesLoaded.get());
+            entry.put("exposedBeans", exposedBeans.get());
+            entry.put("failures", failures.get());
+            if (lastError != null) {
+                entry.put("lastError", lastError);
+            }
+            return entry;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%s: %d ms (",
+                    name, TimeUnit.NANOSECONDS.toMillis(getTotalNanos())));
+            for (Phase phase : Phase.values()) {
+                if (phase.ordinal() > 0) sb.append(", ");
+                sb.append(phase.getTagValue()).append(' ').append(TimeUnit.NANOSECONDS.toMillis(getNanos(phase))).append(" ms");
+            }
+            return sb.append(String.format(Locale.ROOT, "), %d beans, %d classes, %d exposed, %d failures",
+                    beansRegistered.get(), classesLoaded.get(), exposedBeans.get(), failures.get())).toString();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.aajumaharjan.pluginloader.metrics;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * {@link InvocationStats} of every instrumented method of the interfaces exposed by features, keyed by feature,
+ * interface and method signature. Slots are created when a type is registered, never on a call.
+ */
+public class InvocationMetrics {
+    // feature|type|signature -> stats, in registration order; guarded by this
+    private final Map<String, InvocationStats> stats = new LinkedHashMap<>();
+    private final List<Consumer<InvocationStats>> listeners = new ArrayList<>();
+
+    /**
+     * Preallocates the slots for every instance method of {@code type}; registering the same feature and type
+     * again (after a reload) returns the same slots.
+     */
+    public synchronized Map<Method, InvocationStats> register(String feature, Class<?> type) {
+        Map<Method, InvocationStats> slots = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) continue;
+            String signature = signature(method);
+            String key = feature + "|" + type.getName() + "|" + signature;
+            InvocationStats slot = stats.get(key);
+            if (slot == null) {
+                slot = new InvocationStats(feature, type.getName(), signature);
+                stats.put(key, slot);
+                InvocationStats created = slot;
+                listeners.forEach(listener -> listener.accept(created));
+            }
+            slots.put(method, slot);
+        }
+        return Map.copyOf(slots);
+    }
+
+    public synchronized List<InvocationStats> getMethods() {
+        return List.copyOf(stats.values());
+    }
+
+    /**
+     * Calls {@code listener} for every slot already registered and for each one registered later.
+     */
+    public synchronized void onMethod(Consumer<InvocationStats> listener) {
+        stats.values().forEach(listener);
+        listeners.add(listener);
+    }
+
+    public List<Map<String, Object>> toList() {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (InvocationStats method : getMethods()) {
+            entries.add(method.toMap());
+        }
+        return entries;
+    }
+
+    // greet(String) - overloads stay apart in tags
+    static String signature(Method method) {
+        return method.getName() + Arrays.stream(method.getParameterTypes())
+                .map(Class::getSimpleName)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+}
@@ -0,0 +1,115 @@
+package com.aajumaharjan.pluginloader.metrics;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call counters and a latency histogram for one method of an exposed interface.
+ * <p>
+ * Recording never allocates: every counter and histogram bucket is a {@link LongAdder} created up front. The
+ * histogram is log-linear like HDR histograms: exact below 16 ns, then 8 sub-buckets per power of two (about
+ * 12.5% relative error), up to 2^41 ns (roughly 36 minutes); longer calls land in the last bucket.
+ */
+@Getter
+public final class InvocationStats {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 1 << (SUB_BUCKET_BITS + 1);
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String feature;
+    private final String type;
+    private final String method;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    @Getter(lombok.AccessLevel.NONE)
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    InvocationStats(String feature, String type, String method) {
+        this.feature = feature;
+        this.type = type;
+        this.method = method;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        calls.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        buckets[bucketOf(nanos)].increment();
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Upper bound of the bucket holding the {@code quantile} (0..1) of recorded latencies; 0 when nothing was recorded.
+     */
+    public long percentileNanos(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < LINEAR_LIMIT) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + subBucket * width + width - 1;
+    }
+
+    Map<String, Object> toMap() {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("feature", feature);
+        entry.put("type", type);
+        entry.put("method", method);
+        entry.put("calls", calls.sum());
+        entry.put("errors", errors.sum());
+        entry.put("totalMillis", TimeUnit.NANOSECONDS.toMillis(totalNanos.sum()));
+        entry.put("p50Micros", TimeUnit.NANOSECONDS.toMicros(percentileNanos(0.5)));
+        entry.put("p99Micros", TimeUnit.NANOSECONDS.toMicros(percentileNanos(0.99)));
+        entry.put("maxMicros", TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+        return entry;
+    }
+}
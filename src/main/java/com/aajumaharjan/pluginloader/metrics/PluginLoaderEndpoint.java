@@ -0,0 +1,28 @@
+package com.aajumaharjan.pluginloader.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/pluginloader}: the startup report (per-feature phase timings, counts and failures) and, when
+ * enabled, per-method invocation metrics.
+ */
+@Endpoint(id = "pluginloader")
+public class PluginLoaderEndpoint {
+    private final FeatureStartupReport report;
+    private final InvocationMetrics invocations;
+
+    public PluginLoaderEndpoint(FeatureStartupReport report, InvocationMetrics invocations) {
+        this.report = report;
+        this.invocations = invocations;
+    }
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        Map<String, Object> body = report.toMap();
+        body.put("invocations", invocations.toList());
+        return body;
+    }
+}
@@ -0,0 +1,85 @@
+package com.aajumaharjan.pluginloader.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the {@link FeatureStartupReport} and the {@link InvocationMetrics} to Micrometer. Meters read the
+ * report and the preallocated slots, so features integrated after binding (lazy activation, reloads) show up as
+ * soon as they are recorded, and recording a call never touches the registry.
+ */
+public class PluginLoaderMeterBinder implements MeterBinder {
+    private final FeatureStartupReport report;
+    private final InvocationMetrics invocations;
+
+    public PluginLoaderMeterBinder(FeatureStartupReport report, InvocationMetrics invocations) {
+        this.report = report;
+        this.invocations = invocations;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        TimeGauge.builder("pluginloader.startup", report, TimeUnit.NANOSECONDS, FeatureStartupReport::getStartupNanos)
+                .description("Time spent integrating all features at startup")
+                .register(registry);
+        report.onFeature(feature -> bindFeature(registry, feature));
+        invocations.onMethod(method -> bindMethod(registry, method));
+    }
+
+    private void bindMethod(MeterRegistry registry, InvocationStats method) {
+        Tags tags = Tags.of("feature", method.getFeature(), "interface", method.getType(), "method", method.getMethod());
+        FunctionTimer.builder("pluginloader.invocations", method, s -> s.getCalls().sum(), s -> s.getTotalNanos().sum(), TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("Calls from the host into exposed feature beans")
+                .register(registry);
+        FunctionCounter.builder("pluginloader.invocations.errors", method, s -> s.getErrors().sum())
+                .tags(tags)
+                .description("Calls into exposed feature beans that threw")
+                .register(registry);
+        for (double quantile : new double[]{0.5, 0.99}) {
+            TimeGauge.builder("pluginloader.invocations.latency", method, TimeUnit.NANOSECONDS, s -> s.percentileNanos(quantile))
+                    .tags(tags)
+                    .tag("quantile", Double.toString(quantile))
+                    .description("Latency percentile since startup, from the bridge histogram")
+                    .register(registry);
+        }
+        TimeGauge.builder("pluginloader.invocations.max", method, TimeUnit.NANOSECONDS, s -> s.getMaxNanos().get())
+                .tags(tags)
+                .register(registry);
+    }
+
+    private void bindFeature(MeterRegistry registry, FeatureStartupReport.FeatureMetrics feature) {
+        // features from different repositories can share a name, so the repository keeps their meters apart
+        Tags tags = Tags.of("feature", feature.getName(), "repository", feature.getRepository());
+        for (FeatureStartupReport.Phase phase : FeatureStartupReport.Phase.values()) {
+            TimeGauge.builder("pluginloader.feature.phase", feature, TimeUnit.NANOSECONDS, f -> f.getNanos(phase))
+                    .tags(tags)
+                    .tag("phase", phase.getTagValue())
+                    .description("Time spent in each phase of the feature's latest integration")
+                    .register(registry);
+        }
+        Gauge.builder("pluginloader.feature.beans", feature, f -> f.getBeansRegistered().get())
+                .tags(tags)
+                .description("Beans registered in the feature's child context")
+                .register(registry);
+        Gauge.builder("pluginloader.feature.classes", feature, f -> f.getClassesLoaded().get())
+                .tags(tags)
+                .description("Classes defined from the feature jar (isolated features)")
+                .register(registry);
+        Gauge.builder("pluginloader.feature.exposed", feature, f -> f.getExposedBeans().get())
+                .tags(tags)
+                .description("Beans exposed to the host context")
+                .register(registry);
+        FunctionCounter.builder("pluginloader.feature.failures", feature, f -> f.getFailures().get())
+                .tags(tags)
+                .description("Failed integrations, activations and reloads")
+                .register(registry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.aajumaharjan.pluginloader.metrics;
+
+import com.aajumaharjan.pluginloader.FeatureManager;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the startup report into Micrometer and Actuator when they are on the classpath; without them the report
+ * is still logged at startup and available from {@link FeatureManager#getStartupReport()}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class PluginLoaderMetricsConfiguration {
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    static class MicrometerConfiguration {
+        @Bean
+        PluginLoaderMeterBinder pluginLoaderMeterBinder(FeatureManager featureManager) {
+            return new PluginLoaderMeterBinder(featureManager.getStartupReport(), featureManager.getInvocationMetrics());
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class EndpointConfiguration {
+        @Bean
+        PluginLoaderEndpoint pluginLoaderEndpoint(FeatureManager featureManager) {
+            return new PluginLoaderEndpoint(featureManager.getStartupReport(), featureManager.getInvocationMetrics());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.aajumaharjan.pluginloader.model;
+
+/**
+ * Build-time description of a bean candidate found in feature sources, stored in the descriptor
+ * {@code BEAN_INDEX} so the runtime can register bean definitions without scanning the classpath.
+ * <p>
+ * Encoded as {@code className|stereotype|scope|beanName|primary|lazy}; an empty scope means singleton, or a scope
+ * given as a constant, and an empty bean name is left to the runtime's bean name generator.
+ */
+public record BeanIndexEntry(String className, String stereotype, String scope, String beanName, boolean primary, boolean lazy) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        return String.join(SEPARATOR, className, nullToEmpty(stereotype), nullToEmpty(scope), nullToEmpty(beanName),
+                Boolean.toString(primary), Boolean.toString(lazy));
+    }
+
+    public static BeanIndexEntry decode(String encoded) {
+        String[] parts = encoded.split("\\|", -1);
+        if (parts.length != 6 || parts[0].isBlank()) {
+            throw new IllegalArgumentException("Malformed bean index entry: " + encoded);
+        }
+        return new BeanIndexEntry(parts[0], emptyToNull(parts[1]), emptyToNull(parts[2]), emptyToNull(parts[3]),
+                Boolean.parseBoolean(parts[4]), Boolean.parseBoolean(parts[5]));
+    }
+
+    private static String nullToEmpty(String s) {
+        return s == null ? "" : s;
+    }
+
+    private static String emptyToNull(String s) {
+        return s.isEmpty() ? null : s;
+    }
+}
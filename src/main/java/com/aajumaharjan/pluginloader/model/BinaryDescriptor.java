@@ -0,0 +1,170 @@
+package com.aajumaharjan.pluginloader.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact alternative to a generated descriptor class, stored as the resource {@link #resourceName} of the
+ * descriptor it replaces. It can be read without defining a class, straight from a mapped or direct buffer.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header   magic "PLD\0" (u4), version (u2), flags (u2, reserved)
+ * strings  count (u4), then per string: UTF-8 length (u2) and bytes; every distinct string is stored once
+ * body     name, jarPath, jarHash (string index, -1 for none)
+ *          packages, beanClasses, exposedTypes: count (u4) and string indexes
+ *          beanIndex: count (u4), then per entry className, stereotype, scope, beanName (string index, -1 for
+ *          none) and flags (u1: 1 primary, 2 lazy)
+ * </pre>
+ * Readers reject newer versions, so the layout can change by bumping {@link #VERSION}.
+ */
+public record BinaryDescriptor(String name, String jarPath, String jarHash, List<String> packages, List<String> beanClasses,
+                               List<String> exposedTypes, List<BeanIndexEntry> beanIndex) {
+    public static final int MAGIC = 0x504C4400;
+    public static final int VERSION = 1;
+    private static final String RESOURCE_PREFIX = "META-INF/pluginloader/";
+    private static final String EXTENSION = ".pld";
+    private static final int NONE = -1;
+    private static final int PRIMARY = 1;
+    private static final int LAZY = 2;
+
+    /**
+     * Resource holding the binary form of {@code descriptorClassName}, e.g.
+     * {@code META-INF/pluginloader/generated/GreetingDescriptor.pld}.
+     */
+    public static String resourceName(String descriptorClassName) {
+        return RESOURCE_PREFIX + descriptorClassName.replace('.', '/') + EXTENSION;
+    }
+
+    public byte[] encode() {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            DataOutputStream out = new DataOutputStream(body);
+            out.writeInt(intern(strings, name));
+            out.writeInt(intern(strings, jarPath));
+            out.writeInt(intern(strings, jarHash));
+            writeStrings(out, strings, packages);
+            writeStrings(out, strings, beanClasses);
+            writeStrings(out, strings, exposedTypes);
+            out.writeInt(beanIndex.size());
+            for (BeanIndexEntry entry : beanIndex) {
+                out.writeInt(intern(strings, entry.className()));
+                out.writeInt(intern(strings, entry.stereotype()));
+                out.writeInt(intern(strings, entry.scope()));
+                out.writeInt(intern(strings, entry.beanName()));
+                out.writeByte((entry.primary() ? PRIMARY : 0) | (entry.lazy() ? LAZY : 0));
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.size() + 64 * strings.size());
+            DataOutputStream header = new DataOutputStream(bytes);
+            header.writeInt(MAGIC);
+            header.writeShort(VERSION);
+            header.writeShort(0);
+            header.writeInt(strings.size());
+            for (String s : strings.keySet()) {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                if (utf8.length > 0xFFFF) {
+                    throw new IllegalArgumentException("String too long for a binary descriptor: " + s.substring(0, 64) + "...");
+                }
+                header.writeShort(utf8.length);
+                header.write(utf8);
+            }
+            body.writeTo(bytes);
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a descriptor from {@code buffer}'s position; the buffer is consumed but never copied as a whole, so
+     * it may be a memory-mapped file. Each distinct string is decoded once and shared by every field using it.
+     */
+    public static BinaryDescriptor decode(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a pluginloader binary descriptor");
+            }
+            int version = Short.toUnsignedInt(buffer.getShort());
+            if (version > VERSION) {
+                throw new IllegalArgumentException("Unsupported binary descriptor version " + version + " (supported up to " + VERSION + ")");
+            }
+            buffer.getShort(); // flags
+
+            String[] strings = new String[checkedCount(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                int length = Short.toUnsignedInt(buffer.getShort());
+                ByteBuffer utf8 = buffer.slice(buffer.position(), length);
+                strings[i] = StandardCharsets.UTF_8.decode(utf8).toString();
+                buffer.position(buffer.position() + length);
+            }
+
+            String name = string(strings, buffer.getInt());
+            String jarPath = string(strings, buffer.getInt());
+            String jarHash = string(strings, buffer.getInt());
+            List<String> packages = readStrings(buffer, strings);
+            List<String> beanClasses = readStrings(buffer, strings);
+            List<String> exposedTypes = readStrings(buffer, strings);
+            int entries = checkedCount(buffer);
+            List<BeanIndexEntry> beanIndex = new ArrayList<>(entries);
+            for (int i = 0; i < entries; i++) {
+                String className = string(strings, buffer.getInt());
+                String stereotype = string(strings, buffer.getInt());
+                String scope = string(strings, buffer.getInt());
+                String beanName = string(strings, buffer.getInt());
+                int flags = buffer.get();
+                beanIndex.add(new BeanIndexEntry(className, stereotype, scope, beanName, (flags & PRIMARY) != 0, (flags & LAZY) != 0));
+            }
+            return new BinaryDescriptor(name, jarPath, jarHash, packages, beanClasses, exposedTypes, List.copyOf(beanIndex));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated binary descriptor", e);
+        }
+    }
+
+    private static int intern(Map<String, Integer> strings, String value) {
+        return value == null ? NONE : strings.computeIfAbsent(value, s -> strings.size());
+    }
+
+    private static void writeStrings(DataOutputStream out, Map<String, Integer> strings, Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeInt(intern(strings, value));
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer, String[] strings) {
+        String[] values = new String[checkedCount(buffer)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = string(strings, buffer.getInt());
+        }
+        return List.of(values);
+    }
+
+    // a count can never exceed the bytes left, which keeps corrupt input from allocating huge arrays
+    private static int checkedCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalArgumentException("Corrupt binary descriptor: count " + count);
+        }
+        return count;
+    }
+
+    private static String string(String[] strings, int index) {
+        if (index == NONE) return null;
+        if (index < 0 || index >= strings.length) {
+            throw new IllegalArgumentException("Corrupt binary descriptor: string index " + index);
+        }
+        return strings[index];
+    }
+}
@@ -0,0 +1,26 @@
+package com.aajumaharjan.pluginloader.model;
+
+/**
+ * Build-time mapping from a feature's repository to its generated descriptor, written by the processor to
+ * {@value #RESOURCE} so the runtime loads descriptors by exact name instead of probing candidate class names.
+ * <p>
+ * One entry per line, encoded as {@code descriptorClassName|repository}; blank lines and lines starting with
+ * {@code #} are ignored.
+ */
+public record DescriptorIndexEntry(String descriptorClassName, String repository) {
+    public static final String RESOURCE = "META-INF/pluginloader/descriptors.idx";
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        return descriptorClassName + SEPARATOR + repository;
+    }
+
+    public static DescriptorIndexEntry decode(String encoded) {
+        // the repository comes last and may itself contain the separator
+        int separator = encoded.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == encoded.length() - 1) {
+            throw new IllegalArgumentException("Malformed descriptor index entry: " + encoded);
+        }
+        return new DescriptorIndexEntry(encoded.substring(0, separator).trim(), encoded.substring(separator + 1).trim());
+    }
+}
@@ -13,4 +13,16 @@ public class FeatureConfig {
     private String repository;
     private String branch;
     private List<String> packages;
+    // load the feature from its built jar (descriptor JAR_PATH) through a dedicated child-first classloader
+    private boolean isolated;
+    // packages resolved parent-first when isolated, typically the API the host programs against
+    private List<String> sharedPackages;
+    // expose placeholders at startup and build/refresh the child context on the first call into the feature
+    private boolean lazy;
+    // "binary": the processor did not import the feature's sources, so it is always loaded from its jar like an isolated feature
+    private String mode;
+
+    public boolean isBinary() {
+        return "binary".equalsIgnoreCase(mode);
+    }
 }
@@ -0,0 +1,48 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Built feature jars keyed by the inputs that determine them: the checked-out sources (commit and checkout
+ * options), the build command and the JDK. A hit means the build can be skipped entirely.
+ * <p>
+ * Entries are written to a temp file and moved into place, so concurrent builds never see a partial jar.
+ */
+class ArtifactCache {
+    private final Path root;
+
+    ArtifactCache(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    static Path defaultRoot() {
+        return Path.of(System.getProperty("user.home"), ".pluginloader", "artifacts");
+    }
+
+    String key(String sourceKey, List<String> buildCommand) {
+        return Digests.sha256Hex(sourceKey + "\n" + String.join("\u0000", buildCommand) + "\n" + Runtime.version());
+    }
+
+    Optional<Path> lookup(String key) {
+        Path jar = root.resolve(key + ".jar");
+        return Files.isRegularFile(jar) ? Optional.of(jar) : Optional.empty();
+    }
+
+    Path store(String key, Path jar) throws IOException {
+        Files.createDirectories(root);
+        Path target = root.resolve(key + ".jar");
+        Path temp = Files.createTempFile(root, key, ".tmp");
+        try {
+            Files.copy(jar, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return target;
+    }
+}
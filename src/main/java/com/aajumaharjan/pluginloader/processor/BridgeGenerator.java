@@ -0,0 +1,206 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Generates a delegating class per exposed interface ({@code generated.<Feature>_<Interface>Bridge}, extending
+ * the runtime's {@code StaticBridge}) and an index {@code generated.<Feature>Bridges} the feature manager reads
+ * to register them instead of JDK proxies.
+ * <p>
+ * Runs in the round after the feature sources were imported, when their interfaces are available as elements.
+ * Generic interfaces are implemented raw with erased signatures. Interfaces that cannot be implemented from the
+ * {@code generated} package (non-public, nested, sealed) or that declare a method clashing with
+ * {@code StaticBridge} are skipped; the runtime falls back to a proxy for them.
+ */
+class BridgeGenerator {
+    private static final String BRIDGE_PACKAGE = "generated";
+    private static final String BASE_CLASS = "com.aajumaharjan.pluginloader.StaticBridge";
+    // final methods of StaticBridge plus the Object methods it implements
+    private static final Set<String> RESERVED = Set.of("enter", "target", "start", "failed", "exit", "equals", "hashCode", "toString");
+
+    public String getIndexName(String featureName) {
+        return BRIDGE_PACKAGE + "." + featureName + "Bridges";
+    }
+
+    /**
+     * Writes bridges for the public interfaces among {@code typeNames} and the feature's bridge index; returns
+     * the exposed interface to bridge class mapping (empty when nothing could be generated, and no index is written).
+     */
+    public Map<String, String> writeBridges(String featureName, Set<String> typeNames, Elements elements, Types types,
+                                            Filer filer, Messager messager) {
+        Map<String, String> bridges = new LinkedHashMap<>();
+        Set<String> usedNames = new HashSet<>();
+        for (String typeName : new TreeSet<>(typeNames)) {
+            TypeElement type = elements.getTypeElement(typeName);
+            if (type == null || !isBridgeable(type)) {
+                continue;
+            }
+            List<ExecutableElement> methods = methodsOf(type, elements);
+            if (methods == null) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Interface " + typeName + " declares a method reserved by the bridge base class - using a proxy at runtime");
+                continue;
+            }
+            String simpleName = featureName + "_" + type.getSimpleName() + "Bridge";
+            for (int i = 2; !usedNames.add(simpleName); i++) {
+                simpleName = featureName + "_" + type.getSimpleName() + "Bridge" + i;
+            }
+            if (writeBridge(simpleName, type, methods, types, filer, messager)) {
+                bridges.put(typeName, BRIDGE_PACKAGE + "." + simpleName);
+            }
+        }
+        if (!bridges.isEmpty()) {
+            writeIndex(featureName, bridges, filer, messager);
+        }
+        return bridges;
+    }
+
+    private boolean isBridgeable(TypeElement type) {
+        return type.getKind() == ElementKind.INTERFACE
+                && type.getNestingKind() == NestingKind.TOP_LEVEL
+                && type.getModifiers().contains(Modifier.PUBLIC)
+                && !type.getModifiers().contains(Modifier.SEALED);
+    }
+
+    // Abstract and default instance methods, inherited ones included; null when one clashes with StaticBridge
+    private List<ExecutableElement> methodsOf(TypeElement type, Elements elements) {
+        List<ExecutableElement> methods = new ArrayList<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type))) {
+            Element owner = method.getEnclosingElement();
+            Set<Modifier> modifiers = method.getModifiers();
+            if (owner.getKind() != ElementKind.INTERFACE || modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            if (RESERVED.contains(method.getSimpleName().toString())) {
+                return null;
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    private boolean writeBridge(String simpleName, TypeElement type, List<ExecutableElement> methods, Types types,
+                                Filer filer, Messager messager) {
+        String interfaceName = type.getQualifiedName().toString();
+        String fullyQualifiedClassName = BRIDGE_PACKAGE + "." + simpleName;
+        try {
+            JavaFileObject file = filer.createSourceFile(fullyQualifiedClassName, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write("package " + BRIDGE_PACKAGE + ";\n\n");
+                writer.write("// generated by pluginloader: calls " + interfaceName + " on the current feature bean without a proxy\n");
+                writer.write("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n");
+                writer.write("public final class " + simpleName + " extends " + BASE_CLASS + " implements " + interfaceName + " {\n");
+                writer.write("    private static final String[] METHODS = new String[] {");
+                writer.write(methods.stream().map(m -> "\"" + signature(m, types) + "\"").collect(Collectors.joining(", ")));
+                writer.write("};\n\n");
+                writer.write("    public " + simpleName + "(Object bridge) {\n");
+                writer.write("        super(bridge, METHODS);\n");
+                writer.write("    }\n");
+                for (int i = 0; i < methods.size(); i++) {
+                    writer.write("\n");
+                    writeMethod(writer, i, interfaceName, methods.get(i), types);
+                }
+                writer.write("}\n");
+            }
+            messager.printMessage(Diagnostic.Kind.NOTE, "Generated bridge " + fullyQualifiedClassName);
+            return true;
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Failed to generate bridge " + fullyQualifiedClassName + ": " + e);
+            return false;
+        }
+    }
+
+    private void writeMethod(Writer writer, int index, String interfaceName, ExecutableElement method, Types types) throws IOException {
+        boolean isVoid = method.getReturnType().getKind() == TypeKind.VOID;
+        List<String> parameters = new ArrayList<>();
+        List<String> arguments = new ArrayList<>();
+        for (VariableElement parameter : method.getParameters()) {
+            String name = "arg" + arguments.size();
+            parameters.add(types.erasure(parameter.asType()) + " " + name);
+            arguments.add(name);
+        }
+        writer.write("    @Override\n");
+        writer.write("    public " + (isVoid ? "void" : types.erasure(method.getReturnType()).toString()) + " "
+                + method.getSimpleName() + "(" + String.join(", ", parameters) + ")");
+        if (!method.getThrownTypes().isEmpty()) {
+            writer.write(" throws " + method.getThrownTypes().stream().map(t -> types.erasure(t).toString()).collect(Collectors.joining(", ")));
+        }
+        writer.write(" {\n");
+        writer.write("        Object binding = enter();\n");
+        writer.write("        long start = start(" + index + ");\n");
+        writer.write("        try {\n");
+        writer.write("            " + (isVoid ? "" : "return ") + "((" + interfaceName + ") target(binding))."
+                + method.getSimpleName() + "(" + String.join(", ", arguments) + ");\n");
+        writer.write("        } catch (Throwable t) {\n");
+        writer.write("            failed(" + index + ");\n");
+        writer.write("            throw t;\n");
+        writer.write("        } finally {\n");
+        writer.write("            exit(binding, " + index + ", start);\n");
+        writer.write("        }\n");
+        writer.write("    }\n");
+    }
+
+    private void writeIndex(String featureName, Map<String, String> bridges, Filer filer, Messager messager) {
+        String className = featureName + "Bridges";
+        String fullyQualifiedClassName = BRIDGE_PACKAGE + "." + className;
+        try {
+            JavaFileObject file = filer.createSourceFile(fullyQualifiedClassName);
+            try (Writer writer = file.openWriter()) {
+                writer.write("package " + BRIDGE_PACKAGE + ";\n\n");
+                writer.write("public final class " + className + " {\n");
+                writer.write("    // exposedInterface=generatedBridge, registered by the feature manager instead of a JDK proxy\n");
+                writer.write("    public static final String[] BRIDGES = new String[] {");
+                writer.write(bridges.entrySet().stream().map(e -> "\"" + e.getKey() + "=" + e.getValue() + "\"").collect(Collectors.joining(", ")));
+                writer.write("};\n\n");
+                writer.write("    private " + className + "(){}\n");
+                writer.write("}\n");
+            }
+            messager.printMessage(Diagnostic.Kind.NOTE, "Generated " + fullyQualifiedClassName);
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Failed to generate bridge index " + fullyQualifiedClassName + ": " + e);
+        }
+    }
+
+    // Same shape as the runtime's invocation metrics key: name(SimpleType,...) over erased parameter types
+    static String signature(ExecutableElement method, Types types) {
+        return method.getSimpleName() + method.getParameters().stream()
+                .map(p -> simpleName(types.erasure(p.asType())))
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static String simpleName(TypeMirror type) {
+        if (type instanceof ArrayType array) {
+            return simpleName(array.getComponentType()) + "[]";
+        }
+        if (type instanceof DeclaredType declared) {
+            return declared.asElement().getSimpleName().toString();
+        }
+        return type.toString();
+    }
+}
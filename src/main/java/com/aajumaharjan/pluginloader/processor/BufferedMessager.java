@@ -0,0 +1,47 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import javax.annotation.processing.Messager;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.tools.Diagnostic;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Messager that records diagnostics so work done off the processor thread can report them later, in order,
+ * through the real (non thread-safe) Messager.
+ */
+class BufferedMessager implements Messager {
+    private record Message(Diagnostic.Kind kind, CharSequence msg) {
+    }
+
+    private final List<Message> messages = new ArrayList<>();
+
+    @Override
+    public synchronized void printMessage(Diagnostic.Kind kind, CharSequence msg) {
+        messages.add(new Message(kind, msg.toString()));
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e) {
+        printMessage(kind, msg);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a) {
+        printMessage(kind, msg);
+    }
+
+    @Override
+    public void printMessage(Diagnostic.Kind kind, CharSequence msg, Element e, AnnotationMirror a, AnnotationValue v) {
+        printMessage(kind, msg);
+    }
+
+    synchronized void replayTo(Messager target) {
+        for (Message message : messages) {
+            target.printMessage(message.kind(), message.msg());
+        }
+        messages.clear();
+    }
+}
@@ -0,0 +1,10 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import java.nio.file.Path;
+
+/**
+ * Working tree of a feature repository at the commit that was checked out for the current compile.
+ * {@code cached} is true when the tree lives in the persistent repository cache rather than a temp directory.
+ */
+record CheckedOutRepository(Path directory, String commitId, boolean cached) {
+}
@@ -0,0 +1,27 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import java.util.List;
+
+/**
+ * How much of a feature repository to fetch and check out. A {@code depth} of 0 fetches the full history,
+ * {@code singleBranch} fetches only the configured branch, and a non-empty {@code sparsePaths} checks out only
+ * those paths (files or directories relative to the repository root, e.g. {@code pom.xml} and {@code src/main}).
+ */
+public record CloneOptions(int depth, boolean singleBranch, List<String> sparsePaths) {
+    public static final CloneOptions DEFAULTS = new CloneOptions(0, false, List.of());
+
+    public CloneOptions {
+        if (depth < 0) {
+            throw new IllegalArgumentException("depth must not be negative: " + depth);
+        }
+        sparsePaths = sparsePaths == null ? List.of() : List.copyOf(sparsePaths);
+    }
+
+    public boolean isShallow() {
+        return depth > 0;
+    }
+
+    public boolean isSparse() {
+        return !sparsePaths.isEmpty();
+    }
+}
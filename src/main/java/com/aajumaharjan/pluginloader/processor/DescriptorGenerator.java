@@ -1,15 +1,32 @@
 package com.aajumaharjan.pluginloader.processor;
 
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
+import com.aajumaharjan.pluginloader.model.BinaryDescriptor;
+import com.aajumaharjan.pluginloader.model.DescriptorIndexEntry;
+
+import javax.annotation.processing.Filer;
 import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.tools.Diagnostic;
+import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 class DescriptorGenerator {
     private static final String DESCRIPTOR_PACKAGE = "generated";
+    // <feature>-<content hash>.jar, as named by FeatureJarBuilder
+    private static final Pattern HASHED_JAR = Pattern.compile(".*-([0-9a-f]{16})\\.jar");
 
     public String getDescriptorName(String featureName) {
         return DESCRIPTOR_PACKAGE + "." + featureName + "Descriptor";
@@ -21,10 +38,28 @@ class DescriptorGenerator {
                          String jarPathForDescriptor,
                          ProcessingEnvironment processingEnv,
                          Messager messager) {
+        writeDescriptor(featureName, packages, new ScanResult(packages, beanClasses), jarPathForDescriptor, processingEnv, messager);
+    }
+
+    public void writeDescriptor(String featureName,
+                         Set<String> packages,
+                         ScanResult scanResult,
+                         String jarPathForDescriptor,
+                         ProcessingEnvironment processingEnv,
+                         Messager messager) {
+        writeDescriptor(featureName, packages, scanResult, jarPathForDescriptor, processingEnv.getFiler(), messager);
+    }
+
+    public void writeDescriptor(String featureName,
+                         Set<String> packages,
+                         ScanResult scanResult,
+                         String jarPathForDescriptor,
+                         Filer filer,
+                         Messager messager) {
         String className = featureName + "Descriptor";
         String fullyQualifiedClassName = DESCRIPTOR_PACKAGE + "." + className;
         try {
-            JavaFileObject builderFile = processingEnv.getFiler().createSourceFile(fullyQualifiedClassName);
+            JavaFileObject builderFile = filer.createSourceFile(fullyQualifiedClassName);
             try (Writer writer = builderFile.openWriter()) {
                 writer.write("package " + DESCRIPTOR_PACKAGE + ";\n\n");
                 writer.write("public final class " + className + " {\n");
@@ -39,7 +74,17 @@ class DescriptorGenerator {
                 writer.write("};\n\n");
 
                 writer.write("    public static final String[] BEAN_CLASSES = new String[] {");
-                writeArray(writer, beanClasses);
+                writeArray(writer, scanResult.beanClasses());
+                writer.write("};\n\n");
+
+                writer.write("    // public interfaces exposed to the host through a bridge when a feature bean implements them\n");
+                writer.write("    public static final String[] EXPOSED_TYPES = new String[] {");
+                writeArray(writer, scanResult.exposedTypes());
+                writer.write("};\n\n");
+
+                writer.write("    // className|stereotype|scope|beanName|primary|lazy, registered without classpath scanning\n");
+                writer.write("    public static final String[] BEAN_INDEX = new String[] {");
+                writeArray(writer, beanIndex(featureName, scanResult, messager).stream().map(BeanIndexEntry::encode).collect(Collectors.toCollection(LinkedHashSet::new)));
                 writer.write("};\n\n");
 
                 writer.write("    private " + className + "(){}\n");
@@ -51,9 +96,71 @@ class DescriptorGenerator {
         }
     }
 
+    /**
+     * Writes the descriptor as a {@link BinaryDescriptor} resource instead of a class; the runtime finds it under
+     * the same descriptor name.
+     */
+    public void writeBinaryDescriptor(String featureName,
+                                      Set<String> packages,
+                                      ScanResult scanResult,
+                                      String jarPathForDescriptor,
+                                      Filer filer,
+                                      Messager messager) {
+        String resourceName = BinaryDescriptor.resourceName(getDescriptorName(featureName));
+        BinaryDescriptor descriptor = new BinaryDescriptor(featureName, jarPathForDescriptor, jarHash(jarPathForDescriptor),
+                List.copyOf(new TreeSet<>(packages)),
+                List.copyOf(new TreeSet<>(scanResult.beanClasses())),
+                List.copyOf(new TreeSet<>(scanResult.exposedTypes())),
+                beanIndex(featureName, scanResult, messager).stream().sorted(Comparator.comparing(BeanIndexEntry::encode)).toList());
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", resourceName);
+            try (OutputStream out = file.openOutputStream()) {
+                out.write(descriptor.encode());
+            }
+            messager.printMessage(Diagnostic.Kind.NOTE, "Generated " + resourceName);
+        } catch (IOException | IllegalArgumentException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write binary descriptor " + resourceName + ": " + e);
+        }
+    }
+
+    // A partial index would hide beans from the feature context, so then none is written and the runtime scans
+    private Set<BeanIndexEntry> beanIndex(String featureName, ScanResult scanResult, Messager messager) {
+        if (!scanResult.indexGaps().isEmpty()) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Bean index of " + featureName + " is incomplete - its packages will be scanned at runtime: "
+                    + scanResult.indexGaps().stream().sorted().limit(5).collect(Collectors.joining(", ")));
+        }
+        return scanResult.completeBeanIndex();
+    }
+
+    private static String jarHash(String jarPath) {
+        if (jarPath == null) return null;
+        Matcher matcher = HASHED_JAR.matcher(jarPath);
+        return matcher.matches() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Writes {@value DescriptorIndexEntry#RESOURCE} to the class output, listing every descriptor of this compile.
+     */
+    public void writeIndex(List<DescriptorIndexEntry> entries, Filer filer, Messager messager) {
+        try {
+            FileObject index = filer.createResource(StandardLocation.CLASS_OUTPUT, "", DescriptorIndexEntry.RESOURCE);
+            try (Writer writer = index.openWriter()) {
+                writer.write("# descriptorClassName|repository, generated by pluginloader\n");
+                for (DescriptorIndexEntry entry : entries) {
+                    writer.write(entry.encode());
+                    writer.write("\n");
+                }
+            }
+            messager.printMessage(Diagnostic.Kind.NOTE, "Generated " + DescriptorIndexEntry.RESOURCE + " with " + entries.size() + " descriptor(s)");
+        } catch (IOException ioe) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write descriptor index " + DescriptorIndexEntry.RESOURCE + ": " + ioe);
+        }
+    }
+
+    // Sorted so the descriptor is identical regardless of scan order
     private void writeArray(Writer writer, Set<String> values) throws IOException {
         boolean first = true;
-        for (String v : values) {
+        for (String v : new TreeSet<>(values)) {
             if (!first) writer.write(", ");
             writer.write("\"" + escapeForJava(v) + "\"");
             first = false;
@@ -2,79 +2,316 @@ package com.aajumaharjan.pluginloader.processor;
 
 import javax.annotation.processing.Messager;
 import javax.tools.Diagnostic;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 class FeatureJarBuilder {
+    // lines of a failed build's log reported to the Messager
+    private static final int FAILURE_TAIL_LINES = 20;
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows");
+    // null disables artifact caching: every call builds
+    private final ArtifactCache artifactCache;
+    // tried before Maven when set; Maven remains the fallback for sources it cannot compile
+    private final InProcessCompiler compiler;
+    private final MavenOptions mavenOptions;
+
+    FeatureJarBuilder() {
+        this(null);
+    }
+
+    FeatureJarBuilder(ArtifactCache artifactCache) {
+        this(artifactCache, null);
+    }
+
+    FeatureJarBuilder(ArtifactCache artifactCache, InProcessCompiler compiler) {
+        this(artifactCache, compiler, MavenOptions.DEFAULTS);
+    }
+
+    FeatureJarBuilder(ArtifactCache artifactCache, InProcessCompiler compiler, MavenOptions mavenOptions) {
+        this.artifactCache = artifactCache;
+        this.compiler = compiler;
+        this.mavenOptions = mavenOptions;
+    }
+
+    // What decides how a jar is built, independent of the sources; part of the incremental fingerprint
+    String buildConfiguration() {
+        return buildConfiguration(compiler, mavenOptions);
+    }
+
+    static String buildConfiguration(InProcessCompiler compiler, MavenOptions mavenOptions) {
+        return (compiler == null ? "maven" : "javac " + compiler.command()) + " " + mavenOptions;
+    }
 
     public Optional<Path> buildAndCopyArtifact(Path repoDir, String featureName, Messager messager) {
-        try {
-            ProcessBuilder pb = createProcessBuilder(repoDir);
-            Process p = pb.start();
+        return buildAndCopyArtifact(repoDir, featureName, null, messager);
+    }
 
-            try (var isr = new InputStreamReader(p.getInputStream());
-                 var br = new BufferedReader(isr)) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    messager.printMessage(Diagnostic.Kind.NOTE, "[mvn] " + line);
+    public Optional<Path> buildAndCopyArtifact(Path repoDir, String featureName, String sourceKey, Messager messager) {
+        return buildAndCopyArtifact(repoDir, featureName, sourceKey, List.of(), messager);
+    }
+
+    /**
+     * Builds the feature and copies its jar to {@code target/pluginloader/features/<feature>-<content hash>.jar}.
+     * {@code sourceKey} identifies the checked-out sources (commit and checkout options); when set and a jar was
+     * already built for the same sources and build command, the build is skipped and that jar is reused.
+     * Repositories with a Gradle build and no {@code pom.xml} are built with Gradle, everything else with Maven.
+     * {@code buildArgs} are appended to that command; a feature that has them is never compiled in process.
+     * The build's output goes to {@code target/pluginloader/logs/<feature>-build.log}; only a summary is reported.
+     */
+    public Optional<Path> buildAndCopyArtifact(Path repoDir, String featureName, String sourceKey, List<String> buildArgs, Messager messager) {
+        try {
+            boolean gradle = isGradle(repoDir);
+            String tool = gradle ? "Gradle" : "Maven";
+            if (compiler != null && buildArgs.isEmpty()) {
+                Optional<Path> compiled = compileInProcess(repoDir, featureName, sourceKey, messager);
+                if (compiled.isPresent()) {
+                    return compiled;
                 }
+                messager.printMessage(Diagnostic.Kind.NOTE, "In-process build of " + featureName + " failed - falling back to " + tool);
+            }
+
+            ProcessBuilder pb = createProcessBuilder(repoDir, buildArgs);
+            String cacheKey = cacheKey(sourceKey, pb.command());
+            Optional<Path> cached = cached(cacheKey, featureName, messager);
+            if (cached.isPresent()) {
+                return cached;
             }
 
+            Path log = buildLog(featureName);
+            pb.redirectErrorStream(true).redirectOutput(log.toFile());
+            long start = System.nanoTime();
+            Process p = pb.start();
             boolean finished = p.waitFor(600, TimeUnit.SECONDS);
+            if (!finished) {
+                p.destroyForcibly();
+            }
             if (!finished || p.exitValue() != 0) {
-                messager.printMessage(Diagnostic.Kind.NOTE, "Maven build failed or timed out for " + repoDir);
+                String prefix = gradle ? "[gradle] " : "[mvn] ";
+                messager.printMessage(Diagnostic.Kind.NOTE, tool + " build failed or timed out for " + repoDir + " - full log in " + log);
+                tail(log).forEach(line -> messager.printMessage(Diagnostic.Kind.NOTE, prefix + line));
                 return Optional.empty();
             }
+            messager.printMessage(Diagnostic.Kind.NOTE, tool + " build of " + featureName + " finished in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms - log in " + log);
 
-            Path targetDir = repoDir.resolve("target");
-            if (!Files.exists(targetDir)) return Optional.empty();
-
-            try (Stream<Path> stream = Files.list(targetDir)) {
-                Optional<Path> originalJar = stream
-                        .filter(pt -> pt.getFileName().toString().endsWith(".jar.original"))
-                        .findFirst();
-
-                Path chosen;
-                if (originalJar.isPresent()) {
-                    chosen = originalJar.get();
-                    messager.printMessage(Diagnostic.Kind.NOTE, "Found original jar: " + chosen.getFileName());
-                } else {
-                    try (Stream<Path> stream2 = Files.list(targetDir)) {
-                        Optional<Path> jar = stream2
-                                .filter(pt -> {
-                                    String n = pt.getFileName().toString();
-                                    return n.endsWith(".jar") && !n.endsWith("-sources.jar") && !n.endsWith("-javadoc.jar");
-                                })
-                                .findFirst();
-                        if (jar.isEmpty()) return Optional.empty();
-                        chosen = jar.get();
-                        messager.printMessage(Diagnostic.Kind.NOTE, "Found repackaged jar (fallback): " + chosen.getFileName());
-                    }
-                }
-
-                Path destDir = Path.of(System.getProperty("user.dir")).resolve("target").resolve("pluginloader").resolve("features");
-                Files.createDirectories(destDir);
-                Path dest = destDir.resolve(featureName + "-" + System.currentTimeMillis() + ".jar");
-                Files.copy(chosen, dest, StandardCopyOption.REPLACE_EXISTING);
-                messager.printMessage(Diagnostic.Kind.NOTE, "Copied feature artifact to " + dest);
-                return Optional.of(dest);
+            Optional<Path> chosen = gradle
+                    ? findGradleJar(repoDir.resolve("build").resolve("libs"), messager)
+                    : findMavenJar(repoDir.resolve("target"), messager);
+            if (chosen.isEmpty()) return Optional.empty();
+            if (cacheKey != null) {
+                artifactCache.store(cacheKey, chosen.get());
             }
+            return Optional.of(publish(chosen.get(), featureName, messager));
         } catch (Exception e) {
             messager.printMessage(Diagnostic.Kind.NOTE, "buildAndCopyArtifact error: " + e);
             return Optional.empty();
         }
     }
 
+    // Prefers the .jar.original Spring Boot's repackaging leaves behind, which has the classes at the jar root
+    private Optional<Path> findMavenJar(Path targetDir, Messager messager) throws IOException {
+        if (!Files.exists(targetDir)) return Optional.empty();
+
+        try (Stream<Path> stream = Files.list(targetDir)) {
+            Optional<Path> originalJar = stream
+                    .filter(pt -> pt.getFileName().toString().endsWith(".jar.original"))
+                    .findFirst();
+
+            Path chosen;
+            if (originalJar.isPresent()) {
+                chosen = originalJar.get();
+                messager.printMessage(Diagnostic.Kind.NOTE, "Found original jar: " + chosen.getFileName());
+            } else {
+                try (Stream<Path> stream2 = Files.list(targetDir)) {
+                    Optional<Path> jar = stream2
+                            .filter(pt -> {
+                                String n = pt.getFileName().toString();
+                                return n.endsWith(".jar") && !n.endsWith("-sources.jar") && !n.endsWith("-javadoc.jar");
+                            })
+                            .findFirst();
+                    if (jar.isEmpty()) return Optional.empty();
+                    chosen = jar.get();
+                    messager.printMessage(Diagnostic.Kind.NOTE, "Found repackaged jar (fallback): " + chosen.getFileName());
+                }
+            }
+
+            return Optional.of(chosen);
+        }
+    }
+
+    // Prefers the -plain.jar the Spring Boot Gradle plugin builds next to the boot jar, for the same reason
+    private Optional<Path> findGradleJar(Path libsDir, Messager messager) throws IOException {
+        if (!Files.isDirectory(libsDir)) return Optional.empty();
+
+        List<Path> jars;
+        try (Stream<Path> stream = Files.list(libsDir)) {
+            jars = stream.filter(pt -> {
+                        String n = pt.getFileName().toString();
+                        return n.endsWith(".jar") && !n.endsWith("-sources.jar") && !n.endsWith("-javadoc.jar");
+                    })
+                    .sorted()
+                    .toList();
+        }
+        Optional<Path> plain = jars.stream().filter(pt -> pt.getFileName().toString().endsWith("-plain.jar")).findFirst();
+        if (plain.isPresent()) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Found plain jar: " + plain.get().getFileName());
+            return plain;
+        }
+        if (jars.isEmpty()) return Optional.empty();
+        messager.printMessage(Diagnostic.Kind.NOTE, "Found jar: " + jars.get(0).getFileName());
+        return Optional.of(jars.get(0));
+    }
+
+    // javax.tools build into target/pluginloader/<feature>.jar; empty when the sources do not compile that way
+    private Optional<Path> compileInProcess(Path repoDir, String featureName, String sourceKey, Messager messager) throws IOException {
+        String cacheKey = cacheKey(sourceKey, compiler.command());
+        Optional<Path> cached = cached(cacheKey, featureName, messager);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        // below target/, so a later Maven build that skips clean never picks it up as its own jar
+        Path jar = repoDir.resolve("target").resolve("pluginloader").resolve(featureName + ".jar");
+        if (!compiler.compile(repoDir, jar, messager)) {
+            return Optional.empty();
+        }
+        if (cacheKey != null) {
+            artifactCache.store(cacheKey, jar);
+        }
+        return Optional.of(publish(jar, featureName, messager));
+    }
+
+    private String cacheKey(String sourceKey, List<String> buildCommand) {
+        return artifactCache != null && sourceKey != null ? artifactCache.key(sourceKey, buildCommand) : null;
+    }
+
+    private Optional<Path> cached(String cacheKey, String featureName, Messager messager) throws IOException {
+        if (cacheKey == null) {
+            return Optional.empty();
+        }
+        Optional<Path> cached = artifactCache.lookup(cacheKey);
+        if (cached.isEmpty()) {
+            return Optional.empty();
+        }
+        messager.printMessage(Diagnostic.Kind.NOTE, "Sources of " + featureName + " unchanged - reusing cached artifact " + cached.get().getFileName());
+        return Optional.of(publish(cached.get(), featureName, messager));
+    }
+
+    private Path buildLog(String featureName) throws IOException {
+        Path dir = Path.of(System.getProperty("user.dir")).resolve("target").resolve("pluginloader").resolve("logs");
+        Files.createDirectories(dir);
+        return dir.resolve(featureName + "-build.log");
+    }
+
+    // Last lines of a failed build's log, where Maven reports the error
+    private List<String> tail(Path log) {
+        ArrayDeque<String> last = new ArrayDeque<>(FAILURE_TAIL_LINES);
+        try (Stream<String> lines = Files.lines(log)) {
+            lines.forEach(line -> {
+                if (last.size() == FAILURE_TAIL_LINES) last.removeFirst();
+                last.addLast(line);
+            });
+        } catch (IOException | UncheckedIOException ignored) {
+            // the summary line already points at the log
+        }
+        return List.copyOf(last);
+    }
+
+    // Content-hashed name keeps JAR_PATH stable for identical jars; older copies of the same feature are removed
+    private Path publish(Path jar, String featureName, Messager messager) throws IOException {
+        Path destDir = Path.of(System.getProperty("user.dir")).resolve("target").resolve("pluginloader").resolve("features");
+        Files.createDirectories(destDir);
+        Path dest = destDir.resolve(featureName + "-" + Digests.sha256Hex(jar).substring(0, 16) + ".jar");
+        if (Files.exists(dest)) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Feature artifact up to date: " + dest);
+        } else {
+            Files.copy(jar, dest, StandardCopyOption.REPLACE_EXISTING);
+            messager.printMessage(Diagnostic.Kind.NOTE, "Copied feature artifact to " + dest);
+        }
+        try (Stream<Path> existing = Files.list(destDir)) {
+            existing.filter(p -> !p.equals(dest) && isArtifactOf(p, featureName)).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignored) {
+                }
+            });
+        }
+        return dest;
+    }
+
+    // <feature>-<hash or legacy timestamp>.jar
+    private boolean isArtifactOf(Path path, String featureName) {
+        String name = path.getFileName().toString();
+        return name.matches(Pattern.quote(featureName) + "-[0-9a-f]+\\.jar");
+    }
+
     public ProcessBuilder createProcessBuilder(Path repoDir) {
-        ProcessBuilder pb = new ProcessBuilder("mvn", "-DskipTests", "clean", "package");
+        ProcessBuilder pb = new ProcessBuilder(mavenOptions.command());
+        pb.directory(repoDir.toFile());
+        pb.redirectErrorStream(true);
+        return pb;
+    }
+
+    /**
+     * {@code assemble} without tests, through the repository's wrapper when it has one. The build and
+     * configuration caches make repeated builds of the same sources incremental; configuration cache problems
+     * are only warnings, so builds that do not support it still run.
+     */
+    ProcessBuilder createGradleProcessBuilder(Path repoDir) {
+        List<String> command = new ArrayList<>();
+        command.add(gradleExecutable(repoDir));
+        if (mavenOptions.offline()) command.add("--offline");
+        if (mavenOptions.quiet()) command.add("-q");
+        command.addAll(List.of("assemble", "-x", "test", "--build-cache", "--configuration-cache",
+                "-Dorg.gradle.configuration-cache.problems=warn"));
+        ProcessBuilder pb = new ProcessBuilder(command);
         pb.directory(repoDir.toFile());
         pb.redirectErrorStream(true);
         return pb;
     }
+
+    // A pom.xml wins, so repositories that carry both keep building with Maven
+    static boolean isGradle(Path repoDir) {
+        if (Files.exists(repoDir.resolve("pom.xml"))) {
+            return false;
+        }
+        return Stream.of("build.gradle", "build.gradle.kts", "settings.gradle", "settings.gradle.kts", "gradlew")
+                .anyMatch(name -> Files.exists(repoDir.resolve(name)));
+    }
+
+    // Relative to the build directory, so the command (and the artifact cache key) does not depend on the checkout
+    private String gradleExecutable(Path repoDir) {
+        if (WINDOWS) {
+            return Files.exists(repoDir.resolve("gradlew.bat")) ? "gradlew.bat" : "gradle";
+        }
+        Path wrapper = repoDir.resolve("gradlew");
+        if (!Files.exists(wrapper)) {
+            return "gradle";
+        }
+        if (!Files.isExecutable(wrapper)) {
+            wrapper.toFile().setExecutable(true);
+        }
+        return "./gradlew";
+    }
+
+    // The feature's own arguments go after the configured command
+    ProcessBuilder createProcessBuilder(Path repoDir, List<String> buildArgs) {
+        ProcessBuilder pb = isGradle(repoDir) ? createGradleProcessBuilder(repoDir) : createProcessBuilder(repoDir);
+        if (!buildArgs.isEmpty()) {
+            List<String> command = new ArrayList<>(pb.command());
+            command.addAll(buildArgs);
+            pb.command(command);
+        }
+        return pb;
+    }
 }
@@ -1,9 +1,29 @@
 package com.aajumaharjan.pluginloader.processor;
 
+import java.util.List;
 import java.util.Set;
 
 /**
- * Immutable feature request derived from pluginloader configuration.
+ * Immutable feature request derived from pluginloader configuration. A {@code binary} feature is only built
+ * into a jar and described: its sources are not imported into the host compilation, and the runtime loads it
+ * from the jar. {@code buildArgs} are appended to the feature's Maven build.
  */
-public record FeatureRequest(String repository, String branch, Set<String> packages) {
+public record FeatureRequest(String repository, String branch, Set<String> packages, CloneOptions cloneOptions, boolean binary,
+                             List<String> buildArgs) {
+    public FeatureRequest {
+        cloneOptions = cloneOptions == null ? CloneOptions.DEFAULTS : cloneOptions;
+        buildArgs = buildArgs == null ? List.of() : List.copyOf(buildArgs);
+    }
+
+    public FeatureRequest(String repository, String branch, Set<String> packages, CloneOptions cloneOptions, boolean binary) {
+        this(repository, branch, packages, cloneOptions, binary, List.of());
+    }
+
+    public FeatureRequest(String repository, String branch, Set<String> packages, CloneOptions cloneOptions) {
+        this(repository, branch, packages, cloneOptions, false);
+    }
+
+    public FeatureRequest(String repository, String branch, Set<String> packages) {
+        this(repository, branch, packages, CloneOptions.DEFAULTS);
+    }
 }
@@ -0,0 +1,218 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Stream;
+
+/**
+ * Compiles a feature's {@code src/main/java} with the JDK compiler inside the processor's JVM and writes the
+ * classes, plus {@code src/main/resources}, straight into a jar.
+ * <p>
+ * Meant for plain feature repositories: annotation processing is disabled and only the given classpath is
+ * visible, so a feature that needs its own dependencies, Maven plugins or processors (Lombok, MapStruct, ...)
+ * fails to compile here and is left to the Maven build. Entries are sorted and carry a fixed timestamp, so the
+ * same sources always produce the same jar.
+ */
+class InProcessCompiler {
+    // earliest time a zip entry can hold
+    private static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final String classpath;
+
+    InProcessCompiler(String classpath) {
+        this.classpath = classpath;
+    }
+
+    /**
+     * The processor's own classpath: {@code java.class.path} plus the URLs of the classloaders that loaded the
+     * processor, which for javac is the processor path (pluginloader and Spring).
+     */
+    static String defaultClasspath() {
+        Set<String> entries = new LinkedHashSet<>();
+        for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+            if (!entry.isBlank()) entries.add(entry);
+        }
+        for (ClassLoader cl = InProcessCompiler.class.getClassLoader(); cl != null; cl = cl.getParent()) {
+            if (cl instanceof URLClassLoader urls) {
+                for (URL url : urls.getURLs()) {
+                    if ("file".equals(url.getProtocol())) {
+                        try {
+                            entries.add(Path.of(url.toURI()).toString());
+                        } catch (URISyntaxException | IllegalArgumentException ignored) {
+                        }
+                    }
+                }
+            }
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    // Everything besides the sources that determines the jar, for the artifact cache key
+    List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add("javax.tools");
+        command.addAll(options());
+        return command;
+    }
+
+    private List<String> options() {
+        return List.of("-proc:none", "-parameters", "-encoding", "UTF-8", "-classpath", classpath);
+    }
+
+    /**
+     * Compiles {@code repoDir} into {@code jar}; false (with the compiler's errors reported) when the sources do
+     * not compile or no compiler is available.
+     */
+    boolean compile(Path repoDir, Path jar, Messager messager) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "No system Java compiler available for in-process builds");
+            return false;
+        }
+        Path sourceRoot = repoDir.resolve("src/main/java");
+        if (!Files.isDirectory(sourceRoot)) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "No src/main/java in " + repoDir + " to compile in process");
+            return false;
+        }
+        List<Path> sources;
+        try (Stream<Path> paths = Files.walk(sourceRoot)) {
+            sources = paths.filter(p -> p.toString().endsWith(".java") && Files.isRegularFile(p)).toList();
+        }
+        if (sources.isEmpty()) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "No sources in " + sourceRoot + " to compile in process");
+            return false;
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager standard = compiler.getStandardFileManager(diagnostics, Locale.ROOT, StandardCharsets.UTF_8);
+             ClassCollector fileManager = new ClassCollector(standard)) {
+            Boolean compiled = compiler.getTask(null, fileManager, diagnostics, options(), null,
+                    standard.getJavaFileObjectsFromPaths(sources)).call();
+            if (!Boolean.TRUE.equals(compiled)) {
+                diagnostics.getDiagnostics().stream()
+                        .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                        .limit(MAX_REPORTED_ERRORS)
+                        .forEach(d -> messager.printMessage(Diagnostic.Kind.NOTE, "[javac] " + describe(d)));
+                return false;
+            }
+            writeJar(jar, fileManager.classes, repoDir.resolve("src/main/resources"));
+            messager.printMessage(Diagnostic.Kind.NOTE, "Compiled " + sources.size() + " sources of " + repoDir.getFileName()
+                    + " in process into " + fileManager.classes.size() + " classes");
+            return true;
+        }
+    }
+
+    private String describe(Diagnostic<? extends JavaFileObject> diagnostic) {
+        String source = diagnostic.getSource() == null ? "" : Path.of(diagnostic.getSource().toUri()).getFileName() + ":" + diagnostic.getLineNumber() + ": ";
+        return source + diagnostic.getMessage(Locale.ROOT);
+    }
+
+    private void writeJar(Path jar, Map<String, byte[]> classes, Path resourceRoot) throws IOException {
+        Map<String, byte[]> entries = new TreeMap<>();
+        classes.forEach((className, bytes) -> entries.put(className.replace('.', '/') + ".class", bytes));
+        if (Files.isDirectory(resourceRoot)) {
+            try (Stream<Path> paths = Files.walk(resourceRoot)) {
+                for (Path resource : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                    String name = resourceRoot.relativize(resource).toString().replace(File.separatorChar, '/');
+                    if (!name.equals(JarFile.MANIFEST_NAME)) {
+                        entries.putIfAbsent(name, Files.readAllBytes(resource));
+                    }
+                }
+            }
+        }
+        // directory entries, which classpath*: package scans of the feature jar rely on
+        Set<String> directories = new TreeSet<>();
+        for (String name : entries.keySet()) {
+            for (int slash = name.indexOf('/'); slash >= 0; slash = name.indexOf('/', slash + 1)) {
+                directories.add(name.substring(0, slash + 1));
+            }
+        }
+
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().putValue("Created-By", "pluginloader");
+        Files.createDirectories(jar.getParent());
+        // META-INF/ and the manifest first, where JarInputStream expects them
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(entry("META-INF/"));
+            out.closeEntry();
+            out.putNextEntry(entry(JarFile.MANIFEST_NAME));
+            manifest.write(out);
+            out.closeEntry();
+            directories.remove("META-INF/");
+            for (String directory : directories) {
+                out.putNextEntry(entry(directory));
+                out.closeEntry();
+            }
+            for (Map.Entry<String, byte[]> file : entries.entrySet()) {
+                out.putNextEntry(entry(file.getKey()));
+                out.write(file.getValue());
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static JarEntry entry(String name) {
+        JarEntry entry = new JarEntry(name);
+        entry.setTimeLocal(ENTRY_TIME);
+        return entry;
+    }
+
+    // Keeps class files in memory, keyed by binary name, instead of writing them to an output directory
+    private static final class ClassCollector extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, byte[]> classes = new TreeMap<>();
+
+        ClassCollector(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            return new SimpleJavaFileObject(URI.create("mem:///" + className.replace('.', '/') + kind.extension), kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return new ByteArrayOutputStream() {
+                        @Override
+                        public void close() {
+                            classes.put(className, toByteArray());
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
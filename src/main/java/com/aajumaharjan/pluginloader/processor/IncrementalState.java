@@ -0,0 +1,232 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Manifest of what the previous compile generated for each feature, so unchanged features can be replayed
+ * without cloning, scanning or building them again.
+ * <p>
+ * A feature's fingerprint covers its configuration, the build settings and the commit its branch resolved to; its outputs (imported
+ * sources and descriptor) are stashed verbatim next to the manifest:
+ * <pre>
+ * &lt;dir&gt;/manifest.properties            &lt;key&gt;.fingerprint / .descriptor / .jar / .outputs / .resources per feature
+ * &lt;dir&gt;/&lt;key&gt;/&lt;type name&gt;.java        stashed generated sources
+ * &lt;dir&gt;/&lt;key&gt;/resources/&lt;name&gt;      stashed class-output resources (binary descriptors)
+ * &lt;dir&gt;/&lt;key&gt;.staging/               outputs being written in this compile, moved into place by {@link #record}
+ * </pre>
+ * The manifest is rewritten on every compile and only keeps the features processed or replayed in it.
+ */
+class IncrementalState {
+    // bump when generated output changes shape, so stale stashes are not replayed
+    static final int FORMAT_VERSION = 3;
+
+    private static final String MANIFEST_FILE = "manifest.properties";
+
+    private final Path dir;
+    private final Properties previous;
+    private final Properties next = new Properties();
+
+    private IncrementalState(Path dir, Properties previous) {
+        this.dir = dir.toAbsolutePath().normalize();
+        this.previous = previous;
+    }
+
+    static Path defaultDir() {
+        return Path.of(System.getProperty("user.dir"), "target", "pluginloader", "incremental");
+    }
+
+    static IncrementalState load(Path dir, Messager messager) {
+        Properties manifest = new Properties();
+        Path file = dir.resolve(MANIFEST_FILE);
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            } catch (IOException e) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Ignoring unreadable pluginloader manifest " + file + ": " + e);
+                manifest.clear();
+            }
+        }
+        return new IncrementalState(dir, manifest);
+    }
+
+    static String fingerprint(FeatureRequest feature, String commitId) {
+        return fingerprint(feature, commitId, "class");
+    }
+
+    static String fingerprint(FeatureRequest feature, String commitId, String descriptorFormat) {
+        return fingerprint(feature, commitId, descriptorFormat, "full");
+    }
+
+    static String fingerprint(FeatureRequest feature, String commitId, String descriptorFormat, String scanMode) {
+        return fingerprint(feature, commitId, descriptorFormat, scanMode, FeatureJarBuilder.buildConfiguration(null, MavenOptions.DEFAULTS));
+    }
+
+    // descriptorFormat and scanMode change the outputs, and buildConfiguration (javac or Maven, compile classpath,
+    // Maven options) the jar, so switching any of them must not replay outputs of the other kind
+    static String fingerprint(FeatureRequest feature, String commitId, String descriptorFormat, String scanMode, String buildConfiguration) {
+        return Digests.sha256Hex(String.join("\n",
+                String.valueOf(FORMAT_VERSION),
+                descriptorFormat,
+                scanMode,
+                buildConfiguration,
+                feature.repository(),
+                feature.branch(),
+                String.valueOf(new TreeSet<>(feature.packages())),
+                String.valueOf(feature.cloneOptions()),
+                feature.binary() ? "binary" : "source",
+                String.valueOf(feature.buildArgs()),
+                commitId));
+    }
+
+    /**
+     * True when the previous compile generated this feature from the same fingerprint and its stashed sources
+     * (and feature jar, if any) are still present. Safe to call from worker threads.
+     */
+    boolean isUpToDate(FeatureRequest feature, String fingerprint) {
+        String key = key(feature);
+        if (!fingerprint.equals(previous.getProperty(key + ".fingerprint"))) {
+            return false;
+        }
+        String jar = previous.getProperty(key + ".jar", "");
+        if (!jar.isEmpty() && !Files.exists(Path.of(System.getProperty("user.dir")).resolve(jar))) {
+            return false;
+        }
+        return outputs(previous, key).stream().allMatch(type -> Files.isRegularFile(stashFile(key, type)))
+                && list(previous, key, ".resources").stream().allMatch(name -> Files.isRegularFile(stashedResource(key, name)));
+    }
+
+    /**
+     * Writes the stashed outputs of an up-to-date feature through the Filer and carries its manifest entry over.
+     * Returns the descriptor type name.
+     */
+    String replay(FeatureRequest feature, Filer filer, Messager messager) throws IOException {
+        String key = key(feature);
+        for (String type : outputs(previous, key)) {
+            try {
+                JavaFileObject source = filer.createSourceFile(type);
+                try (SourceFileReader reader = SourceFileReader.open(stashFile(key, type));
+                     Writer writer = source.openWriter()) {
+                    reader.transferTo(writer);
+                }
+            } catch (FilerException fe) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Source already generated for " + type + " : " + fe.getMessage());
+            }
+        }
+        for (String name : list(previous, key, ".resources")) {
+            try (OutputStream out = filer.createResource(StandardLocation.CLASS_OUTPUT, "", name).openOutputStream()) {
+                Files.copy(stashedResource(key, name), out);
+            } catch (FilerException fe) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Resource already generated for " + name + " : " + fe.getMessage());
+            }
+        }
+        for (String property : List.of(".repository", ".fingerprint", ".descriptor", ".jar", ".outputs", ".resources")) {
+            String value = previous.getProperty(key + property);
+            if (value != null) next.setProperty(key + property, value);
+        }
+        return previous.getProperty(key + ".descriptor");
+    }
+
+    /**
+     * Fresh directory for the outputs a {@link RecordingFiler} stashes for this feature in this compile; the
+     * previous stash stays in place until {@link #record} replaces it.
+     */
+    Path staging(FeatureRequest feature) throws IOException {
+        Path staging = dir.resolve(key(feature) + ".staging");
+        deleteRecursively(staging);
+        Files.createDirectories(staging);
+        return staging;
+    }
+
+    /**
+     * Moves the outputs stashed by {@code outputs} into place and records them under the feature's fingerprint.
+     */
+    void record(FeatureRequest feature, String fingerprint, String descriptorName, String jarPath, RecordingFiler outputs) throws IOException {
+        String key = key(feature);
+        Path stash = dir.resolve(key);
+        deleteRecursively(stash);
+        Files.move(outputs.getStash(), stash, StandardCopyOption.ATOMIC_MOVE);
+        next.setProperty(key + ".resources", String.join(",", new TreeSet<>(outputs.getResources())));
+        next.setProperty(key + ".repository", feature.repository());
+        next.setProperty(key + ".fingerprint", fingerprint);
+        next.setProperty(key + ".descriptor", descriptorName);
+        next.setProperty(key + ".jar", jarPath == null ? "" : jarPath);
+        next.setProperty(key + ".outputs", String.join(",", new TreeSet<>(outputs.getSources())));
+    }
+
+    /**
+     * Writes the manifest for this compile and drops stashes of features that are no longer in it.
+     */
+    void save(Messager messager) {
+        try {
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, MANIFEST_FILE, ".tmp");
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                next.store(writer, "pluginloader incremental manifest");
+            }
+            Files.move(temp, dir.resolve(MANIFEST_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            try (Stream<Path> children = Files.list(dir)) {
+                children.filter(Files::isDirectory)
+                        .filter(p -> !next.containsKey(p.getFileName() + ".fingerprint"))
+                        .forEach(this::deleteRecursively);
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Failed to write pluginloader manifest in " + dir + ": " + e);
+        }
+    }
+
+    private String key(FeatureRequest feature) {
+        return Digests.sha256Hex(feature.repository()).substring(0, 16);
+    }
+
+    private Path stashFile(String key, String typeName) {
+        return dir.resolve(key).resolve(typeName + ".java");
+    }
+
+    private Path stashedResource(String key, String name) {
+        return dir.resolve(key).resolve("resources").resolve(name);
+    }
+
+    private List<String> outputs(Properties manifest, String key) {
+        return list(manifest, key, ".outputs");
+    }
+
+    private List<String> list(Properties manifest, String key, String property) {
+        String values = manifest.getProperty(key + property, "");
+        return values.isEmpty() ? List.of() : Arrays.asList(values.split(","));
+    }
+
+    private void deleteRecursively(Path path) {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try {
+                    Files.deleteIfExists(p);
+                } catch (IOException ignored) {
+                }
+            });
+        } catch (IOException ignored) {
+        }
+    }
+}
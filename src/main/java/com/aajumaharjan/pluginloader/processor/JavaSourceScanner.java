@@ -0,0 +1,459 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lightweight streaming parser for the type declarations of a Java compilation unit.
+ * <p>
+ * Tokenizes the source (skipping comments, string/char literals and text blocks) and extracts the package,
+ * every top-level type and every member type with its annotations, modifiers and kind. Method bodies,
+ * initializers and anonymous classes are skipped by brace matching, so local and anonymous classes and anything
+ * inside literals never produce declarations.
+ */
+class JavaSourceScanner {
+    private static final Set<String> MODIFIERS = Set.of(
+            "public", "protected", "private", "abstract", "static", "final", "sealed", "non-sealed", "strictfp");
+    private static final Set<String> TYPE_KINDS = Set.of("class", "interface", "enum", "record");
+
+    /**
+     * Top-level type declaration. {@code annotations} maps the simple annotation name to its {@code value}
+     * (string literal content or boolean literal), to {@code ""} when absent, or to {@code null} when the value is
+     * any other expression (a constant, a concatenation) whose result is unknown without compiling it.
+     */
+    record TypeDeclaration(String name, String kind, Set<String> modifiers, Map<String, String> annotations) {
+        boolean isInterface() {
+            return "interface".equals(kind) || "@interface".equals(kind);
+        }
+
+        boolean isAbstract() {
+            return modifiers.contains("abstract");
+        }
+    }
+
+    /**
+     * {@code types} are the top-level types; {@code memberTypes} the types declared in their bodies, at any depth,
+     * named by their enclosing types ({@code Outer.Inner}). Member types of interfaces, and member enums, records
+     * and interfaces, carry the implicit {@code static} modifier.
+     */
+    record ParsedSource(String packageName, List<TypeDeclaration> types, List<TypeDeclaration> memberTypes) {
+        ParsedSource(String packageName, List<TypeDeclaration> types) {
+            this(packageName, types, List.of());
+        }
+    }
+
+    ParsedSource parse(String content) {
+        try {
+            return parse(new StringReader(content));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    ParsedSource parse(Reader reader) throws IOException {
+        return parse(reader, null);
+    }
+
+    /**
+     * Parses until the top-level type named {@code stopAt} is declared, without reading its body or anything
+     * after it; types declared after it are not reported. With {@code null} the whole unit is parsed.
+     */
+    ParsedSource parse(Reader reader, String stopAt) throws IOException {
+        Tokenizer tokens = new Tokenizer(reader);
+        String packageName = null;
+        List<TypeDeclaration> types = new ArrayList<>();
+        List<TypeDeclaration> memberTypes = new ArrayList<>();
+        Map<String, String> annotations = new LinkedHashMap<>();
+        Set<String> modifiers = new LinkedHashSet<>();
+
+        Token token;
+        while ((token = tokens.next()) != null) {
+            if (token.is('@')) {
+                Token name = tokens.next();
+                if (name == null) break;
+                if (name.isWord("interface")) {
+                    Token typeName = tokens.next();
+                    if (typeName != null && typeName.isWord()) {
+                        types.add(new TypeDeclaration(typeName.text, "@interface", Set.copyOf(modifiers), Collections.unmodifiableMap(new LinkedHashMap<>(annotations))));
+                        if (typeName.text.equals(stopAt)) break;
+                        if (skipHeader(tokens)) parseBody(tokens, typeName.text, true, memberTypes);
+                    } else {
+                        skipDeclaration(tokens);
+                    }
+                    annotations.clear();
+                    modifiers.clear();
+                } else {
+                    readAnnotation(tokens, name, annotations);
+                }
+            } else if (token.isWord("package")) {
+                packageName = readQualifiedName(tokens);
+                annotations.clear();
+            } else if (token.isWord("import")) {
+                skipUntil(tokens, ';');
+            } else if (token.isWord() && MODIFIERS.contains(token.text)) {
+                modifiers.add(token.text);
+            } else if (token.isWord("non")) {
+                // non-sealed is tokenized as non - sealed
+                modifiers.add("non-sealed");
+                tokens.next();
+                tokens.next();
+            } else if (token.isWord() && TYPE_KINDS.contains(token.text)) {
+                Token typeName = tokens.next();
+                if (typeName != null && typeName.isWord()) {
+                    types.add(new TypeDeclaration(typeName.text, token.text, Set.copyOf(modifiers), Collections.unmodifiableMap(new LinkedHashMap<>(annotations))));
+                    if (typeName.text.equals(stopAt)) break;
+                    if (skipHeader(tokens)) parseBody(tokens, typeName.text, "interface".equals(token.text), memberTypes);
+                } else {
+                    skipDeclaration(tokens);
+                }
+                annotations.clear();
+                modifiers.clear();
+            } else if (token.is('{')) {
+                // module declaration or stray block
+                skipBlock(tokens);
+                annotations.clear();
+                modifiers.clear();
+            } else if (token.is(';')) {
+                annotations.clear();
+                modifiers.clear();
+            }
+        }
+        return new ParsedSource(packageName, List.copyOf(types), List.copyOf(memberTypes));
+    }
+
+    // Reads a type body up to its closing brace, collecting member types; executable code is skipped as blocks
+    private void parseBody(Tokenizer tokens, String enclosing, boolean interfaceBody, List<TypeDeclaration> memberTypes) throws IOException {
+        Map<String, String> annotations = new LinkedHashMap<>();
+        Set<String> modifiers = new LinkedHashSet<>();
+        Token previous = null;
+        Token token;
+        while ((token = tokens.next()) != null) {
+            if (token.is('}')) {
+                return;
+            }
+            String kind = null;
+            if (token.is('@')) {
+                Token name = tokens.next();
+                if (name == null) return;
+                if (name.isWord("interface")) {
+                    kind = "@interface";
+                } else {
+                    readAnnotation(tokens, name, annotations);
+                }
+            } else if (token.isWord() && MODIFIERS.contains(token.text)) {
+                modifiers.add(token.text);
+            } else if (token.isWord() && TYPE_KINDS.contains(token.text) && (previous == null || !previous.is('.'))) {
+                kind = token.text;
+            } else if (token.is('{')) {
+                skipBlock(tokens);
+                annotations.clear();
+                modifiers.clear();
+            } else if (token.is(';')) {
+                annotations.clear();
+                modifiers.clear();
+            }
+            if (kind != null) {
+                Token typeName = tokens.next();
+                if (typeName != null && typeName.isWord()) {
+                    String name = enclosing + "." + typeName.text;
+                    Set<String> typeModifiers = new LinkedHashSet<>(modifiers);
+                    if (interfaceBody || !"class".equals(kind)) typeModifiers.add("static");
+                    memberTypes.add(new TypeDeclaration(name, kind, Set.copyOf(typeModifiers), Collections.unmodifiableMap(new LinkedHashMap<>(annotations))));
+                    if (!skipHeader(tokens)) return;
+                    parseBody(tokens, name, "interface".equals(kind) || "@interface".equals(kind), memberTypes);
+                } else if (typeName != null) {
+                    // a contextual keyword (record) used as an identifier
+                    tokens.pushBack(typeName);
+                }
+                annotations.clear();
+                modifiers.clear();
+            }
+            previous = token;
+        }
+    }
+
+    // Skips type parameters, record components and extends/implements up to the body; false at end of input
+    private boolean skipHeader(Tokenizer tokens) throws IOException {
+        int parens = 0;
+        Token token;
+        while ((token = tokens.next()) != null) {
+            if (token.is('(')) parens++;
+            else if (token.is(')')) parens--;
+            else if (token.is('{') && parens <= 0) return true;
+        }
+        return false;
+    }
+
+    private void readAnnotation(Tokenizer tokens, Token first, Map<String, String> annotations) throws IOException {
+        String simpleName = first.text;
+        Token next = tokens.next();
+        while (next != null && next.is('.')) {
+            Token part = tokens.next();
+            if (part == null) return;
+            simpleName = part.text;
+            next = tokens.next();
+        }
+        String value = "";
+        if (next != null && next.is('(')) {
+            value = readAnnotationValue(tokens);
+        } else if (next != null) {
+            tokens.pushBack(next);
+        }
+        annotations.put(simpleName, value);
+    }
+
+    // Reads annotation arguments up to the closing parenthesis and returns the value/scopeName/positional element
+    private String readAnnotationValue(Tokenizer tokens) throws IOException {
+        List<List<Token>> elements = new ArrayList<>();
+        List<Token> current = new ArrayList<>();
+        int depth = 1;
+        Token token;
+        while ((token = tokens.next()) != null) {
+            if (token.is('(') || token.is('{')) {
+                depth++;
+            } else if (token.is(')') || token.is('}')) {
+                if (--depth == 0) break;
+            } else if (depth == 1 && token.is(',')) {
+                elements.add(current);
+                current = new ArrayList<>();
+                continue;
+            }
+            current.add(token);
+        }
+        elements.add(current);
+
+        for (List<Token> element : elements) {
+            List<Token> expression = element;
+            if (element.size() > 1 && element.get(0).isWord() && element.get(1).is('=')) {
+                String name = element.get(0).text;
+                if (!name.equals("value") && !name.equals("scopeName")) continue;
+                expression = element.subList(2, element.size());
+            }
+            return valueOf(expression);
+        }
+        return "";
+    }
+
+    // a single string or boolean literal; null for anything else, which only the compiler can evaluate
+    private String valueOf(List<Token> expression) {
+        if (expression.isEmpty()) return "";
+        if (expression.size() > 1) return null;
+        Token token = expression.get(0);
+        if (token.kind == Kind.STRING) return token.text;
+        if (token.isWord("true") || token.isWord("false")) return token.text;
+        return null;
+    }
+
+    private String readQualifiedName(Tokenizer tokens) throws IOException {
+        StringBuilder name = new StringBuilder();
+        Token token;
+        while ((token = tokens.next()) != null && !token.is(';')) {
+            name.append(token.text);
+        }
+        return name.isEmpty() ? null : name.toString();
+    }
+
+    // Skips the header (type parameters, record components, extends/implements) and the body of a declaration
+    private void skipDeclaration(Tokenizer tokens) throws IOException {
+        Token token;
+        while ((token = tokens.next()) != null) {
+            if (token.is('{')) {
+                skipBlock(tokens);
+                return;
+            }
+        }
+    }
+
+    private void skipBlock(Tokenizer tokens) throws IOException {
+        int depth = 1;
+        Token token;
+        while (depth > 0 && (token = tokens.next()) != null) {
+            if (token.is('{')) depth++;
+            else if (token.is('}')) depth--;
+        }
+    }
+
+    private void skipUntil(Tokenizer tokens, char symbol) throws IOException {
+        Token token;
+        while ((token = tokens.next()) != null && !token.is(symbol)) {
+            // skip
+        }
+    }
+
+    private enum Kind { WORD, STRING, SYMBOL, OTHER }
+
+    private record Token(Kind kind, String text) {
+        boolean is(char symbol) {
+            return kind == Kind.SYMBOL && text.length() == 1 && text.charAt(0) == symbol;
+        }
+
+        boolean isWord() {
+            return kind == Kind.WORD;
+        }
+
+        boolean isWord(String word) {
+            return kind == Kind.WORD && text.equals(word);
+        }
+    }
+
+    /**
+     * Pull tokenizer over a {@link Reader}; only identifiers, string literal contents and single-character
+     * symbols are surfaced.
+     */
+    private static final class Tokenizer {
+        private final Reader reader;
+        private int peeked = -2;
+        private Token pushedBack;
+
+        Tokenizer(Reader reader) {
+            this.reader = reader;
+        }
+
+        void pushBack(Token token) {
+            pushedBack = token;
+        }
+
+        Token next() throws IOException {
+            if (pushedBack != null) {
+                Token t = pushedBack;
+                pushedBack = null;
+                return t;
+            }
+            int c = read();
+            while (c != -1) {
+                if (Character.isWhitespace(c)) {
+                    c = read();
+                } else if (c == '/') {
+                    int n = peek();
+                    if (n == '/') {
+                        skipLineComment();
+                        c = read();
+                    } else if (n == '*') {
+                        read();
+                        skipBlockComment();
+                        c = read();
+                    } else {
+                        return new Token(Kind.SYMBOL, "/");
+                    }
+                } else if (c == '"') {
+                    return readString();
+                } else if (c == '\'') {
+                    skipCharLiteral();
+                    return new Token(Kind.OTHER, "'");
+                } else if (Character.isJavaIdentifierStart(c)) {
+                    return readWord(c);
+                } else if (Character.isDigit(c)) {
+                    return readNumber(c);
+                } else {
+                    return new Token(Kind.SYMBOL, String.valueOf((char) c));
+                }
+            }
+            return null;
+        }
+
+        private Token readWord(int first) throws IOException {
+            StringBuilder sb = new StringBuilder().append((char) first);
+            while (Character.isJavaIdentifierPart(peek())) {
+                sb.append((char) read());
+            }
+            return new Token(Kind.WORD, sb.toString());
+        }
+
+        private Token readNumber(int first) throws IOException {
+            StringBuilder sb = new StringBuilder().append((char) first);
+            int n;
+            while ((n = peek()) != -1 && (Character.isLetterOrDigit(n) || n == '.' || n == '_')) {
+                sb.append((char) read());
+            }
+            return new Token(Kind.OTHER, sb.toString());
+        }
+
+        private Token readString() throws IOException {
+            if (peek() == '"') {
+                read();
+                if (peek() == '"') {
+                    read();
+                    return readTextBlock();
+                }
+                return new Token(Kind.STRING, "");
+            }
+            StringBuilder sb = new StringBuilder();
+            int c;
+            while ((c = read()) != -1 && c != '"' && c != '\n') {
+                if (c == '\\') {
+                    int escaped = read();
+                    if (escaped == -1) break;
+                    sb.append((char) escaped);
+                } else {
+                    sb.append((char) c);
+                }
+            }
+            return new Token(Kind.STRING, sb.toString());
+        }
+
+        private Token readTextBlock() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            int quotes = 0;
+            int c;
+            while ((c = read()) != -1) {
+                if (c == '\\') {
+                    read();
+                    quotes = 0;
+                } else if (c == '"') {
+                    if (++quotes == 3) break;
+                } else {
+                    quotes = 0;
+                }
+                sb.append((char) c);
+            }
+            return new Token(Kind.STRING, sb.length() >= 2 ? sb.substring(0, sb.length() - 2).strip() : "");
+        }
+
+        private void skipCharLiteral() throws IOException {
+            int c;
+            while ((c = read()) != -1 && c != '\'' && c != '\n') {
+                if (c == '\\') read();
+            }
+        }
+
+        private void skipLineComment() throws IOException {
+            int c;
+            while ((c = read()) != -1 && c != '\n') {
+                // skip
+            }
+        }
+
+        private void skipBlockComment() throws IOException {
+            int prev = 0;
+            int c;
+            while ((c = read()) != -1) {
+                if (prev == '*' && c == '/') return;
+                prev = c;
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) {
+                peeked = reader.read();
+            }
+            return peeked;
+        }
+    }
+}
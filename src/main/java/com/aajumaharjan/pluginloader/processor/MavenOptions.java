@@ -0,0 +1,49 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * How {@link FeatureJarBuilder} runs Maven. {@code daemon} is {@code true}, {@code false} or {@code auto}
+ * (mvnd when it is on the PATH); {@code threads} is passed to {@code -T} (e.g. {@code 4} or {@code 1C}) when set;
+ * {@code clean} runs {@code clean} before {@code package}, and {@code offline} and {@code quiet} add {@code -o}
+ * and {@code -q}. The defaults are the plain {@code mvn -DskipTests clean package}.
+ */
+record MavenOptions(String daemon, boolean offline, String threads, boolean clean, boolean quiet) {
+    static final MavenOptions DEFAULTS = new MavenOptions("false", false, null, true, false);
+
+    List<String> command() {
+        List<String> command = new ArrayList<>();
+        command.add(useDaemon() ? "mvnd" : "mvn");
+        if (offline) command.add("-o");
+        if (quiet) command.add("-q");
+        if (threads != null && !threads.isBlank()) {
+            command.add("-T");
+            command.add(threads.trim());
+        }
+        command.add("-DskipTests");
+        if (clean) command.add("clean");
+        command.add("package");
+        return command;
+    }
+
+    private boolean useDaemon() {
+        return "true".equalsIgnoreCase(daemon) || ("auto".equalsIgnoreCase(daemon) && onPath("mvnd"));
+    }
+
+    static boolean onPath(String executable) {
+        String path = System.getenv("PATH");
+        if (path == null) {
+            return false;
+        }
+        for (String dir : path.split(File.pathSeparator)) {
+            if (!dir.isBlank() && Files.isExecutable(Path.of(dir).resolve(executable))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
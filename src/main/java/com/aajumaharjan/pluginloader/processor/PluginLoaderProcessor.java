@@ -1,5 +1,6 @@
 package com.aajumaharjan.pluginloader.processor;
 
+import com.aajumaharjan.pluginloader.model.DescriptorIndexEntry;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.processing.*;
@@ -7,32 +8,121 @@ import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @SupportedAnnotationTypes("*")
+@SupportedOptions({
+        PluginLoaderProcessor.PARALLELISM_OPTION,
+        PluginLoaderProcessor.SCAN_PARALLELISM_OPTION,
+        PluginLoaderProcessor.SCAN_HEADER_ONLY_OPTION,
+        PluginLoaderProcessor.CACHE_DIR_OPTION,
+        PluginLoaderProcessor.CACHE_MAX_MB_OPTION,
+        PluginLoaderProcessor.ARTIFACT_CACHE_DIR_OPTION,
+        PluginLoaderProcessor.BUILD_OPTION,
+        PluginLoaderProcessor.COMPILE_CLASSPATH_OPTION,
+        PluginLoaderProcessor.MAVEN_DAEMON_OPTION,
+        PluginLoaderProcessor.MAVEN_OFFLINE_OPTION,
+        PluginLoaderProcessor.MAVEN_THREADS_OPTION,
+        PluginLoaderProcessor.MAVEN_CLEAN_OPTION,
+        PluginLoaderProcessor.MAVEN_QUIET_OPTION,
+        PluginLoaderProcessor.INCREMENTAL_DIR_OPTION,
+        PluginLoaderProcessor.DESCRIPTOR_FORMAT_OPTION})
 @SupportedSourceVersion(SourceVersion.RELEASE_17)
 @Slf4j
 public class PluginLoaderProcessor extends AbstractProcessor {
+    // number of features cloned, scanned and built concurrently; Filer and Messager are only used by the processor thread
+    static final String PARALLELISM_OPTION = "pluginloader.parallelism";
+    // threads reading and classifying one feature's source files; 1 (default) walks the tree sequentially
+    static final String SCAN_PARALLELISM_OPTION = "pluginloader.scanParallelism";
+    // "true" classifies each file from its header, up to the type it is named after; later top-level types are not indexed
+    static final String SCAN_HEADER_ONLY_OPTION = "pluginloader.scanHeaderOnly";
+    // repository cache location (default ~/.pluginloader/repos, "none" clones into temp directories) and size bound
+    static final String CACHE_DIR_OPTION = "pluginloader.cacheDir";
+    static final String CACHE_MAX_MB_OPTION = "pluginloader.cacheMaxMb";
+    // built jars keyed by commit and build command (default ~/.pluginloader/artifacts, "none" always rebuilds)
+    static final String ARTIFACT_CACHE_DIR_OPTION = "pluginloader.artifactCacheDir";
+    // "maven" (default) forks a Maven build, "javac" compiles plain features in process and falls back to Maven
+    static final String BUILD_OPTION = "pluginloader.build";
+    // classpath for in-process builds (default: the processor's own classpath)
+    static final String COMPILE_CLASSPATH_OPTION = "pluginloader.compileClasspath";
+    // Maven invocation: mvnd ("true", "false" (default) or "auto" when on the PATH), -o, -T <value>, clean (default true), -q
+    static final String MAVEN_DAEMON_OPTION = "pluginloader.mavenDaemon";
+    static final String MAVEN_OFFLINE_OPTION = "pluginloader.mavenOffline";
+    static final String MAVEN_THREADS_OPTION = "pluginloader.mavenThreads";
+    static final String MAVEN_CLEAN_OPTION = "pluginloader.mavenClean";
+    static final String MAVEN_QUIET_OPTION = "pluginloader.mavenQuiet";
+    // manifest and stashed outputs of the previous compile (default target/pluginloader/incremental, "none" disables replay)
+    static final String INCREMENTAL_DIR_OPTION = "pluginloader.incrementalDir";
+    // "class" (default) generates descriptor classes, "binary" writes compact descriptor resources instead
+    static final String DESCRIPTOR_FORMAT_OPTION = "pluginloader.descriptorFormat";
+
     private volatile boolean processedOnce = false;
     private final Set<String> processedRepos = Collections.synchronizedSet(new HashSet<>());
     private final Set<String> generatedTypes = Collections.synchronizedSet(new HashSet<>());
 
     private final YamlFeatureConfigLoader configLoader = new YamlFeatureConfigLoader();
-    private final RepositoryManager repositoryManager = new RepositoryManager();
-    private final SourceGenerator sourceGenerator = new SourceGenerator();
-    private final FeatureJarBuilder jarBuilder = new FeatureJarBuilder();
+    private RepositoryManager repositoryManager;
+    private SourceGenerator sourceGenerator = new SourceGenerator();
+    private FeatureJarBuilder jarBuilder;
+    private IncrementalState incrementalState;
+    private String descriptorFormat = "class";
+    private String scanMode = "full";
     private final DescriptorGenerator descriptorGenerator = new DescriptorGenerator();
     private final FeatureNameResolver featureNameResolver = new FeatureNameResolver();
+    private final BridgeGenerator bridgeGenerator = new BridgeGenerator();
+    // feature name -> imported types whose interfaces get a generated bridge once they are compiled (next round)
+    private final Map<String, Set<String>> pendingBridges = new LinkedHashMap<>();
+    // descriptors generated or replayed in this compile, in declaration order, for META-INF/pluginloader/descriptors.idx
+    private final List<DescriptorIndexEntry> descriptorIndex = new ArrayList<>();
 
     // explicit public no-arg constructor to satisfy ServiceLoader reflective instantiation
-    public PluginLoaderProcessor() {}
+    public PluginLoaderProcessor() {
+        this(null);
+    }
+
+    PluginLoaderProcessor(FeatureJarBuilder jarBuilder) {
+        this.jarBuilder = jarBuilder;
+    }
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        repositoryManager = new RepositoryManager(repositoryCache());
+        scanMode = Boolean.parseBoolean(processingEnv.getOptions().get(SCAN_HEADER_ONLY_OPTION)) ? "header" : "full";
+        sourceGenerator = new SourceGenerator((int) Math.max(1, longOption(SCAN_PARALLELISM_OPTION, 1)), "header".equals(scanMode));
+        if (jarBuilder == null) {
+            jarBuilder = new FeatureJarBuilder(artifactCache(), inProcessCompiler(), mavenOptions());
+        }
+        String format = processingEnv.getOptions().get(DESCRIPTOR_FORMAT_OPTION);
+        if ("binary".equalsIgnoreCase(format)) {
+            descriptorFormat = "binary";
+        } else if (format != null && !format.isBlank() && !"class".equalsIgnoreCase(format)) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Ignoring invalid " + DESCRIPTOR_FORMAT_OPTION + " value '" + format + "'");
+        }
+    }
 
     @Override
     public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-        if (roundEnv.processingOver() || processedOnce) {
+        if (roundEnv.processingOver()) {
+            return false;
+        }
+        if (processedOnce) {
+            writePendingBridges();
             return false;
         }
         processedOnce = true;
@@ -47,59 +137,338 @@ public class PluginLoaderProcessor extends AbstractProcessor {
                 return false;
             }
 
-            for (FeatureRequest feature : features) {
-                if (!processedRepos.add(feature.repository())) {
-                    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Already processed repo " + feature.repository() + " - skipping duplicate round");
-                    continue;
+            processFeatures(features);
+            // never claim annotations: this processor only reacts to configuration, other processors must still run
+            return false;
+
+        } catch (Exception e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "PluginLoaderProcessor failure: " + e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Clones, scans and builds features on a bounded pool while generated sources and descriptors are written
+     * on the calling thread in declaration order, so the output does not depend on the parallelism.
+     */
+    void processFeatures(List<FeatureRequest> features) {
+        Path incrementalDir = incrementalDir();
+        incrementalState = incrementalDir == null ? null : IncrementalState.load(incrementalDir, processingEnv.getMessager());
+        try {
+            runPipeline(features);
+            if (!descriptorIndex.isEmpty()) {
+                descriptorGenerator.writeIndex(descriptorIndex, processingEnv.getFiler(), processingEnv.getMessager());
+            }
+        } finally {
+            if (incrementalState != null) {
+                incrementalState.save(processingEnv.getMessager());
+            }
+        }
+    }
+
+    private void runPipeline(List<FeatureRequest> features) {
+        List<FeatureRequest> unique = new ArrayList<>();
+        for (FeatureRequest feature : features) {
+            if (!processedRepos.add(feature.repository())) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Already processed repo " + feature.repository() + " - skipping duplicate round");
+                continue;
+            }
+            unique.add(feature);
+        }
+
+        int parallelism = Math.min(parallelism(), unique.size());
+        if (parallelism <= 1) {
+            for (FeatureRequest feature : unique) {
+                ScannedFeature scanned = cloneAndScan(feature);
+                PublishedSources published = publishSources(scanned);
+                if (published != null) {
+                    publishDescriptor(build(scanned, published));
                 }
+            }
+            return;
+        }
 
-                Path tempDir = repositoryManager.cloneRepository(feature, processingEnv.getMessager());
-                try {
-                    var scanResult = sourceGenerator.generateSources(tempDir.resolve("src/main/java"),
-                            feature.packages(), processingEnv, processingEnv.getMessager());
-
-                    Set<String> packages = new HashSet<>(scanResult.packages());
-                    if (!feature.packages().isEmpty()) {
-                        packages.clear();
-                        packages.addAll(feature.packages());
-                    }
-
-                    String pkgHint = packages.stream().findFirst().orElse(null);
-                    String featureName = featureNameResolver.deriveFeatureName(feature.repository(), pkgHint, scanResult.beanClasses());
-                    String descriptorName = descriptorGenerator.getDescriptorName(featureName);
-
-                    if (!generatedTypes.add(descriptorName)) {
-                        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Descriptor " + descriptorName + " already generated in this run - skipping");
-                        continue;
-                    }
-
-                    String jarPathForDescriptor = null;
-                    try {
-                        Optional<Path> builtJar = jarBuilder.buildAndCopyArtifact(tempDir, featureName, processingEnv.getMessager());
-                        if (builtJar.isPresent()) {
-                            Path rel = Path.of("target").resolve("pluginloader").resolve("features").resolve(builtJar.get().getFileName());
-                            jarPathForDescriptor = rel.toString().replace(java.io.File.separatorChar, '/');
-                            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Copied feature jar to " + rel);
-                        } else {
-                            processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "No jar produced/available for " + feature.repository() + " - descriptor will not include JAR_PATH");
-                        }
-                    } catch (Exception e) {
-                        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "Build/copy step failed: " + e.toString());
-                    }
-
-                    descriptorGenerator.writeDescriptor(featureName, packages, scanResult.beanClasses(), jarPathForDescriptor, processingEnv, processingEnv.getMessager());
-                } catch (Exception e) {
-                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed processing feature " + feature.repository() + ": " + e.toString());
-                } finally {
-                    repositoryManager.cleanup(tempDir, processingEnv.getMessager());
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, workerThreadFactory());
+        try {
+            List<Future<ScannedFeature>> scans = new ArrayList<>();
+            for (FeatureRequest feature : unique) {
+                scans.add(executor.submit(() -> cloneAndScan(feature)));
+            }
+            // builds are queued as soon as a feature's name is known, behind the remaining clones
+            List<Future<BuiltFeature>> builds = new ArrayList<>();
+            for (Future<ScannedFeature> scan : scans) {
+                ScannedFeature scanned = await(scan);
+                PublishedSources published = publishSources(scanned);
+                if (published != null) {
+                    builds.add(executor.submit(() -> build(scanned, published)));
                 }
             }
+            for (Future<BuiltFeature> build : builds) {
+                publishDescriptor(await(build));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Generates the static bridges of the features published in the previous round. Their imported sources are
+     * compiled in this round, so the interfaces can be read as elements.
+     */
+    void writePendingBridges() {
+        pendingBridges.forEach((featureName, types) -> bridgeGenerator.writeBridges(featureName, types,
+                processingEnv.getElementUtils(), processingEnv.getTypeUtils(), processingEnv.getFiler(), processingEnv.getMessager()));
+        pendingBridges.clear();
+    }
+
+    private int parallelism() {
+        return (int) Math.max(1, longOption(PARALLELISM_OPTION, 1));
+    }
+
+    private RepositoryCache repositoryCache() {
+        String dir = processingEnv.getOptions().get(CACHE_DIR_OPTION);
+        if ("none".equalsIgnoreCase(dir)) {
+            return null;
+        }
+        Path root = dir == null || dir.isBlank() ? RepositoryCache.defaultRoot() : Path.of(dir.trim());
+        long maxBytes = longOption(CACHE_MAX_MB_OPTION, RepositoryCache.DEFAULT_MAX_BYTES / (1024 * 1024)) * 1024 * 1024;
+        return new RepositoryCache(root, maxBytes);
+    }
+
+    private ArtifactCache artifactCache() {
+        String dir = processingEnv.getOptions().get(ARTIFACT_CACHE_DIR_OPTION);
+        if ("none".equalsIgnoreCase(dir)) {
+            return null;
+        }
+        return new ArtifactCache(dir == null || dir.isBlank() ? ArtifactCache.defaultRoot() : Path.of(dir.trim()));
+    }
+
+    private MavenOptions mavenOptions() {
+        String daemon = processingEnv.getOptions().getOrDefault(MAVEN_DAEMON_OPTION, MavenOptions.DEFAULTS.daemon()).trim();
+        if (!Set.of("true", "false", "auto").contains(daemon.toLowerCase(Locale.ROOT))) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Ignoring invalid " + MAVEN_DAEMON_OPTION + " value '" + daemon + "'");
+            daemon = MavenOptions.DEFAULTS.daemon();
+        }
+        return new MavenOptions(daemon,
+                booleanOption(MAVEN_OFFLINE_OPTION, MavenOptions.DEFAULTS.offline()),
+                processingEnv.getOptions().get(MAVEN_THREADS_OPTION),
+                booleanOption(MAVEN_CLEAN_OPTION, MavenOptions.DEFAULTS.clean()),
+                booleanOption(MAVEN_QUIET_OPTION, MavenOptions.DEFAULTS.quiet()));
+    }
+
+    private InProcessCompiler inProcessCompiler() {
+        String build = processingEnv.getOptions().get(BUILD_OPTION);
+        if (build == null || build.isBlank() || "maven".equalsIgnoreCase(build.trim())) {
+            return null;
+        }
+        if (!"javac".equalsIgnoreCase(build.trim())) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Ignoring invalid " + BUILD_OPTION + " value '" + build + "'");
+            return null;
+        }
+        String classpath = processingEnv.getOptions().get(COMPILE_CLASSPATH_OPTION);
+        return new InProcessCompiler(classpath == null || classpath.isBlank() ? InProcessCompiler.defaultClasspath() : classpath.trim());
+    }
 
-            return true;
+    private Path incrementalDir() {
+        String dir = processingEnv.getOptions().get(INCREMENTAL_DIR_OPTION);
+        if ("none".equalsIgnoreCase(dir)) {
+            return null;
+        }
+        return dir == null || dir.isBlank() ? IncrementalState.defaultDir() : Path.of(dir.trim());
+    }
 
+    private boolean booleanOption(String name, boolean defaultValue) {
+        String value = processingEnv.getOptions().get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        if (!"true".equalsIgnoreCase(value.trim()) && !"false".equalsIgnoreCase(value.trim())) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Ignoring invalid " + name + " value '" + value + "'");
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    private long longOption(String name, long defaultValue) {
+        String value = processingEnv.getOptions().get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Ignoring invalid " + name + " value '" + value + "'");
+            return defaultValue;
+        }
+    }
+
+    // Worker side: everything here must stay off the Filer and report through the buffered messager
+    private ScannedFeature cloneAndScan(FeatureRequest feature) {
+        BufferedMessager messager = new BufferedMessager();
+        if (incrementalState != null) {
+            String remoteCommit = repositoryManager.remoteCommit(feature);
+            if (remoteCommit != null) {
+                String fingerprint = IncrementalState.fingerprint(feature, remoteCommit, descriptorFormat, scanMode, jarBuilder.buildConfiguration());
+                if (incrementalState.isUpToDate(feature, fingerprint)) {
+                    messager.printMessage(Diagnostic.Kind.NOTE, "Feature " + feature.repository() + " unchanged at " + remoteCommit + " - reusing generated sources");
+                    return new ScannedFeature(feature, null, null, messager, null, fingerprint, true);
+                }
+            }
+        }
+        CheckedOutRepository checkout = null;
+        try {
+            checkout = repositoryManager.checkout(feature, messager);
+            ScanResult scanResult = sourceGenerator.scanSources(checkout.directory().resolve("src/main/java"), feature.packages(), messager);
+            String fingerprint = checkout.commitId() == null ? null : IncrementalState.fingerprint(feature, checkout.commitId(), descriptorFormat, scanMode, jarBuilder.buildConfiguration());
+            return new ScannedFeature(feature, checkout, scanResult, messager, null, fingerprint, false);
         } catch (Exception e) {
-            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "PluginLoaderProcessor failure: " + e.toString());
-            return false;
+            if (checkout != null) {
+                repositoryManager.cleanup(checkout.directory(), messager);
+            }
+            return new ScannedFeature(feature, null, null, messager, e, null, false);
+        }
+    }
+
+    // Processor thread: writes imported sources and reserves the descriptor name; null when there is nothing to build
+    private PublishedSources publishSources(ScannedFeature scanned) {
+        Messager messager = processingEnv.getMessager();
+        scanned.messages().replayTo(messager);
+        if (scanned.failure() != null) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed processing feature " + scanned.feature().repository() + ": " + scanned.failure());
+            return null;
+        }
+        if (scanned.upToDate()) {
+            try {
+                RecordingFiler replayed = new RecordingFiler(processingEnv.getFiler());
+                String descriptorName = incrementalState.replay(scanned.feature(), replayed, messager);
+                if (descriptorName != null) {
+                    generatedTypes.add(descriptorName);
+                    descriptorIndex.add(new DescriptorIndexEntry(descriptorName, scanned.feature().repository()));
+                    Set<String> types = new LinkedHashSet<>(replayed.getSources());
+                    types.remove(descriptorName);
+                    pendingBridges.put(descriptorName.substring(descriptorName.lastIndexOf('.') + 1, descriptorName.length() - "Descriptor".length()), types);
+                }
+            } catch (Exception e) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Failed replaying feature " + scanned.feature().repository() + ": " + e.toString());
+            }
+            return null;
+        }
+        try {
+            // stashed as they are written, so incremental mode keeps no generated output in memory
+            RecordingFiler outputs = incrementalState != null && scanned.fingerprint() != null
+                    ? new RecordingFiler(processingEnv.getFiler(), incrementalState.staging(scanned.feature()))
+                    : new RecordingFiler(processingEnv.getFiler());
+            if (scanned.feature().binary()) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Feature " + scanned.feature().repository() + " is binary-only - not importing its sources");
+            } else {
+                sourceGenerator.writeSources(scanned.scanResult(), outputs, messager);
+            }
+
+            String pkgHint = scanned.packages().stream().findFirst().orElse(null);
+            String featureName = featureNameResolver.deriveFeatureName(scanned.feature().repository(), pkgHint, scanned.scanResult().beanClasses());
+            String descriptorName = descriptorGenerator.getDescriptorName(featureName);
+            if (!generatedTypes.add(descriptorName)) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Descriptor " + descriptorName + " already generated in this run - skipping");
+                repositoryManager.cleanup(scanned.tempDir(), messager);
+                return null;
+            }
+            return new PublishedSources(featureName, outputs);
+        } catch (Exception e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed processing feature " + scanned.feature().repository() + ": " + e.toString());
+            repositoryManager.cleanup(scanned.tempDir(), messager);
+            return null;
+        }
+    }
+
+    private BuiltFeature build(ScannedFeature scanned, PublishedSources published) {
+        String featureName = published.featureName();
+        BufferedMessager messager = new BufferedMessager();
+        String jarPathForDescriptor = null;
+        try {
+            Optional<Path> builtJar = jarBuilder.buildAndCopyArtifact(scanned.tempDir(), featureName, scanned.sourceKey(), scanned.feature().buildArgs(), messager);
+            if (builtJar.isPresent()) {
+                Path rel = Path.of("target").resolve("pluginloader").resolve("features").resolve(builtJar.get().getFileName());
+                jarPathForDescriptor = rel.toString().replace(java.io.File.separatorChar, '/');
+                messager.printMessage(Diagnostic.Kind.NOTE, "Copied feature jar to " + rel);
+            } else if (scanned.feature().binary()) {
+                // nothing else provides the classes of a binary feature
+                messager.printMessage(Diagnostic.Kind.WARNING, "No jar produced/available for binary feature " + scanned.feature().repository() + " - it cannot be loaded at runtime");
+            } else {
+                messager.printMessage(Diagnostic.Kind.NOTE, "No jar produced/available for " + scanned.feature().repository() + " - descriptor will not include JAR_PATH");
+            }
+        } catch (Exception e) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Build/copy step failed: " + e.toString());
+        }
+        return new BuiltFeature(scanned, published, jarPathForDescriptor, messager);
+    }
+
+    private void publishDescriptor(BuiltFeature built) {
+        Messager messager = processingEnv.getMessager();
+        built.messages().replayTo(messager);
+        ScannedFeature scanned = built.scanned();
+        PublishedSources published = built.published();
+        try {
+            if ("binary".equals(descriptorFormat)) {
+                descriptorGenerator.writeBinaryDescriptor(published.featureName(), scanned.packages(), scanned.scanResult(), built.jarPath(), published.outputs(), messager);
+            } else {
+                descriptorGenerator.writeDescriptor(published.featureName(), scanned.packages(), scanned.scanResult(), built.jarPath(), published.outputs(), messager);
+            }
+            if (!scanned.feature().binary()) {
+                // bridges are compiled against the imported interfaces, which a binary feature does not have
+                pendingBridges.put(published.featureName(), scanned.scanResult().exposedTypes());
+            }
+            descriptorIndex.add(new DescriptorIndexEntry(descriptorGenerator.getDescriptorName(published.featureName()), scanned.feature().repository()));
+            if (incrementalState != null && scanned.fingerprint() != null) {
+                incrementalState.record(scanned.feature(), scanned.fingerprint(),
+                        descriptorGenerator.getDescriptorName(published.featureName()), built.jarPath(), published.outputs());
+            }
+        } catch (Exception e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed processing feature " + scanned.feature().repository() + ": " + e.toString());
+        } finally {
+            repositoryManager.cleanup(scanned.tempDir(), messager);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while processing features", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Feature processing failed", e.getCause());
+        }
+    }
+
+    private ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "pluginloader-processor-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // upToDate: the previous compile's outputs are replayed instead, nothing was checked out
+    private record ScannedFeature(FeatureRequest feature, CheckedOutRepository checkout, ScanResult scanResult, BufferedMessager messages,
+                                  Exception failure, String fingerprint, boolean upToDate) {
+        Path tempDir() {
+            return checkout.directory();
+        }
+
+        // what was checked out, for the artifact cache; null when the commit is unknown
+        String sourceKey() {
+            return checkout.commitId() == null ? null : checkout.commitId() + " " + feature.cloneOptions().sparsePaths();
+        }
+
+        Set<String> packages() {
+            return feature.packages().isEmpty() ? new HashSet<>(scanResult.packages()) : new HashSet<>(feature.packages());
         }
     }
+
+    private record PublishedSources(String featureName, RecordingFiler outputs) {
+    }
+
+    private record BuiltFeature(ScannedFeature scanned, PublishedSources published, String jarPath, BufferedMessager messages) {
+    }
 }
@@ -0,0 +1,177 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.ForwardingFileObject;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Filer that forwards to the compiler's Filer and records the names of every source file, and of every
+ * class-output resource, written through it.
+ * <p>
+ * With a stash directory, each of those files is also copied into it while it is written
+ * ({@code <type name>.java} and {@code resources/<name>}), so the outputs of a feature can be replayed on a
+ * later compile without keeping them in memory.
+ */
+class RecordingFiler implements Filer {
+    private final Filer delegate;
+    private final Path stash;
+    private final Set<String> sources = new LinkedHashSet<>();
+    private final Set<String> resources = new LinkedHashSet<>();
+
+    RecordingFiler(Filer delegate) {
+        this(delegate, null);
+    }
+
+    RecordingFiler(Filer delegate, Path stash) {
+        this.delegate = delegate;
+        this.stash = stash;
+    }
+
+    Path getStash() {
+        return stash;
+    }
+
+    Set<String> getSources() {
+        return sources;
+    }
+
+    // class-output resources in the unnamed package, by relative name
+    Set<String> getResources() {
+        return resources;
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) throws IOException {
+        String typeName = name.toString();
+        return new ForwardingJavaFileObject<>(delegate.createSourceFile(name, originatingElements)) {
+            @Override
+            public Writer openWriter() throws IOException {
+                Writer target = super.openWriter();
+                sources.add(typeName);
+                if (stash == null) {
+                    return target;
+                }
+                try {
+                    return new TeeWriter(target, Files.newBufferedWriter(stash.resolve(typeName + ".java"), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    target.close();
+                    throw e;
+                }
+            }
+        };
+    }
+
+    @Override
+    public JavaFileObject createClassFile(CharSequence name, Element... originatingElements) throws IOException {
+        return delegate.createClassFile(name, originatingElements);
+    }
+
+    @Override
+    public FileObject createResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) throws IOException {
+        FileObject resource = delegate.createResource(location, pkg, relativeName, originatingElements);
+        if (location != StandardLocation.CLASS_OUTPUT || pkg.length() > 0) {
+            return resource;
+        }
+        String name = relativeName.toString();
+        return new ForwardingFileObject<>(resource) {
+            @Override
+            public OutputStream openOutputStream() throws IOException {
+                OutputStream target = super.openOutputStream();
+                resources.add(name);
+                if (stash == null) {
+                    return target;
+                }
+                try {
+                    Path copy = stash.resolve("resources").resolve(name);
+                    Files.createDirectories(copy.getParent());
+                    return new TeeOutputStream(target, Files.newOutputStream(copy));
+                } catch (IOException e) {
+                    target.close();
+                    throw e;
+                }
+            }
+        };
+    }
+
+    @Override
+    public FileObject getResource(JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName) throws IOException {
+        return delegate.getResource(location, pkg, relativeName);
+    }
+
+    private static final class TeeWriter extends Writer {
+        private final Writer target;
+        private final Writer copy;
+
+        TeeWriter(Writer target, Writer copy) {
+            this.target = target;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            target.write(buffer, offset, length);
+            copy.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+            copy.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (copy) {
+                target.close();
+            }
+        }
+    }
+
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream target;
+        private final OutputStream copy;
+
+        TeeOutputStream(OutputStream target, OutputStream copy) {
+            this.target = target;
+            this.copy = copy;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target.write(b);
+            copy.write(b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) throws IOException {
+            target.write(buffer, offset, length);
+            copy.write(buffer, offset, length);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target.flush();
+            copy.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (copy) {
+                target.close();
+            }
+        }
+    }
+}
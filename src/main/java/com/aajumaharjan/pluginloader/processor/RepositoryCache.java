@@ -0,0 +1,312 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.RefSpec;
+
+import javax.annotation.processing.Messager;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of feature repositories, one entry per repository URL:
+ * <pre>
+ * &lt;root&gt;/&lt;sha256(url)&gt;/repo.git   bare repository, only the requested branches are fetched into it
+ * &lt;root&gt;/&lt;sha256(url)&gt;/worktree   reused checkout of the requested commit
+ * &lt;root&gt;/&lt;sha256(url)&gt;/.lock       held for as long as a compile uses the worktree
+ * &lt;root&gt;/&lt;sha256(url)&gt;/.last-used  checked-out commit and entry size, written on release
+ * </pre>
+ * Fetches honour the feature's {@link CloneOptions#depth()}; with sparse paths only those paths are checked out.
+ * The entry lock is a file lock, so concurrent builds on the same machine wait for each other instead of
+ * sharing a worktree; a semaphore per entry does the same for threads of one JVM. Entries are evicted least
+ * recently used first once the cache grows beyond {@code maxBytes}; only the released entry is measured, the sizes
+ * of the others are read from their markers.
+ */
+class RepositoryCache {
+    static final long DEFAULT_MAX_BYTES = 2L * 1024 * 1024 * 1024;
+
+    private static final String LOCK_FILE = ".lock";
+    private static final String LAST_USED_FILE = ".last-used";
+    private static final String CHECKOUT_MODE_FILE = ".checkout-mode";
+    // FileLocks are per JVM, not per thread: overlapping locks on one file would throw
+    private static final Map<Path, Semaphore> IN_PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path root;
+    private final long maxBytes;
+    private final Map<Path, Lease> leases = new ConcurrentHashMap<>();
+
+    RepositoryCache(Path root, long maxBytes) {
+        this.root = root.toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+    }
+
+    static Path defaultRoot() {
+        return Path.of(System.getProperty("user.home"), ".pluginloader", "repos");
+    }
+
+    Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Fetches the requested branch into the cached bare repository and checks it out into the entry's worktree.
+     * The entry stays locked until {@link #release} is called with the returned directory.
+     */
+    CheckedOutRepository checkout(FeatureRequest feature, Messager messager) throws Exception {
+        Path entry = entryFor(feature.repository());
+        Files.createDirectories(entry);
+        Lease lease = Lease.acquire(entry);
+        try {
+            Path gitDir = entry.resolve("repo.git");
+            Path worktree = entry.resolve("worktree");
+            boolean cached = Files.exists(gitDir.resolve("HEAD"));
+            if (!cached) {
+                Git.init().setBare(true).setDirectory(gitDir.toFile()).call().close();
+            }
+            Files.createDirectories(worktree);
+
+            try (Repository repository = new FileRepositoryBuilder()
+                    .setGitDir(gitDir.toFile())
+                    .setWorkTree(worktree.toFile())
+                    .setIndexFile(entry.resolve("index").toFile())
+                    .build();
+                 Git git = new Git(repository)) {
+                String remoteRef = "refs/remotes/origin/" + feature.branch();
+                messager.printMessage(Diagnostic.Kind.NOTE, (cached ? "Fetching " : "Cloning ") + feature.repository() + " into cache " + entry);
+                CloneOptions options = feature.cloneOptions();
+                FetchCommand fetch = git.fetch()
+                        .setRemote(feature.repository())
+                        .setRefSpecs(new RefSpec("+refs/heads/" + feature.branch() + ":" + remoteRef));
+                if (options.isShallow()) {
+                    fetch.setDepth(options.depth());
+                }
+                fetch.call();
+                ObjectId commit = repository.resolve(remoteRef);
+                if (commit == null) {
+                    throw new IOException("Branch " + feature.branch() + " not found in " + feature.repository());
+                }
+                checkoutWorktree(git, entry, worktree, commit, options);
+
+                Files.writeString(entry.resolve(LAST_USED_FILE), commit.name());
+                Files.setLastModifiedTime(entry.resolve(LAST_USED_FILE), FileTime.fromMillis(System.currentTimeMillis()));
+                leases.put(worktree, lease);
+                messager.printMessage(Diagnostic.Kind.NOTE, "Checked out " + feature.branch() + " at " + commit.name() + " in " + worktree);
+                return new CheckedOutRepository(worktree, commit.name(), cached);
+            }
+        } catch (Exception e) {
+            lease.release();
+            throw e;
+        }
+    }
+
+    // Sparse checkouts and switches between sparse and full start from an empty worktree and index
+    private void checkoutWorktree(Git git, Path entry, Path worktree, ObjectId commit, CloneOptions options) throws Exception {
+        Path modeFile = entry.resolve(CHECKOUT_MODE_FILE);
+        String mode = String.join("\n", options.sparsePaths());
+        String previousMode = Files.exists(modeFile) ? Files.readString(modeFile) : "";
+        if (options.isSparse() || !mode.equals(previousMode)) {
+            deleteContents(worktree);
+            Files.deleteIfExists(entry.resolve("index"));
+        }
+        if (options.isSparse()) {
+            git.checkout().setStartPoint(commit.name()).addPaths(options.sparsePaths()).setForced(true).call();
+        } else {
+            // detached checkout of the fetched commit
+            git.checkout().setName(commit.name()).setForced(true).call();
+        }
+        // drop untracked files, but keep ignored build output (target/, build/, .gradle/) for incremental builds
+        git.clean().setCleanDirectories(true).setIgnore(true).setForce(true).call();
+        Files.writeString(modeFile, mode);
+    }
+
+    /**
+     * Records the size of the entry owning {@code worktree}, unlocks it and evicts old entries; false if the
+     * directory is not a cached worktree checked out by this instance.
+     */
+    boolean release(Path worktree, Messager messager) {
+        Lease lease = leases.remove(worktree);
+        if (lease == null) {
+            return false;
+        }
+        try {
+            recordSize(worktree.getParent());
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Could not record size of cached repository " + worktree.getParent() + ": " + e);
+        } finally {
+            lease.release();
+        }
+        evict(messager);
+        return true;
+    }
+
+    // Keeps the commit line of the marker and its modification time, which orders entries for eviction
+    private void recordSize(Path entry) throws IOException {
+        Path marker = entry.resolve(LAST_USED_FILE);
+        if (!Files.exists(marker)) {
+            return;
+        }
+        FileTime lastUsed = Files.getLastModifiedTime(marker);
+        String commit = Files.readAllLines(marker).stream().findFirst().orElse("");
+        Files.writeString(marker, commit + "\n" + sizeOf(entry));
+        Files.setLastModifiedTime(marker, lastUsed);
+    }
+
+    void evict(Messager messager) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<CacheEntry> entries = new ArrayList<>();
+        try (Stream<Path> children = Files.list(root)) {
+            for (Path child : (Iterable<Path>) children::iterator) {
+                if (Files.isDirectory(child)) {
+                    entries.add(new CacheEntry(child, lastUsed(child), recordedSize(child)));
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.NOTE, "Repository cache eviction skipped: " + e);
+            return;
+        }
+
+        long total = entries.stream().mapToLong(CacheEntry::size).sum();
+        entries.sort(Comparator.comparingLong(CacheEntry::lastUsed));
+        for (CacheEntry candidate : entries) {
+            if (total <= maxBytes) {
+                break;
+            }
+            Lease lease = Lease.tryAcquire(candidate.path());
+            if (lease == null) {
+                continue; // in use by this or another build
+            }
+            try {
+                deleteContents(candidate.path());
+                total -= candidate.size();
+                messager.printMessage(Diagnostic.Kind.NOTE, "Evicted cached repository " + candidate.path().getFileName());
+            } finally {
+                lease.release();
+            }
+        }
+    }
+
+    Path entryFor(String repositoryUrl) {
+        return root.resolve(Digests.sha256Hex(repositoryUrl).substring(0, 32));
+    }
+
+    private long lastUsed(Path entry) throws IOException {
+        Path marker = entry.resolve(LAST_USED_FILE);
+        return Files.getLastModifiedTime(Files.exists(marker) ? marker : entry).toMillis();
+    }
+
+    // Size written by the last release; entries from older versions, or never released, are measured
+    private long recordedSize(Path entry) throws IOException {
+        Path marker = entry.resolve(LAST_USED_FILE);
+        if (Files.exists(marker)) {
+            List<String> lines = Files.readAllLines(marker);
+            if (lines.size() > 1) {
+                try {
+                    return Long.parseLong(lines.get(1).trim());
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        return sizeOf(entry);
+    }
+
+    private long sizeOf(Path entry) throws IOException {
+        try (Stream<Path> files = Files.walk(entry)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> {
+                try {
+                    return Files.size(p);
+                } catch (IOException e) {
+                    return 0L;
+                }
+            }).sum();
+        }
+    }
+
+    // Everything except the lock file: deleting it could let two builds lock different files for the same entry
+    private void deleteContents(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder())
+                    .filter(p -> !p.equals(dir) && !p.equals(dir.resolve(LOCK_FILE)))
+                    .forEach(this::deleteQuietly);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+
+    private record CacheEntry(Path path, long lastUsed, long size) {
+    }
+
+    private record Lease(Semaphore semaphore, FileChannel channel, FileLock lock) {
+        static Lease acquire(Path entry) throws IOException, InterruptedException {
+            Semaphore semaphore = IN_PROCESS_LOCKS.computeIfAbsent(entry, e -> new Semaphore(1));
+            semaphore.acquire();
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(entry.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                return new Lease(semaphore, channel, channel.lock());
+            } catch (IOException | RuntimeException e) {
+                if (channel != null) channel.close();
+                semaphore.release();
+                throw e;
+            }
+        }
+
+        static Lease tryAcquire(Path entry) {
+            Semaphore semaphore = IN_PROCESS_LOCKS.computeIfAbsent(entry, e -> new Semaphore(1));
+            if (!semaphore.tryAcquire()) {
+                return null;
+            }
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(entry.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    return new Lease(semaphore, channel, lock);
+                }
+            } catch (IOException | RuntimeException ignored) {
+            }
+            try {
+                if (channel != null) channel.close();
+            } catch (IOException ignored) {
+            }
+            semaphore.release();
+            return null;
+        }
+
+        void release() {
+            try {
+                lock.release();
+                channel.close();
+            } catch (IOException ignored) {
+            } finally {
+                semaphore.release();
+            }
+        }
+    }
+}
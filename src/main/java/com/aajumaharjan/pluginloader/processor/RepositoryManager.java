@@ -1,6 +1,8 @@
 package com.aajumaharjan.pluginloader.processor;
 
+import org.eclipse.jgit.api.CloneCommand;
 import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
 
 import javax.annotation.processing.Messager;
 import javax.tools.Diagnostic;
@@ -8,27 +10,97 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Comparator;
+import java.util.List;
 
 class RepositoryManager {
+    // null disables caching: every compile clones into a temp directory that cleanup deletes
+    private final RepositoryCache cache;
+
+    RepositoryManager() {
+        this(new RepositoryCache(RepositoryCache.defaultRoot(), RepositoryCache.DEFAULT_MAX_BYTES));
+    }
+
+    RepositoryManager(RepositoryCache cache) {
+        this.cache = cache;
+    }
 
     public Path cloneRepository(FeatureRequest feature, Messager messager) {
+        return checkout(feature, messager).directory();
+    }
+
+    /**
+     * Checks out the requested branch, from the repository cache when enabled, falling back to a fresh clone in a
+     * temp directory. The returned directory must be handed back to {@link #cleanup}.
+     */
+    public CheckedOutRepository checkout(FeatureRequest feature, Messager messager) {
+        if (cache != null) {
+            try {
+                return cache.checkout(feature, messager);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for repository cache " + feature.repository(), e);
+            } catch (Exception e) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Repository cache unavailable for " + feature.repository() + " (" + e + ") - cloning into a temp directory");
+            }
+        }
         try {
             messager.printMessage(Diagnostic.Kind.NOTE, "Cloning feature from " + feature.repository());
             Path tempDir = Files.createTempDirectory("feature-");
-            Git.cloneRepository()
+            CloneOptions options = feature.cloneOptions();
+            CloneCommand clone = Git.cloneRepository()
                     .setURI(feature.repository())
                     .setBranch(feature.branch())
                     .setDirectory(tempDir.toFile())
-                    .call()
-                    .close();
+                    .setNoCheckout(options.isSparse());
+            if (options.isShallow()) {
+                clone.setDepth(options.depth());
+            }
+            if (options.singleBranch()) {
+                clone.setCloneAllBranches(false).setBranchesToClone(List.of("refs/heads/" + feature.branch()));
+            }
+            String commitId;
+            try (Git git = clone.call()) {
+                ObjectId commit = git.getRepository().resolve("refs/remotes/origin/" + feature.branch());
+                if (commit == null) {
+                    commit = git.getRepository().resolve("HEAD");
+                }
+                commitId = commit != null ? commit.name() : null;
+                if (options.isSparse() && commitId != null) {
+                    git.checkout().setStartPoint(commitId).addPaths(options.sparsePaths()).call();
+                }
+            }
             messager.printMessage(Diagnostic.Kind.NOTE, "Cloned to " + tempDir);
-            return tempDir;
+            return new CheckedOutRepository(tempDir, commitId, false);
         } catch (Exception e) {
             throw new RuntimeException("Failed to clone repository " + feature.repository(), e);
         }
     }
 
+    /**
+     * Commit the configured branch currently points to on the remote, without fetching; null if it cannot be
+     * resolved (offline, unknown branch).
+     */
+    public String remoteCommit(FeatureRequest feature) {
+        try {
+            String branchRef = "refs/heads/" + feature.branch();
+            return Git.lsRemoteRepository()
+                    .setRemote(feature.repository())
+                    .setHeads(true)
+                    .call()
+                    .stream()
+                    .filter(ref -> ref.getName().equals(branchRef))
+                    .map(ref -> ref.getObjectId().name())
+                    .findFirst()
+                    .orElse(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     public void cleanup(Path directory, Messager messager) {
+        if (cache != null && cache.release(directory, messager)) {
+            return;
+        }
         try {
             Files.walk(directory)
                     .sorted(Comparator.reverseOrder())
@@ -1,9 +1,34 @@
 package com.aajumaharjan.pluginloader.processor;
 
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 /**
- * Captures results from scanning a feature repository.
+ * Captures results from scanning a feature repository: bean candidates (with their index metadata), the
+ * public interfaces that may be exposed to the host and the source files to import, keyed by the type name
+ * they are generated under. {@code indexGaps} lists what the bean index could not classify (a class with an
+ * annotation that may be a custom stereotype, a header-only scan); with any gap the index is not published.
  */
-public record ScanResult(Set<String> packages, Set<String> beanClasses) {
+public record ScanResult(Set<String> packages, Set<String> beanClasses, Set<BeanIndexEntry> beanIndex, Set<String> exposedTypes,
+                         Map<String, Path> sourceFiles, Set<String> indexGaps) {
+    public ScanResult(Set<String> packages, Set<String> beanClasses) {
+        this(packages, beanClasses, Set.of(), Set.of(), Map.of());
+    }
+
+    public ScanResult(Set<String> packages, Set<String> beanClasses, Set<BeanIndexEntry> beanIndex, Set<String> exposedTypes,
+                      Map<String, Path> sourceFiles) {
+        this(packages, beanClasses, beanIndex, exposedTypes, sourceFiles, new HashSet<>());
+    }
+
+    /**
+     * The bean index to publish: empty when it may miss beans the classpath scanner would find, so the runtime
+     * scans the feature's packages instead.
+     */
+    public Set<BeanIndexEntry> completeBeanIndex() {
+        return indexGaps.isEmpty() ? beanIndex : Set.of();
+    }
 }
@@ -0,0 +1,127 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a UTF-8 source file through a {@link FileChannel} into buffers pooled per thread, so scanning and
+ * importing feature sources never holds a whole file in memory and allocates no buffer per file.
+ * <p>
+ * Malformed UTF-8 is reported as an exception, like {@code Files.readString}. A thread that opens a second
+ * reader while one is still open gets fresh buffers for it.
+ */
+final class SourceFileReader extends Reader {
+    static final int BUFFER_SIZE = 16 * 1024;
+    private static final ThreadLocal<Buffers> POOL = ThreadLocal.withInitial(Buffers::new);
+
+    private final FileChannel channel;
+    private final Buffers buffers;
+    private boolean endOfInput;
+    private boolean done;
+
+    private SourceFileReader(FileChannel channel, Buffers buffers) {
+        this.channel = channel;
+        this.buffers = buffers;
+    }
+
+    static SourceFileReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        Buffers pooled = POOL.get();
+        Buffers buffers = pooled.inUse ? new Buffers() : pooled;
+        buffers.inUse = true;
+        buffers.bytes.clear();
+        buffers.chars.clear().limit(0);
+        buffers.decoder.reset();
+        return new SourceFileReader(channel, buffers);
+    }
+
+    // single characters are served from the decoded window, which is what the scanner's tokenizer reads
+    @Override
+    public int read() throws IOException {
+        return fill() ? buffers.chars.get() : -1;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, buffers.chars.remaining());
+        buffers.chars.get(cbuf, off, n);
+        return n;
+    }
+
+    /**
+     * Copies the rest of the file to {@code writer} straight from the decoded window.
+     */
+    @Override
+    public long transferTo(Writer writer) throws IOException {
+        CharBuffer chars = buffers.chars;
+        long transferred = 0;
+        while (fill()) {
+            writer.write(chars.array(), chars.position(), chars.remaining());
+            transferred += chars.remaining();
+            chars.position(chars.limit());
+        }
+        return transferred;
+    }
+
+    // Decodes the next window once the current one is consumed; false at the end of the file
+    private boolean fill() throws IOException {
+        CharBuffer chars = buffers.chars;
+        if (chars.hasRemaining()) {
+            return true;
+        }
+        if (done) {
+            return false;
+        }
+        ByteBuffer bytes = buffers.bytes;
+        chars.clear();
+        while (chars.position() == 0 && !done) {
+            if (!endOfInput && channel.read(bytes) < 0) {
+                endOfInput = true;
+            }
+            bytes.flip();
+            CoderResult result = buffers.decoder.decode(bytes, chars, endOfInput);
+            bytes.compact();
+            if (result.isError()) {
+                chars.clear().limit(0);
+                result.throwException();
+            }
+            if (endOfInput && result.isUnderflow() && buffers.decoder.flush(chars).isUnderflow()) {
+                done = true;
+            }
+        }
+        chars.flip();
+        return chars.hasRemaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffers.inUse = false;
+        channel.close();
+    }
+
+    private static final class Buffers {
+        // direct, so channel reads need no intermediate copy
+        private final ByteBuffer bytes = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT);
+        private boolean inUse;
+    }
+}
@@ -1,5 +1,7 @@
 package com.aajumaharjan.pluginloader.processor;
 
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
+
 import javax.annotation.processing.Filer;
 import javax.annotation.processing.FilerException;
 import javax.annotation.processing.Messager;
@@ -7,72 +9,289 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.tools.Diagnostic;
 import javax.tools.JavaFileObject;
 import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
 import java.io.Writer;
-import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.stream.Stream;
 
 class SourceGenerator {
-    private static final Pattern PACKAGE_PATTERN = Pattern.compile("package\\s+([\\w\\.]+)\\s*;");
-    private static final Pattern CLASS_PATTERN = Pattern.compile("\\b(class|interface|enum)\\s+([A-Za-z_][A-Za-z0-9_]*)\\b");
+    // annotations the classpath scanner registers beans for, directly or through @Component meta-annotations
+    private static final Set<String> STEREOTYPES = Set.of(
+            "Component", "Service", "Repository", "Controller", "RestController", "Configuration",
+            "ControllerAdvice", "RestControllerAdvice", "AutoConfiguration", "SpringBootConfiguration", "SpringBootApplication",
+            "Named", "ManagedBean");
+    // type annotations known not to be stereotypes; any other annotation on a concrete class leaves the index partial
+    private static final Set<String> NON_STEREOTYPES = Set.of(
+            "Scope", "Primary", "Lazy", "Order", "Priority", "Profile", "DependsOn", "Role", "Description", "Fallback",
+            "Qualifier", "Import", "ImportResource", "ImportRuntimeHints", "PropertySource", "PropertySources", "ComponentScan",
+            "ConfigurationProperties", "ConfigurationPropertiesScan", "Validated", "Transactional", "RequestMapping",
+            "ResponseBody", "ResponseStatus", "CrossOrigin", "Deprecated", "SuppressWarnings", "FunctionalInterface",
+            "Generated", "Data", "Getter", "Setter", "Value", "Builder", "SuperBuilder", "ToString", "EqualsAndHashCode",
+            "NoArgsConstructor", "AllArgsConstructor", "RequiredArgsConstructor", "Slf4j", "Log", "Log4j2", "CommonsLog",
+            "Entity", "Table", "Embeddable", "MappedSuperclass");
+    private static final List<String> NON_STEREOTYPE_PREFIXES = List.of("Conditional", "Enable", "Json");
+    // files of one directory handed to a single fork-join task
+    private static final int FILES_PER_TASK = 64;
+
+    private final JavaSourceScanner scanner = new JavaSourceScanner();
+    // threads reading and classifying files; 1 walks the tree sequentially on the calling thread
+    private final int parallelism;
+    // classify each file from its header only: reading stops at the type the file is named after
+    private final boolean headerOnly;
+
+    SourceGenerator() {
+        this(1, false);
+    }
+
+    SourceGenerator(int parallelism) {
+        this(parallelism, false);
+    }
+
+    SourceGenerator(int parallelism, boolean headerOnly) {
+        this.parallelism = Math.max(1, parallelism);
+        this.headerOnly = headerOnly;
+    }
 
+    /**
+     * Scans {@code srcRoot} and imports its sources through the Filer: {@link #scanSources} followed by
+     * {@link #writeSources}, as the processor runs them. Only paths are kept between the two steps.
+     */
     public ScanResult generateSources(Path srcRoot,
                                Set<String> configuredPackages,
                                ProcessingEnvironment processingEnv,
                                Messager messager) {
-        Set<String> beanClasses = new HashSet<>();
-        Set<String> packages = new HashSet<>();
+        ScanResult result = scanSources(srcRoot, configuredPackages, messager);
+        writeSources(result, processingEnv.getFiler(), messager);
+        return result;
+    }
+
+    /**
+     * Scans feature sources without touching the Filer, so it can run off the processor thread. The files to
+     * import are recorded in {@link ScanResult#sourceFiles()} and written later by {@link #writeSources}.
+     */
+    public ScanResult scanSources(Path srcRoot, Set<String> configuredPackages, Messager messager) {
+        ScanResult result = newResult();
 
         if (!Files.exists(srcRoot)) {
             messager.printMessage(Diagnostic.Kind.NOTE, "No src/main/java in cloned repo; scanning skipped");
-            return new ScanResult(packages, beanClasses);
+            return result;
+        }
+        if (parallelism > 1) {
+            // workers report into a buffer, replayed here: the Messager is not thread-safe
+            BufferedMessager workerMessages = new BufferedMessager();
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new DirectoryScan(srcRoot, configuredPackages, result, workerMessages));
+            } catch (UncheckedIOException e) {
+                messager.printMessage(Diagnostic.Kind.NOTE, "Failed walking sources: " + e.getCause());
+            } finally {
+                pool.shutdownNow();
+                workerMessages.replayTo(messager);
+            }
+            return result;
         }
 
         try (Stream<Path> paths = Files.walk(srcRoot)) {
             paths.filter(p -> p.toString().endsWith(".java"))
-                    .forEach(p -> handleSourceFile(p, configuredPackages, beanClasses, packages, processingEnv, messager));
+                    .forEach(p -> handleSourceFile(p, configuredPackages, result, messager));
         } catch (IOException e) {
             messager.printMessage(Diagnostic.Kind.NOTE, "Failed walking sources: " + e);
         }
-        return new ScanResult(packages, beanClasses);
+        return result;
+    }
+
+    // Must run on the processor thread: the Filer is not thread-safe
+    public void writeSources(ScanResult result, Filer filer, Messager messager) {
+        result.sourceFiles().forEach((fullyQualifiedClassName, path) -> writeGeneratedSource(filer, fullyQualifiedClassName, path, messager));
+    }
+
+    // Concurrent collections when files are scanned in parallel; source files stay sorted either way
+    private ScanResult newResult() {
+        if (parallelism > 1) {
+            return withHeaderOnlyGap(new ScanResult(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(),
+                    ConcurrentHashMap.newKeySet(), new ConcurrentSkipListMap<>(), ConcurrentHashMap.newKeySet()));
+        }
+        return withHeaderOnlyGap(new ScanResult(new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new TreeMap<>(), new HashSet<>()));
+    }
+
+    // A header-only scan never reads type bodies, so it cannot see nested bean classes
+    private ScanResult withHeaderOnlyGap(ScanResult result) {
+        if (headerOnly) result.indexGaps().add("header-only scan");
+        return result;
+    }
+
+    /**
+     * Scans one directory: subdirectories and batches of {@link #FILES_PER_TASK} files are forked, so a deep
+     * tree and a single huge package both spread over the pool. Imported files are recorded in {@code result}.
+     */
+    private final class DirectoryScan extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Path directory;
+        private final Set<String> configuredPackages;
+        private final ScanResult result;
+        private final Messager messager;
+
+        DirectoryScan(Path directory, Set<String> configuredPackages, ScanResult result, Messager messager) {
+            this.directory = directory;
+            this.configuredPackages = configuredPackages;
+            this.result = result;
+            this.messager = messager;
+        }
+
+        @Override
+        protected void compute() {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        tasks.add(new DirectoryScan(entry, configuredPackages, result, messager));
+                    } else if (entry.toString().endsWith(".java") && Files.isRegularFile(entry)) {
+                        files.add(entry);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (int from = FILES_PER_TASK; from < files.size(); from += FILES_PER_TASK) {
+                List<Path> batch = files.subList(from, Math.min(from + FILES_PER_TASK, files.size()));
+                tasks.add(ForkJoinTask.adapt(() -> scanFiles(batch)));
+            }
+            tasks.forEach(ForkJoinTask::fork);
+            scanFiles(files.subList(0, Math.min(FILES_PER_TASK, files.size())));
+            tasks.forEach(ForkJoinTask::join);
+        }
+
+        private void scanFiles(List<Path> files) {
+            for (Path file : files) {
+                handleSourceFile(file, configuredPackages, result, messager);
+            }
+        }
     }
 
-    private void handleSourceFile(Path path,
-                                  Set<String> configuredPackages,
-                                  Set<String> beanClasses,
-                                  Set<String> packages,
-                                  ProcessingEnvironment processingEnv,
-                                  Messager messager) {
+    // Records the file in result and returns the type it is imported as; null when it is skipped
+    private String handleSourceFile(Path path, Set<String> configuredPackages, ScanResult result, Messager messager) {
         try {
-            String content = Files.readString(path, StandardCharsets.UTF_8);
-            String pkg = extractGroup(PACKAGE_PATTERN, content, 1);
+            JavaSourceScanner.ParsedSource parsed;
+            try (SourceFileReader reader = SourceFileReader.open(path)) {
+                parsed = scanner.parse(reader, headerOnly ? baseName(path) : null);
+            }
+            String pkg = parsed.packageName();
             if (!configuredPackages.isEmpty() && !isPackageAllowed(pkg, configuredPackages)) {
-                return;
+                return null;
             }
+            if (parsed.types().isEmpty()) return null;
+
+            for (JavaSourceScanner.TypeDeclaration type : parsed.types()) {
+                String fullyQualifiedClassName = qualify(pkg, type.name());
+                BeanIndexEntry entry = indexEntry(fullyQualifiedClassName, type, result);
+                if (entry != null) {
+                    result.beanClasses().add(fullyQualifiedClassName);
+                    result.beanIndex().add(entry);
+                } else if ("interface".equals(type.kind()) && type.modifiers().contains("public")) {
+                    result.exposedTypes().add(fullyQualifiedClassName);
+                }
+            }
+            // static member classes are scanned as beans too (inner classes are not), under their binary names
+            for (JavaSourceScanner.TypeDeclaration type : parsed.memberTypes()) {
+                if (!type.modifiers().contains("static")) continue;
+                String binaryName = qualify(pkg, type.name().replace('.', '$'));
+                BeanIndexEntry entry = indexEntry(binaryName, type, result);
+                if (entry != null) {
+                    result.beanClasses().add(binaryName);
+                    result.beanIndex().add(entry);
+                }
+            }
+            if (pkg != null) result.packages().add(pkg);
+
+            String fullyQualifiedClassName = qualify(pkg, primaryType(path, parsed).name());
+            result.sourceFiles().put(fullyQualifiedClassName, path);
+            return fullyQualifiedClassName;
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.WARNING, "Skipping unreadable source " + path + ": " + e);
+            return null;
+        }
+    }
+
+    // The type the file is named after, which is the one the Filer must create; first type otherwise
+    private JavaSourceScanner.TypeDeclaration primaryType(Path path, JavaSourceScanner.ParsedSource parsed) {
+        String expected = baseName(path);
+        return parsed.types().stream()
+                .filter(t -> t.name().equals(expected))
+                .findFirst()
+                .orElse(parsed.types().get(0));
+    }
+
+    private String baseName(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.substring(0, fileName.length() - ".java".length());
+    }
 
-            String className = extractGroup(CLASS_PATTERN, content, 2);
-            if (className == null) return;
+    private String qualify(String pkg, String simpleName) {
+        return pkg != null ? pkg + "." + simpleName : simpleName;
+    }
+
+    // Bean candidate: concrete class or record carrying a stereotype annotation; null otherwise
+    private BeanIndexEntry indexEntry(String className, JavaSourceScanner.TypeDeclaration type, ScanResult result) {
+        if (!("class".equals(type.kind()) || "record".equals(type.kind())) || type.isAbstract()) {
+            return null;
+        }
+        String stereotype = type.annotations().keySet().stream().filter(STEREOTYPES::contains).findFirst().orElse(null);
+        if (stereotype == null) {
+            type.annotations().keySet().stream()
+                    .filter(annotation -> !isKnownNonStereotype(annotation))
+                    .findFirst()
+                    .ifPresent(annotation -> result.indexGaps().add(className + " (@" + annotation + ")"));
+            return null;
+        }
+        // a name given as a constant is left out: the runtime derives it from the class like the scanner does
+        String beanName = type.annotations().get(stereotype);
+        if (beanName != null && beanName.isBlank()) {
+            beanName = defaultBeanName(type.name());
+        }
+        String scope = type.annotations().get("Scope");
+        if (scope != null && (scope.isBlank() || "singleton".equals(scope))) {
+            scope = null;
+        }
+        boolean lazy = type.annotations().containsKey("Lazy") && !"false".equals(type.annotations().get("Lazy"));
+        return new BeanIndexEntry(className, stereotype, scope, beanName, type.annotations().containsKey("Primary"), lazy);
+    }
 
-            String fullyQualifiedClassName = (pkg != null ? pkg + "." + className : className);
-            beanClasses.add(fullyQualifiedClassName);
-            if (pkg != null) packages.add(pkg);
+    private boolean isKnownNonStereotype(String annotation) {
+        return NON_STEREOTYPES.contains(annotation) || NON_STEREOTYPE_PREFIXES.stream().anyMatch(annotation::startsWith);
+    }
 
-            writeGeneratedSource(processingEnv.getFiler(), fullyQualifiedClassName, content, messager);
-        } catch (IOException ignored) {
+    // Same rule as AnnotationBeanNameGenerator / Introspector.decapitalize; member types are named Outer.Inner
+    private String defaultBeanName(String simpleName) {
+        if (simpleName.length() > 1 && Character.isUpperCase(simpleName.charAt(1)) && Character.isUpperCase(simpleName.charAt(0))) {
+            return simpleName;
         }
+        return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1);
     }
 
-    private void writeGeneratedSource(Filer filer, String fullyQualifiedClassName, String content, Messager messager) {
-        try {
+    // Streams the file into the Filer; it is opened first, so an unreadable file creates no output
+    private void writeGeneratedSource(Filer filer, String fullyQualifiedClassName, Path path, Messager messager) {
+        try (SourceFileReader content = SourceFileReader.open(path)) {
             JavaFileObject src = filer.createSourceFile(fullyQualifiedClassName);
             try (Writer w = src.openWriter()) {
-                w.write(content);
+                content.transferTo(w);
             }
             messager.printMessage(Diagnostic.Kind.NOTE, "Created generated source for " + fullyQualifiedClassName);
         } catch (FilerException fe) {
@@ -82,18 +301,6 @@ class SourceGenerator {
         }
     }
 
-    private String extractGroup(Pattern pattern, String content, int groupIndex) {
-        Matcher m = pattern.matcher(content);
-        if (m.find()) {
-            try {
-                return m.group(groupIndex);
-            } catch (Exception ignored) {
-                return null;
-            }
-        }
-        return null;
-    }
-
     private boolean isPackageAllowed(String pkg, Set<String> configuredPackages) {
         if (pkg == null || configuredPackages.isEmpty()) {
             return false;
@@ -47,7 +47,8 @@ class YamlFeatureConfigLoader {
                 }
                 String branch = Optional.ofNullable(firstString(feature, "branch")).orElse("main");
                 Set<String> packages = readConfiguredPackages(feature);
-                requests.add(new FeatureRequest(repoUrl, branch, packages));
+                requests.add(new FeatureRequest(repoUrl, branch, packages, readCloneOptions(feature, messager), readBinaryMode(feature, messager),
+                        readBuildArgs(feature)));
             }
             return requests;
         } catch (Exception e) {
@@ -87,18 +88,66 @@ class YamlFeatureConfigLoader {
         if (pkgObj == null) {
             pkgObj = feature.get("package");
         }
+        return readStrings(pkgObj);
+    }
+
+    private CloneOptions readCloneOptions(Map<String, Object> feature, Messager messager) {
+        int depth = 0;
+        String depthValue = firstString(feature, "depth");
+        if (depthValue != null && !depthValue.isBlank()) {
+            try {
+                depth = Math.max(0, Integer.parseInt(depthValue.trim()));
+            } catch (NumberFormatException e) {
+                messager.printMessage(Diagnostic.Kind.WARNING, "Ignoring invalid depth '" + depthValue + "' for " + firstString(feature, "repo", "repository"));
+            }
+        }
+        boolean singleBranch = Boolean.parseBoolean(firstString(feature, "single-branch", "singleBranch"));
+        Object sparseObj = feature.containsKey("sparse-paths") ? feature.get("sparse-paths") : feature.get("sparsePaths");
+        return new CloneOptions(depth, singleBranch, List.copyOf(readStrings(sparseObj)));
+    }
+
+    // mode: source (default) imports the feature's sources, binary only builds its jar and descriptor
+    private boolean readBinaryMode(Map<String, Object> feature, Messager messager) {
+        String mode = firstString(feature, "mode");
+        if (mode == null || mode.isBlank() || "source".equalsIgnoreCase(mode.trim())) {
+            return false;
+        }
+        if ("binary".equalsIgnoreCase(mode.trim())) {
+            return true;
+        }
+        messager.printMessage(Diagnostic.Kind.WARNING, "Ignoring invalid mode '" + mode + "' for " + firstString(feature, "repo", "repository"));
+        return false;
+    }
+
+    // a list keeps each entry as one argument (order and repeats included), a string is split on whitespace
+    private List<String> readBuildArgs(Map<String, Object> feature) {
+        Object args = feature.containsKey("build-args") ? feature.get("build-args") : feature.get("buildArgs");
+        if (args instanceof String str) {
+            return str.isBlank() ? List.of() : List.of(str.trim().split("\\s+"));
+        }
+        if (args instanceof List<?> list) {
+            return list.stream()
+                    .filter(Objects::nonNull)
+                    .map(Object::toString)
+                    .map(String::trim)
+                    .filter(s -> !s.isBlank())
+                    .toList();
+        }
+        return List.of();
+    }
 
-        Set<String> packages = new LinkedHashSet<>();
-        if (pkgObj instanceof String str && !str.isBlank()) {
-            packages.add(str.trim());
-        } else if (pkgObj instanceof List<?> list) {
+    private Set<String> readStrings(Object value) {
+        Set<String> values = new LinkedHashSet<>();
+        if (value instanceof String str && !str.isBlank()) {
+            values.add(str.trim());
+        } else if (value instanceof List<?> list) {
             list.stream()
                     .filter(Objects::nonNull)
                     .map(Object::toString)
                     .map(String::trim)
                     .filter(s -> !s.isBlank())
-                    .forEach(packages::add);
+                    .forEach(values::add);
         }
-        return packages;
+        return values;
     }
 }
@@ -0,0 +1,150 @@
+package com.aajumaharjan.pluginloader;
+
+import com.aajumaharjan.pluginloader.metrics.InvocationMetrics;
+import com.aajumaharjan.pluginloader.metrics.InvocationStats;
+import com.acme.greeting.GreetingApi;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureBridgeTest {
+
+    interface Calculator {
+        int add(int a, int b);
+
+        void reset();
+
+        default String describe() {
+            return "calculator";
+        }
+    }
+
+    static class SimpleCalculator implements Calculator {
+        int resets;
+
+        @Override
+        public int add(int a, int b) {
+            if (a < 0) throw new IllegalArgumentException("negative");
+            return a + b;
+        }
+
+        @Override
+        public void reset() {
+            resets++;
+        }
+
+        @Override
+        public String toString() {
+            return "simple";
+        }
+    }
+
+    @Test
+    void invokeDispatchesToTarget() {
+        SimpleCalculator target = new SimpleCalculator();
+        Calculator proxy = (Calculator) FeatureBridge.newProxy(Calculator.class, target, getClass().getClassLoader());
+
+        assertEquals(5, proxy.add(2, 3));
+        proxy.reset();
+        assertEquals(1, target.resets);
+        assertEquals("calculator", proxy.describe());
+        assertEquals("simple", proxy.toString());
+        assertEquals(target.hashCode(), proxy.hashCode());
+    }
+
+    @Test
+    void invokePropagatesFeatureExceptionsUnwrapped() {
+        Calculator proxy = (Calculator) FeatureBridge.newProxy(Calculator.class, new SimpleCalculator(), getClass().getClassLoader());
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> proxy.add(-1, 1));
+        assertEquals("negative", ex.getMessage());
+    }
+
+    @Test
+    void invokeAcrossClassLoadersBoundary() throws Exception {
+        Path jar = TestSupport.jarOfPackage(Files.createTempDirectory("feature").resolve("greeting.jar"), "com.acme.greeting");
+        try (FeatureClassLoader loader = new FeatureClassLoader("Greeting", jar.toUri().toURL(), getClass().getClassLoader(), List.of())) {
+            Class<?> isolatedImpl = loader.loadClass("com.acme.greeting.GreetingService");
+            var constructor = isolatedImpl.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            Object isolatedTarget = constructor.newInstance();
+            assertFalse(isolatedTarget instanceof GreetingApi);
+
+            GreetingApi proxy = (GreetingApi) FeatureBridge.newProxy(GreetingApi.class, isolatedTarget, getClass().getClassLoader());
+            assertEquals("Hello Zoe", proxy.greet("Zoe"));
+        }
+    }
+
+    @Test
+    void invokeRecordsInvocationStats() {
+        Map<Method, InvocationStats> slots = new InvocationMetrics().register("Calc", Calculator.class);
+        FeatureBridge bridge = new FeatureBridge(Calculator.class, new SimpleCalculator(), slots);
+        Calculator proxy = (Calculator) FeatureBridge.newProxy(Calculator.class, bridge, getClass().getClassLoader());
+
+        proxy.add(1, 2);
+        assertThrows(IllegalArgumentException.class, () -> proxy.add(-1, 2));
+        proxy.toString();
+
+        InvocationStats add = slots.values().stream().filter(s -> s.getMethod().equals("add(int,int)")).findFirst().orElseThrow();
+        assertEquals(2, add.getCalls().sum());
+        assertEquals(1, add.getErrors().sum());
+        assertEquals(3, slots.size(), "add, reset and describe; Object methods are not instrumented");
+    }
+
+    @Test
+    void invokeLazyActivatesOnFirstCallAndRetriesFailures() {
+        AtomicInteger activations = new AtomicInteger();
+        FeatureBridge bridge = new FeatureBridge(Calculator.class, () -> {
+            if (activations.incrementAndGet() == 1) throw new IllegalStateException("not ready");
+            return new SimpleCalculator();
+        });
+        Calculator proxy = (Calculator) FeatureBridge.newProxy(Calculator.class, bridge, getClass().getClassLoader());
+
+        assertThrows(IllegalStateException.class, () -> proxy.add(1, 2));
+        assertEquals(3, proxy.add(1, 2));
+        assertEquals(4, proxy.add(2, 2));
+        assertEquals(2, activations.get());
+    }
+
+    @Test
+    void retargetDrainsCallsOnRetiredBinding() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Calculator blocking = new SimpleCalculator() {
+            @Override
+            public int add(int a, int b) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return -1;
+            }
+        };
+        FeatureBridge bridge = new FeatureBridge(Calculator.class, blocking);
+        Calculator proxy = (Calculator) FeatureBridge.newProxy(Calculator.class, bridge, getClass().getClassLoader());
+        Thread caller = new Thread(() -> proxy.add(1, 1));
+        caller.start();
+        entered.await();
+
+        FeatureBridge.Binding retired = bridge.retarget(new SimpleCalculator());
+        assertFalse(FeatureBridge.awaitDrained(retired, Duration.ofMillis(20)));
+        assertEquals(5, proxy.add(2, 3));
+
+        release.countDown();
+        assertTrue(FeatureBridge.awaitDrained(retired, Duration.ofSeconds(5)));
+        caller.join();
+
+        bridge.retarget(null);
+        assertThrows(IllegalStateException.class, () -> proxy.add(1, 1));
+    }
+}
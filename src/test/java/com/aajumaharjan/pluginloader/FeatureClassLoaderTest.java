@@ -0,0 +1,50 @@
+package com.aajumaharjan.pluginloader;
+
+import com.acme.greeting.GreetingApi;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureClassLoaderTest {
+
+    @Test
+    void loadClassChildFirstValid() throws Exception {
+        Path jar = TestSupport.jarOfPackage(Files.createTempDirectory("feature").resolve("greeting.jar"), "com.acme.greeting");
+        try (FeatureClassLoader loader = new FeatureClassLoader("Greeting", jar.toUri().toURL(), getClass().getClassLoader(), List.of())) {
+            Class<?> isolated = loader.loadClass("com.acme.greeting.GreetingApi");
+            assertNotSame(GreetingApi.class, isolated);
+            assertSame(loader, isolated.getClassLoader());
+            assertSame(String.class, loader.loadClass("java.lang.String"));
+            assertSame(Test.class, loader.loadClass(Test.class.getName()));
+        }
+    }
+
+    @Test
+    void sharedPackagesAreParentFirst() throws Exception {
+        Path jar = TestSupport.jarOfPackage(Files.createTempDirectory("feature").resolve("greeting.jar"), "com.acme.greeting");
+        try (FeatureClassLoader loader = new FeatureClassLoader("Greeting", jar.toUri().toURL(), getClass().getClassLoader(), List.of("com.acme.greeting"))) {
+            assertSame(GreetingApi.class, loader.loadClass("com.acme.greeting.GreetingApi"));
+            assertTrue(loader.isParentFirst("com.acme.greeting"));
+            assertFalse(loader.isParentFirst("com.acme.greetings.Other"));
+        }
+    }
+
+    @Test
+    void resourcesConfinedToJarBoundary() throws Exception {
+        Path jar = TestSupport.jarOfPackage(Files.createTempDirectory("feature").resolve("greeting.jar"), "com.acme.greeting");
+        try (FeatureClassLoader loader = new FeatureClassLoader("Greeting", jar.toUri().toURL(), getClass().getClassLoader(), List.of())) {
+            List<URL> dirs = Collections.list(loader.getResources("com/acme/greeting/"));
+            assertEquals(1, dirs.size());
+            assertTrue(dirs.get(0).toString().startsWith("jar:"));
+            // not in the jar: falls through to the parent
+            assertFalse(Collections.list(loader.getResources("com/acme/broken/")).isEmpty());
+            assertThrows(ClassNotFoundException.class, () -> loader.loadClass("com.acme.Missing"));
+        }
+    }
+}
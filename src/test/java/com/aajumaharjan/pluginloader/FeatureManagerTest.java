@@ -0,0 +1,435 @@
+package com.aajumaharjan.pluginloader;
+
+import com.aajumaharjan.pluginloader.config.PluginLoaderProperties;
+import com.aajumaharjan.pluginloader.metrics.FeatureStartupReport;
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
+import com.aajumaharjan.pluginloader.model.BinaryDescriptor;
+import com.aajumaharjan.pluginloader.model.DescriptorIndexEntry;
+import com.aajumaharjan.pluginloader.model.FeatureConfig;
+import com.acme.greeting.GreetingApi;
+import com.acme.indexed.DependentService;
+import com.acme.indexed.ScopedCounter;
+import com.acme.indexed.Ticket;
+import com.acme.slow.SlowApi;
+import com.acme.slow.SlowService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeatureManagerTest {
+    private final GenericApplicationContext parent = new GenericApplicationContext();
+    private FeatureManager manager;
+
+    @AfterEach
+    void close() {
+        if (manager != null) {
+            manager.onApplicationEvent(new ContextClosedEvent(parent));
+        }
+        parent.close();
+    }
+
+    @Test
+    void initializeExposesInterfaceBeans() {
+        manager = new FeatureManager(properties(1, feature("file:///repos/greeting.git")));
+        manager.initialize(parent);
+        parent.refresh();
+
+        GreetingApi api = parent.getBean(GreetingApi.class);
+        assertEquals("Hello Bob", api.greet("Bob"));
+        assertInstanceOf(StaticBridge.class, api, "generated bridge from generated.GreetingBridges");
+    }
+
+    @Test
+    void checkNotNativeImageFailsFastInNativeImage() {
+        assertDoesNotThrow(() -> FeatureManager.checkNotNativeImage(false));
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> FeatureManager.checkNotNativeImage(true));
+        assertTrue(e.getMessage().contains("not supported in a native image"));
+    }
+
+    @Test
+    void initializeParallelIsolatesFailures() {
+        manager = new FeatureManager(properties(4,
+                feature("file:///repos/broken.git"),
+                feature("file:///repos/greeting.git"),
+                feature("file:///repos/missing.git")));
+        manager.initialize(parent);
+        parent.refresh();
+
+        assertEquals("Hello Ann", parent.getBean(GreetingApi.class).greet("Ann"));
+        assertArrayEquals(new String[]{"greetingApi"}, parent.getBeanNamesForType(GreetingApi.class));
+    }
+
+    @Test
+    void initializeParallelInterruptedStopsWithoutFailures() throws Exception {
+        SlowService.entered = new CountDownLatch(1);
+        SlowService.release = new CountDownLatch(1);
+        manager = new FeatureManager(properties(2, feature("file:///repos/slow.git"), feature("file:///repos/greeting.git")));
+        Thread startup = Thread.currentThread();
+        CompletableFuture<Void> interrupter = CompletableFuture.runAsync(() -> {
+            try {
+                if (SlowService.entered.await(10, TimeUnit.SECONDS)) startup.interrupt();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            // the parent is not refreshed yet: preparation runs on the pool while this thread waits for Slow
+            manager.initialize(parent);
+            assertTrue(Thread.interrupted(), "the interrupt is restored");
+        } finally {
+            SlowService.release.countDown();
+        }
+        interrupter.get(10, TimeUnit.SECONDS);
+        // the cancelled refresh of Slow unwinds on its pool thread
+        Thread.sleep(300);
+
+        assertTrue(manager.getLoadedFeatures().isEmpty());
+        assertEquals(0, parent.getBeanFactory().getBeanNamesForType(GreetingApi.class).length);
+        manager.getStartupReport().getFeatures()
+                .forEach(f -> assertEquals(0, f.getFailures().get(), f.getRepository() + " was not attempted to the end"));
+    }
+
+    @Test
+    void initializeRecordsStartupReport() {
+        manager = new FeatureManager(properties(1,
+                feature("file:///repos/greeting.git"),
+                feature("file:///repos/broken.git")));
+        manager.initialize(parent);
+        parent.refresh();
+
+        FeatureStartupReport report = manager.getStartupReport();
+        assertTrue(report.getStartupNanos() > 0);
+        assertEquals(List.of("Greeting", "Broken"), report.getFeatures().stream().map(FeatureStartupReport.FeatureMetrics::getName).toList());
+        FeatureStartupReport.FeatureMetrics greeting = report.getFeatures().get(0);
+        assertTrue(greeting.getNanos(FeatureStartupReport.Phase.REFRESH) > 0);
+        assertEquals(1, greeting.getBeansRegistered().get());
+        assertEquals(1, greeting.getExposedBeans().get());
+        assertEquals(0, greeting.getFailures().get());
+        FeatureStartupReport.FeatureMetrics broken = report.getFeatures().get(1);
+        assertEquals(1, broken.getFailures().get());
+        assertNotNull(broken.getLastError());
+    }
+
+    @Test
+    void initializeIsolatedLoadsFromJarPath() throws Exception {
+        TestSupport.jarOfPackage(Path.of("target/test-features/isolated-greeting.jar"), "com.acme.greeting");
+        FeatureConfig isolated = feature("file:///repos/isolated-greeting.git");
+        isolated.setIsolated(true);
+        manager = new FeatureManager(properties(1, isolated));
+        manager.initialize(parent);
+        parent.refresh();
+
+        GreetingApi api = parent.getBean(GreetingApi.class);
+        assertEquals("Hello Eve", api.greet("Eve"));
+        assertTrue(Proxy.isProxyClass(api.getClass()), "no generated bridge for this feature");
+    }
+
+    @Test
+    void initializeBinaryLoadsFromJarWithoutHostFallback() throws Exception {
+        TestSupport.jarOfPackage(Path.of("target/test-features/isolated-greeting.jar"), "com.acme.greeting");
+        FeatureConfig binary = feature("file:///repos/isolated-greeting.git");
+        binary.setMode("binary");
+        // no JAR_PATH: an isolated feature would fall back to the host classloader, a binary one must not
+        FeatureConfig withoutJar = feature("file:///repos/greeting.git");
+        withoutJar.setMode("binary");
+        manager = new FeatureManager(properties(1, withoutJar, binary));
+        manager.initialize(parent);
+        parent.refresh();
+
+        GreetingApi api = parent.getBean(GreetingApi.class);
+        assertEquals("Hello Eve", api.greet("Eve"));
+        assertTrue(Proxy.isProxyClass(api.getClass()), "loaded from the jar, not the host's generated bridge");
+        assertEquals(List.of("Isolatedgreeting"), List.copyOf(manager.getLoadedFeatures()));
+        FeatureStartupReport.FeatureMetrics failed = manager.getStartupReport().getFeatures().get(0);
+        assertEquals(1, failed.getFailures().get());
+        assertTrue(failed.getLastError().contains("no JAR_PATH"));
+    }
+
+    @Test
+    void initializeFeaturesWithoutRepositoryByPackages() throws Exception {
+        TestSupport.jarOfPackage(Path.of("target/test-features/isolated-greeting.jar"), "com.acme.greeting");
+        FeatureConfig shared = packagesOnly("com.acme.greeting");
+        FeatureConfig isolated = packagesOnly("com.acme.isolatedgreeting");
+        isolated.setIsolated(true);
+        manager = new FeatureManager(properties(1, shared, isolated));
+        manager.initialize(parent);
+        parent.refresh();
+
+        // keys, descriptor candidates and the isolated loader's name come from the packages
+        assertEquals(List.of("Greeting", "Isolatedgreeting"), List.copyOf(manager.getLoadedFeatures()));
+        assertEquals(2, parent.getBeanNamesForType(GreetingApi.class).length);
+        for (GreetingApi api : parent.getBeansOfType(GreetingApi.class).values()) {
+            assertEquals("Hello Ann", api.greet("Ann"));
+        }
+        assertTrue(manager.unload("Isolatedgreeting"));
+    }
+
+    @Test
+    void initializeParallelReportsFeaturesWithoutRepository() {
+        manager = new FeatureManager(properties(2, packagesOnly("com.acme.broken"), packagesOnly("com.acme.greeting")));
+        manager.initialize(parent);
+        parent.refresh();
+
+        assertEquals("Hello Ann", parent.getBean(GreetingApi.class).greet("Ann"));
+        Map<String, FeatureStartupReport.FeatureMetrics> byRepository = new HashMap<>();
+        manager.getStartupReport().getFeatures().forEach(f -> byRepository.put(f.getRepository(), f));
+        assertEquals(Set.of("packages:com.acme.broken", "packages:com.acme.greeting"), byRepository.keySet());
+        assertEquals(1, byRepository.get("packages:com.acme.broken").getFailures().get());
+        assertEquals(0, byRepository.get("packages:com.acme.greeting").getFailures().get());
+    }
+
+    @Test
+    void reloadSwapsIsolatedFeatureBehindExistingProxy() throws Exception {
+        TestSupport.jarOfPackage(Path.of("target/test-features/isolated-greeting.jar"), "com.acme.greeting");
+        FeatureConfig isolated = feature("file:///repos/isolated-greeting.git");
+        isolated.setIsolated(true);
+        manager = new FeatureManager(properties(1, isolated));
+        manager.initialize(parent);
+        parent.refresh();
+        GreetingApi api = parent.getBean(GreetingApi.class);
+        assertEquals("Hello Eve", api.greet("Eve"));
+
+        Path hiJar = TestSupport.compiledJar(Files.createTempDirectory("reload").resolve("greeting-hi.jar"),
+                "com.acme.greeting.GreetingService", """
+                        package com.acme.greeting;
+
+                        @org.springframework.stereotype.Service
+                        class GreetingService implements GreetingApi {
+                            public String greet(String name) {
+                                return "Hi " + name;
+                            }
+                        }
+                        """);
+        assertTrue(manager.reload("file:///repos/isolated-greeting.git", hiJar));
+
+        assertEquals("Hi Eve", api.greet("Eve"));
+        assertSame(api, parent.getBean(GreetingApi.class));
+        assertFalse(manager.reload("file:///repos/unknown.git"));
+    }
+
+    @Test
+    void unloadDetachesExposedProxies() {
+        manager = new FeatureManager(properties(1, feature("file:///repos/greeting.git")));
+        manager.initialize(parent);
+        parent.refresh();
+        GreetingApi api = parent.getBean(GreetingApi.class);
+
+        assertTrue(manager.unload("Greeting"));
+
+        assertThrows(IllegalStateException.class, () -> api.greet("Bob"));
+        assertEquals(0, parent.getBeanNamesForType(GreetingApi.class).length);
+        assertTrue(manager.getLoadedFeatures().isEmpty());
+        assertFalse(manager.unload("Greeting"));
+    }
+
+    @Test
+    void onApplicationEventIgnoresFeatureContextClose() {
+        manager = new FeatureManager(properties(1, feature("file:///repos/greeting.git")));
+        manager.initialize(parent);
+        parent.refresh();
+
+        manager.onApplicationEvent(new ContextClosedEvent(new GenericApplicationContext()));
+
+        assertEquals(List.of("Greeting"), List.copyOf(manager.getLoadedFeatures()));
+        assertEquals("Hello Bob", parent.getBean(GreetingApi.class).greet("Bob"));
+    }
+
+    @Test
+    void initializeLazyActivatesOnFirstCall() throws Exception {
+        FeatureConfig lazy = feature("file:///repos/greeting.git");
+        lazy.setLazy(true);
+        manager = new FeatureManager(properties(1, lazy));
+        manager.initialize(parent);
+        parent.refresh();
+        GreetingApi api = parent.getBean(GreetingApi.class);
+        assertNull(featureContext("Greeting"), "context is not built before the first call");
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                calls.add(pool.submit(() -> api.greet("Amy")));
+            }
+            for (Future<String> call : calls) {
+                assertEquals("Hello Amy", call.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Object context = featureContext("Greeting");
+        assertNotNull(context);
+        api.greet("Amy");
+        assertSame(context, featureContext("Greeting"));
+    }
+
+    @Test
+    void activateLazyDoesNotBlockOtherFeatures() throws Exception {
+        FeatureConfig lazy = feature("file:///repos/slow.git");
+        lazy.setLazy(true);
+        manager = new FeatureManager(properties(1, lazy, feature("file:///repos/greeting.git")));
+        manager.initialize(parent);
+        parent.refresh();
+        SlowApi api = parent.getBean(SlowApi.class);
+
+        SlowService.entered = new CountDownLatch(1);
+        SlowService.release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = pool.submit(api::ping);
+            Future<String> second = pool.submit(api::ping);
+            assertTrue(SlowService.entered.await(10, TimeUnit.SECONDS), "activation started");
+
+            // the refresh of Slow is still running: the lifecycle of other features goes on
+            assertEquals(Set.of("Slow", "Greeting"), CompletableFuture.supplyAsync(manager::getLoadedFeatures).get(5, TimeUnit.SECONDS));
+            assertTrue(CompletableFuture.supplyAsync(() -> manager.unload("Greeting")).get(5, TimeUnit.SECONDS));
+            assertFalse(second.isDone(), "a concurrent caller waits for the same activation");
+
+            SlowService.release.countDown();
+            assertEquals("pong", first.get(10, TimeUnit.SECONDS));
+            assertEquals("pong", second.get(10, TimeUnit.SECONDS));
+        } finally {
+            SlowService.release.countDown();
+            pool.shutdownNow();
+        }
+        assertNotNull(featureContext("Slow"));
+        assertEquals(Set.of("Slow"), manager.getLoadedFeatures());
+    }
+
+    @Test
+    void initializeRegistersIndexedBeansLikeTheScanner() throws Exception {
+        manager = new FeatureManager(properties(1, feature("file:///repos/indexed.git")));
+        manager.initialize(parent);
+        parent.refresh();
+
+        GenericApplicationContext child = (GenericApplicationContext) featureContext("Indexed");
+        assertTrue(child.containsBean("indexedBeans.Nested"), "nested static component");
+        assertFalse(child.containsBean("unindexedService"), "registered from the index, not by scanning");
+
+        // @Scope(proxyMode = TARGET_CLASS): a scoped proxy in front of a prototype target
+        assertTrue(child.containsBean("scopedTarget.scopedCounter"));
+        ScopedCounter counter = child.getBean("scopedCounter", ScopedCounter.class);
+        assertTrue(AopUtils.isAopProxy(counter));
+        assertEquals(1, counter.increment());
+        assertEquals(1, counter.increment(), "every call reaches a new prototype");
+
+        // named by a constant: not in the index, resolved from the annotation at registration
+        BeanDefinition dependent = child.getBeanDefinition(DependentService.NAME);
+        assertArrayEquals(new String[]{"indexedBeans.Nested"}, dependent.getDependsOn());
+        assertEquals(BeanDefinition.ROLE_SUPPORT, dependent.getRole());
+        assertEquals("depends on the nested component", dependent.getDescription());
+
+        BeanDefinition clock = child.getBeanDefinition("primaryClock");
+        assertTrue(clock.isPrimary());
+        assertTrue(clock.isLazyInit());
+        assertTrue(child.getBeanDefinition("ticket").isPrototype());
+        assertNotSame(child.getBean(Ticket.class), child.getBean(Ticket.class));
+    }
+
+    @Test
+    void initializeBoundaryNoFeatures() {
+        manager = new FeatureManager(properties(8));
+        manager.initialize(parent);
+        parent.refresh();
+        assertEquals(0, parent.getBeanNamesForType(GreetingApi.class).length);
+    }
+
+    @Test
+    void readDescriptorIndexedExactMatch() throws Exception {
+        assertNull(FeatureManager.readDescriptorIndex(getClass().getClassLoader()), "no index on the test classpath");
+
+        Path root = Files.createTempDirectory("descriptor-index");
+        Path index = root.resolve("META-INF/pluginloader/descriptors.idx");
+        Files.createDirectories(index.getParent());
+        Files.writeString(index, "# comment\ngenerated.GreetingDescriptor|file:///repos/hello.git\nnot an entry\n"
+                + "generated.MissingDescriptor|file:///repos/gone.git\n");
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{root.toUri().toURL()}, getClass().getClassLoader())) {
+            Map<String, String> descriptorIndex = FeatureManager.readDescriptorIndex(loader);
+            assertEquals(Map.of("file:///repos/hello.git", "generated.GreetingDescriptor",
+                    "file:///repos/gone.git", "generated.MissingDescriptor"), descriptorIndex);
+
+            FeatureManager.DescriptorInfo descriptor = FeatureManager.readDescriptor(feature("file:///repos/hello.git"), loader, descriptorIndex).orElseThrow();
+            assertEquals("Greeting", descriptor.name);
+            assertEquals(List.of("com.acme.greeting"), descriptor.packages);
+            // not indexed: falls back to the conventional generated.GreetingDescriptor
+            assertEquals("Greeting", FeatureManager.readDescriptor(feature("file:///repos/greeting.git"), loader, descriptorIndex).orElseThrow().name);
+            assertTrue(FeatureManager.readDescriptor(feature("file:///repos/unknown.git"), loader, descriptorIndex).isEmpty());
+            assertTrue(FeatureManager.readDescriptor(feature("file:///repos/gone.git"), loader, descriptorIndex).isEmpty());
+        }
+        // without an index the conventional name is used
+        assertTrue(FeatureManager.readDescriptor(feature("file:///repos/greeting.git"), getClass().getClassLoader(), null).isPresent());
+    }
+
+    @Test
+    void readDescriptorBinaryResource() throws Exception {
+        Path root = Files.createTempDirectory("binary-descriptor");
+        Path resource = root.resolve(BinaryDescriptor.resourceName("generated.HelloDescriptor"));
+        Files.createDirectories(resource.getParent());
+        Files.write(resource, new BinaryDescriptor("Hello", null, null, List.of("com.acme.greeting"), List.of(),
+                List.of(GreetingApi.class.getName()),
+                List.of(new BeanIndexEntry("com.acme.greeting.GreetingService", "Service", null, "greetingService", false, false))).encode());
+        Path index = root.resolve(DescriptorIndexEntry.RESOURCE);
+        Files.writeString(index, "generated.HelloDescriptor|file:///repos/hello.git\n");
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{root.toUri().toURL()}, getClass().getClassLoader())) {
+            FeatureManager.DescriptorInfo descriptor = FeatureManager.readDescriptor(feature("file:///repos/hello.git"), loader,
+                    FeatureManager.readDescriptorIndex(loader)).orElseThrow();
+            assertEquals("Hello", descriptor.name);
+            assertEquals(BinaryDescriptor.resourceName("generated.HelloDescriptor"), descriptor.resource);
+            assertEquals(List.of(GreetingApi.class.getName()), descriptor.exposedTypes);
+            assertEquals("greetingService", descriptor.beanIndex.get(0).beanName());
+        }
+    }
+
+    private Object featureContext(String key) throws Exception {
+        Field field = FeatureManager.class.getDeclaredField("loadedFeatures");
+        field.setAccessible(true);
+        Object loaded = ((Map<?, ?>) field.get(manager)).get(key);
+        Method context = loaded.getClass().getDeclaredMethod("context");
+        context.setAccessible(true);
+        return context.invoke(loaded);
+    }
+
+    private static PluginLoaderProperties properties(int parallelism, FeatureConfig... features) {
+        PluginLoaderProperties properties = new PluginLoaderProperties();
+        properties.getStartup().setParallelism(parallelism);
+        properties.setFeatures(new ArrayList<>(List.of(features)));
+        return properties;
+    }
+
+    private static FeatureConfig packagesOnly(String... packages) {
+        FeatureConfig config = new FeatureConfig();
+        config.setPackages(List.of(packages));
+        return config;
+    }
+
+    private static FeatureConfig feature(String repository) {
+        FeatureConfig config = new FeatureConfig();
+        config.setRepository(repository);
+        config.setBranch("main");
+        return config;
+    }
+}
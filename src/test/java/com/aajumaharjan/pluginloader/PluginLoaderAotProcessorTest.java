@@ -0,0 +1,95 @@
+package com.aajumaharjan.pluginloader;
+
+import com.acme.greeting.GreetingApi;
+import generated.GreetingBridges;
+import generated.GreetingDescriptor;
+import generated.Greeting_GreetingApiBridge;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.beans.factory.aot.BeanFactoryInitializationAotContribution;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.javapoet.ClassName;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginLoaderAotProcessorTest {
+
+    @Test
+    void processAheadOfTimeRegistersDescriptorHints() {
+        DefaultListableBeanFactory beanFactory = beanFactory(new MockEnvironment()
+                .withProperty("pluginloader.enabled", "true")
+                .withProperty("pluginloader.features[0].repository", "file:///repos/greeting.git")
+                .withProperty("pluginloader.features[1].repository", "file:///repos/missing.git"));
+
+        BeanFactoryInitializationAotContribution contribution = new PluginLoaderAotProcessor().processAheadOfTime(beanFactory);
+        assertNotNull(contribution);
+        DefaultGenerationContext generationContext = new DefaultGenerationContext(
+                new ClassNameGenerator(ClassName.get(PluginLoaderAotProcessorTest.class)), new InMemoryGeneratedFiles());
+        contribution.applyTo(generationContext, null);
+        RuntimeHints hints = generationContext.getRuntimeHints();
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(GreetingDescriptor.class)
+                .withMemberCategory(MemberCategory.PUBLIC_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(GreetingBridges.class)
+                .withMemberCategory(MemberCategory.PUBLIC_FIELDS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(Greeting_GreetingApiBridge.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(GreetingApi.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void processAheadOfTimeDisabledOrWithoutFeatures() {
+        PluginLoaderAotProcessor processor = new PluginLoaderAotProcessor();
+        assertNull(processor.processAheadOfTime(beanFactory(new MockEnvironment()
+                .withProperty("pluginloader.features[0].repository", "file:///repos/greeting.git"))));
+        assertNull(processor.processAheadOfTime(beanFactory(new MockEnvironment()
+                .withProperty("pluginloader.enabled", "true"))));
+        assertNull(processor.processAheadOfTime(beanFactory(new MockEnvironment()
+                .withProperty("pluginloader.enabled", "true")
+                .withProperty("pluginloader.features[0].repository", "file:///repos/missing.git"))));
+        assertNull(processor.processAheadOfTime(new DefaultListableBeanFactory()));
+    }
+
+    @Test
+    void registerHintsProxiesOnlyUnbridgedInterfaces() {
+        FeatureManager.DescriptorInfo descriptor = new FeatureManager.DescriptorInfo();
+        descriptor.className = "generated.GreetingDescriptor";
+        descriptor.name = "Greeting";
+        descriptor.exposedTypes = List.of(GreetingApi.class.getName());
+        RuntimeHints hints = new RuntimeHints();
+
+        PluginLoaderAotProcessor.registerHints(hints, List.of(descriptor));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(GreetingApi.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(GreetingApi.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS).test(hints));
+
+        descriptor.bridges = Map.of(GreetingApi.class.getName(), Greeting_GreetingApiBridge.class.getName());
+        RuntimeHints bridged = new RuntimeHints();
+        PluginLoaderAotProcessor.registerHints(bridged, List.of(descriptor));
+        assertFalse(RuntimeHintsPredicates.proxies().forInterfaces(GreetingApi.class).test(bridged));
+    }
+
+    @Test
+    void runtimeHintsCoverObjectMethods() throws NoSuchMethodException {
+        RuntimeHints hints = new RuntimeHints();
+        new PluginLoaderRuntimeHints().registerHints(hints, getClass().getClassLoader());
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Object.class.getMethod("hashCode")).invoke().test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onMethod(Object.class.getMethod("equals", Object.class)).invoke().test(hints));
+    }
+
+    private static DefaultListableBeanFactory beanFactory(MockEnvironment environment) {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("environment", environment);
+        return beanFactory;
+    }
+}
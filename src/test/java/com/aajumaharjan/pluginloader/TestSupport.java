@@ -0,0 +1,85 @@
+package com.aajumaharjan.pluginloader;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+import javax.tools.ToolProvider;
+
+/**
+ * Test helpers for building feature jars out of compiled test fixtures.
+ */
+class TestSupport {
+
+    // Packs the compiled classes of the given package (from test-classes) into a jar, directory entries included
+    static Path jarOfPackage(Path jar, String pkg) throws IOException {
+        Path classesRoot = testClassesRoot();
+        String pkgPath = pkg.replace('.', '/');
+        Files.createDirectories(jar.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jos = new JarOutputStream(out);
+             Stream<Path> classes = Files.list(classesRoot.resolve(pkgPath))) {
+            StringBuilder dir = new StringBuilder();
+            for (String segment : pkgPath.split("/")) {
+                dir.append(segment).append('/');
+                jos.putNextEntry(new JarEntry(dir.toString()));
+                jos.closeEntry();
+            }
+            for (Path cls : classes.filter(p -> p.toString().endsWith(".class")).sorted().toList()) {
+                jos.putNextEntry(new JarEntry(pkgPath + "/" + cls.getFileName()));
+                jos.write(Files.readAllBytes(cls));
+                jos.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    // Compiles a single source against the test classpath and packs the resulting classes into a jar
+    static Path compiledJar(Path jar, String className, String source) throws IOException {
+        Path work = Files.createTempDirectory("compiled");
+        Path sourceFile = work.resolve("src").resolve(className.replace('.', '/') + ".java");
+        Path classes = work.resolve("classes");
+        Files.createDirectories(sourceFile.getParent());
+        Files.createDirectories(classes);
+        Files.writeString(sourceFile, source);
+        int exit = ToolProvider.getSystemJavaCompiler().run(null, null, null,
+                "-classpath", System.getProperty("java.class.path"), "-d", classes.toString(), sourceFile.toString());
+        if (exit != 0) {
+            throw new IllegalStateException("Compilation of " + className + " failed");
+        }
+        Files.createDirectories(jar.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jos = new JarOutputStream(out);
+             Stream<Path> files = Files.walk(classes)) {
+            for (Path cls : files.filter(p -> p.toString().endsWith(".class")).sorted().toList()) {
+                jos.putNextEntry(new JarEntry(classes.relativize(cls).toString().replace('\\', '/')));
+                jos.write(Files.readAllBytes(cls));
+                jos.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    static List<String> classNamesIn(Path jar) throws IOException {
+        try (var jarFile = new java.util.jar.JarFile(jar.toFile())) {
+            return jarFile.stream()
+                    .map(JarEntry::getName)
+                    .filter(n -> n.endsWith(".class"))
+                    .map(n -> n.substring(0, n.length() - ".class".length()).replace('/', '.'))
+                    .toList();
+        }
+    }
+
+    private static Path testClassesRoot() {
+        try {
+            return Path.of(TestSupport.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.aajumaharjan.pluginloader.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvocationStatsTest {
+
+    @Test
+    void bucketOfBoundaryValues() {
+        assertEquals(0, InvocationStats.bucketOf(-5));
+        assertEquals(15, InvocationStats.bucketOf(15));
+        assertEquals(16, InvocationStats.bucketOf(16));
+        assertEquals(InvocationStats.BUCKETS - 1, InvocationStats.bucketOf(Long.MAX_VALUE));
+        for (long value : new long[]{16, 17, 31, 32, 1_000, 999_999, 1L << 40, (1L << 41) - 1}) {
+            int bucket = InvocationStats.bucketOf(value);
+            assertTrue(InvocationStats.upperBoundOf(bucket) >= value, "upper bound of " + value);
+            assertTrue(bucket == 0 || InvocationStats.upperBoundOf(bucket - 1) < value, "previous bucket of " + value);
+            assertTrue(InvocationStats.upperBoundOf(bucket) <= value + value / 8, "relative error of " + value);
+        }
+    }
+
+    @Test
+    void percentileNanosValidAndEmpty() {
+        InvocationStats stats = new InvocationStats("Greeting", "com.acme.GreetingApi", "greet(String)");
+        assertEquals(0, stats.percentileNanos(0.99));
+
+        for (int i = 0; i < 99; i++) {
+            stats.record(TimeUnit.MICROSECONDS.toNanos(10));
+        }
+        stats.record(TimeUnit.MILLISECONDS.toNanos(5));
+        stats.recordError();
+
+        assertEquals(100, stats.getCalls().sum());
+        assertEquals(1, stats.getErrors().sum());
+        long p50 = stats.percentileNanos(0.5);
+        assertTrue(p50 >= 10_000 && p50 <= 11_250, "p50 " + p50);
+        assertEquals(p50, stats.percentileNanos(0.99));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), stats.percentileNanos(1.0));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), stats.getMaxNanos().get());
+    }
+}
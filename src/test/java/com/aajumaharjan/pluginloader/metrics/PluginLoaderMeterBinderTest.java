@@ -0,0 +1,55 @@
+package com.aajumaharjan.pluginloader.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginLoaderMeterBinderTest {
+
+    @Test
+    void bindToPublishesRecordedAndLaterFeatures() {
+        FeatureStartupReport report = new FeatureStartupReport();
+        FeatureStartupReport.FeatureMetrics greeting = report.feature("Greeting", "file:///repos/greeting.git");
+        greeting.record(FeatureStartupReport.Phase.REFRESH, TimeUnit.MILLISECONDS.toNanos(40));
+        greeting.getBeansRegistered().set(3);
+        report.setStartupNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        InvocationMetrics invocations = new InvocationMetrics();
+        new PluginLoaderMeterBinder(report, invocations).bindTo(registry);
+        invocations.register("Greeting", Runnable.class).values().forEach(stats -> stats.record(TimeUnit.MILLISECONDS.toNanos(2)));
+        report.feature("Billing", "file:///repos/billing.git").failed(new IllegalStateException("boom"));
+
+        assertEquals(40, registry.get("pluginloader.feature.phase").tags("feature", "Greeting", "phase", "refresh")
+                .timeGauge().value(TimeUnit.MILLISECONDS));
+        assertEquals(3, registry.get("pluginloader.feature.beans").tag("feature", "Greeting").gauge().value());
+        assertEquals(1, registry.get("pluginloader.feature.failures").tag("feature", "Billing").functionCounter().count());
+        assertEquals(1, registry.get("pluginloader.invocations").tags("feature", "Greeting", "method", "run()").functionTimer().count());
+        assertEquals(50, registry.get("pluginloader.startup").timeGauge().value(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void bindToKeepsFeaturesWithTheSameNameApart() {
+        FeatureStartupReport report = new FeatureStartupReport();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new PluginLoaderMeterBinder(report, new InvocationMetrics()).bindTo(registry);
+
+        report.feature("Greeting", "file:///repos/a/greeting.git").getBeansRegistered().set(1);
+        report.feature("Greeting", "file:///repos/b/greeting.git").getBeansRegistered().set(2);
+
+        assertEquals(2, registry.get("pluginloader.feature.beans").tag("feature", "Greeting").gauges().size());
+        assertEquals(2, registry.get("pluginloader.feature.beans").tag("repository", "file:///repos/b/greeting.git").gauge().value());
+    }
+
+    @Test
+    void toMapBoundaryEmptyReport() {
+        Map<String, Object> map = new FeatureStartupReport().toMap();
+        assertEquals(0L, map.get("startupMillis"));
+        assertEquals(List.of(), map.get("features"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BridgeGeneratorTest {
+
+    @Test
+    void writeBridgesGeneratesCompilableDelegates() throws Exception {
+        Path work = Files.createTempDirectory("bridges");
+        Path api = work.resolve("src/demo/api");
+        Files.createDirectories(api);
+        Files.writeString(api.resolve("Calculator.java"), """
+                package demo.api;
+
+                import java.io.IOException;
+                import java.util.List;
+
+                public interface Calculator<T extends Number> extends AutoCloseable {
+                    int add(int a, int b);
+
+                    T identity(T value) throws IOException;
+
+                    <R> List<R> wrap(R value);
+
+                    void log(String... parts);
+
+                    default String describe() {
+                        return "calculator";
+                    }
+
+                    static Calculator<Integer> none() {
+                        return null;
+                    }
+                }
+                """);
+        Files.writeString(api.resolve("Internal.java"), """
+                package demo.api;
+
+                interface Internal {
+                    void run();
+                }
+                """);
+        Files.writeString(api.resolve("Clock.java"), """
+                package demo.api;
+
+                public interface Clock {
+                    long start(int lap);
+                }
+                """);
+        Path generated = Files.createDirectories(work.resolve("generated-sources"));
+        Path classes = Files.createDirectories(work.resolve("classes"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    List.of("-classpath", System.getProperty("java.class.path"), "-d", classes.toString(), "-s", generated.toString()),
+                    null, fileManager.getJavaFileObjects(api.resolve("Calculator.java"), api.resolve("Internal.java"), api.resolve("Clock.java")));
+            task.setProcessors(List.of(new BridgeProcessor(Set.of("demo.api.Calculator", "demo.api.Internal", "demo.api.Clock", "demo.api.Missing"))));
+            assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+        }
+
+        String bridge = Files.readString(generated.resolve("generated/Demo_CalculatorBridge.java"));
+        assertTrue(bridge.contains("extends com.aajumaharjan.pluginloader.StaticBridge implements demo.api.Calculator {"));
+        assertTrue(bridge.contains("\"close()\", \"add(int,int)\", \"identity(Number)\", \"wrap(Object)\", \"log(String[])\", \"describe()\""), bridge);
+        assertTrue(bridge.contains("public java.lang.Number identity(java.lang.Number arg0) throws java.io.IOException {"));
+        assertFalse(bridge.contains("none()"), "static methods are not bridged");
+        assertTrue(Files.exists(classes.resolve("generated/Demo_CalculatorBridge.class")));
+        assertFalse(Files.exists(generated.resolve("generated/Demo_InternalBridge.java")), "package-private interface");
+        assertFalse(Files.exists(generated.resolve("generated/Demo_ClockBridge.java")), "start(int) clashes with StaticBridge");
+        assertTrue(Files.readString(generated.resolve("generated/DemoBridges.java"))
+                .contains("{\"demo.api.Calculator=generated.Demo_CalculatorBridge\"}"));
+    }
+
+    @SupportedAnnotationTypes("*")
+    private static class BridgeProcessor extends AbstractProcessor {
+        private final Set<String> types;
+        private boolean done;
+
+        BridgeProcessor(Set<String> types) {
+            this.types = types;
+        }
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+            if (!done) {
+                done = true;
+                new BridgeGenerator().writeBridges("Demo", types, processingEnv.getElementUtils(), processingEnv.getTypeUtils(),
+                        processingEnv.getFiler(), processingEnv.getMessager());
+            }
+            return false;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.aajumaharjan.pluginloader.processor;
 
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
+import com.aajumaharjan.pluginloader.model.BinaryDescriptor;
 import org.junit.jupiter.api.Test;
 import javax.annotation.processing.Filer;
 import javax.annotation.processing.ProcessingEnvironment;
@@ -7,8 +9,14 @@ import javax.tools.JavaFileObject;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -43,6 +51,65 @@ class DescriptorGeneratorTest {
         assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Generated generated.DemoDescriptor")));
     }
 
+    @Test
+    void writeDescriptorWritesBeanIndex() {
+        BeanIndexEntry entry = new BeanIndexEntry("com.demo.Service", "Service", null, "service", true, false);
+
+        ScanResult scan = new ScanResult(Set.of("com.demo"), Set.of("com.demo.Service"), Set.of(entry), Set.of("com.demo.Api"), Map.of());
+        generator.writeDescriptor("Indexed", scan.packages(), scan, null, processingEnv, messager);
+
+        String content = filer.getGeneratedContent("generated.IndexedDescriptor");
+        assertTrue(content.contains("EXPOSED_TYPES = new String[] {\"com.demo.Api\"}"));
+        assertTrue(content.contains("BEAN_INDEX = new String[] {\"com.demo.Service|Service||service|true|false\"}"));
+        assertEquals(entry, BeanIndexEntry.decode(entry.encode()));
+        assertThrows(IllegalArgumentException.class, () -> BeanIndexEntry.decode("com.demo.Service|Service"));
+    }
+
+    @Test
+    void writeBinaryDescriptorRoundTripsClassDescriptor() {
+        ScanResult scan = new ScanResult(Set.of("com.demo", "com.demo.web"), Set.of("com.demo.Service", "com.demo.web.Controller"),
+                Set.of(new BeanIndexEntry("com.demo.Service", "Service", null, "service", true, false),
+                        new BeanIndexEntry("com.demo.web.Controller", "RestController", "request", "controller", false, true)),
+                Set.of("com.demo.Api"), Map.of());
+        String jarPath = "target/pluginloader/features/Demo-0123456789abcdef.jar";
+        generator.writeDescriptor("Demo", scan.packages(), scan, jarPath, filer, messager);
+        generator.writeBinaryDescriptor("Demo", scan.packages(), scan, jarPath, filer, messager);
+
+        byte[] bytes = filer.getGeneratedResourceBytes("META-INF/pluginloader/generated/DemoDescriptor.pld");
+        BinaryDescriptor binary = BinaryDescriptor.decode(ByteBuffer.wrap(bytes));
+        String source = filer.getGeneratedContent("generated.DemoDescriptor");
+        assertEquals("Demo", binary.name());
+        assertEquals("0123456789abcdef", binary.jarHash());
+        assertTrue(source.contains("JAR_PATH = \"" + binary.jarPath() + "\""));
+        assertTrue(source.contains("PACKAGES = new String[] {" + quoted(binary.packages()) + "}"));
+        assertTrue(source.contains("BEAN_CLASSES = new String[] {" + quoted(binary.beanClasses()) + "}"));
+        assertTrue(source.contains("EXPOSED_TYPES = new String[] {" + quoted(binary.exposedTypes()) + "}"));
+        assertTrue(source.contains("BEAN_INDEX = new String[] {" + quoted(binary.beanIndex().stream().map(BeanIndexEntry::encode).toList()) + "}"));
+
+        // class names shared by BEAN_CLASSES and BEAN_INDEX are stored once
+        String raw = new String(bytes, StandardCharsets.ISO_8859_1);
+        assertEquals(raw.indexOf("com.demo.web.Controller"), raw.lastIndexOf("com.demo.web.Controller"));
+        assertEquals(binary, BinaryDescriptor.decode(ByteBuffer.allocateDirect(bytes.length).put(bytes).flip()));
+    }
+
+    @Test
+    void decodeBinaryDescriptorInvalidBoundary() {
+        byte[] bytes = new BinaryDescriptor("Empty", null, null, List.of(), List.of(), List.of(), List.of()).encode();
+        BinaryDescriptor empty = BinaryDescriptor.decode(ByteBuffer.wrap(bytes));
+        assertNull(empty.jarPath());
+        assertTrue(empty.beanIndex().isEmpty());
+
+        assertThrows(IllegalArgumentException.class, () -> BinaryDescriptor.decode(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 1))));
+        byte[] newer = bytes.clone();
+        newer[5] = (byte) (BinaryDescriptor.VERSION + 1);
+        assertThrows(IllegalArgumentException.class, () -> BinaryDescriptor.decode(ByteBuffer.wrap(newer)));
+        assertThrows(IllegalArgumentException.class, () -> BinaryDescriptor.decode(ByteBuffer.wrap("package generated;".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static String quoted(List<String> values) {
+        return values.stream().map(v -> "\"" + v + "\"").collect(Collectors.joining(", "));
+    }
+
     @Test
     void writeDescriptorHandlesFailure() throws IOException {
         Filer throwingFiler = new Filer() {
@@ -2,9 +2,13 @@ package com.aajumaharjan.pluginloader.processor;
 
 import org.junit.jupiter.api.Test;
 
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
+import java.util.jar.JarFile;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -53,8 +57,157 @@ class FeatureJarBuilderTest {
         assertTrue(jar.isEmpty());
     }
 
+    @Test
+    void buildAndCopyArtifactReusesCachedBuildForSameSources() throws Exception {
+        Path repo = Files.createTempDirectory("repo-cached");
+        Path fakeBin = Files.createTempDirectory("fake-mvn-cached");
+        Path builds = fakeBin.resolve("builds.log");
+        Path script = fakeBin.resolve("mvn");
+        Files.writeString(script, "#!/bin/bash\necho built >> " + builds + "\nmkdir -p target\necho jar > target/output.jar.original\nexit 0\n");
+        script.toFile().setExecutable(true);
+        FeatureJarBuilder builder = builderWithPath(fakeBin, new ArtifactCache(Files.createTempDirectory("artifact-cache")));
+
+        Path featuresDir = Path.of(System.getProperty("user.dir"), "target", "pluginloader", "features");
+        Files.createDirectories(featuresDir);
+        Path legacy = Files.writeString(featuresDir.resolve("CachedFeature-1700000000000.jar"), "old");
+
+        Optional<Path> first = builder.buildAndCopyArtifact(repo, "CachedFeature", "abc123 []", messager);
+        Optional<Path> second = builder.buildAndCopyArtifact(repo, "CachedFeature", "abc123 []", messager);
+        assertTrue(first.isPresent());
+        assertEquals(first, second);
+        assertTrue(first.get().getFileName().toString().matches("CachedFeature-[0-9a-f]{16}\\.jar"));
+        assertEquals(1, Files.readAllLines(builds).size());
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("unchanged - reusing cached artifact")));
+        assertFalse(Files.exists(legacy));
+
+        // boundary: another commit must build again
+        builder.buildAndCopyArtifact(repo, "CachedFeature", "def456 []", messager);
+        assertEquals(2, Files.readAllLines(builds).size());
+    }
+
+    @Test
+    void buildAndCopyArtifactInProcessValidAndFallback() throws Exception {
+        Path repo = Files.createTempDirectory("repo-javac");
+        TestSupport.writeJavaSource(repo.resolve("src/main/java"), "com.demo.javac", "Hello.java", """
+                package com.demo.javac;
+
+                @org.springframework.stereotype.Service
+                public class Hello {
+                    public String greet(String name) {
+                        return "Hello " + name;
+                    }
+                }
+                """);
+        Files.createDirectories(repo.resolve("src/main/resources/META-INF"));
+        Files.writeString(repo.resolve("src/main/resources/META-INF/feature.properties"), "name=hello\n");
+        Path fakeBin = Files.createTempDirectory("fake-mvn-javac");
+        Path builds = fakeBin.resolve("builds.log");
+        Files.writeString(fakeBin.resolve("mvn"), "#!/bin/bash\necho built >> " + builds + "\nmkdir -p target\necho jar > target/output.jar.original\nexit 0\n");
+        fakeBin.resolve("mvn").toFile().setExecutable(true);
+        FeatureJarBuilder builder = builderWithPath(fakeBin, null, new InProcessCompiler(InProcessCompiler.defaultClasspath()));
+
+        Optional<Path> jar = builder.buildAndCopyArtifact(repo, "JavacFeature", messager);
+        assertTrue(jar.isPresent());
+        assertFalse(Files.exists(builds), "Maven is not run");
+        try (JarFile built = new JarFile(jar.get().toFile())) {
+            assertNotNull(built.getEntry("com/demo/javac/Hello.class"));
+            assertNotNull(built.getEntry("com/demo/javac/"), "directory entries for package scans");
+            assertEquals("name=hello\n", new String(built.getInputStream(built.getEntry("META-INF/feature.properties")).readAllBytes()));
+        }
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.get().toUri().toURL()}, getClass().getClassLoader())) {
+            Class<?> hello = loader.loadClass("com.demo.javac.Hello");
+            assertEquals("Hello Bob", hello.getMethod("greet", String.class).invoke(hello.getDeclaredConstructor().newInstance(), "Bob"));
+        }
+        // same sources, same jar: the content-hashed name is stable
+        assertEquals(jar, builder.buildAndCopyArtifact(repo, "JavacFeature", messager));
+
+        // invalid: sources javac cannot compile in process go to Maven
+        TestSupport.writeJavaSource(repo.resolve("src/main/java"), "com.demo.javac", "Broken.java", "package com.demo.javac;\nclass Broken { Missing field; }\n");
+        assertTrue(builder.buildAndCopyArtifact(repo, "JavacFeature", messager).isPresent());
+        assertEquals(1, Files.readAllLines(builds).size());
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("[javac] Broken.java:2: cannot find symbol")));
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("failed - falling back to Maven")));
+    }
+
+    @Test
+    void createProcessBuilderMavenOptionsAndBuildArgs() {
+        Path repo = Path.of("repo");
+        assertEquals(List.of("mvn", "-DskipTests", "clean", "package"),
+                new FeatureJarBuilder().createProcessBuilder(repo, List.of()).command());
+
+        MavenOptions options = new MavenOptions("true", true, "1C", false, true);
+        assertEquals(List.of("mvnd", "-o", "-q", "-T", "1C", "-DskipTests", "package", "-Pfast", "-Dx=1"),
+                new FeatureJarBuilder(null, null, options).createProcessBuilder(repo, List.of("-Pfast", "-Dx=1")).command());
+        // auto only picks mvnd when it is installed
+        assertEquals(MavenOptions.onPath("mvnd") ? "mvnd" : "mvn",
+                new MavenOptions("auto", false, " ", true, false).command().get(0));
+    }
+
+    @Test
+    void buildAndCopyArtifactLogsToFileAndReportsSummary() throws Exception {
+        Path repo = Files.createTempDirectory("repo-log");
+        Path fakeBin = Files.createTempDirectory("fake-mvn-log");
+        Path script = fakeBin.resolve("mvn");
+        Files.writeString(script, "#!/bin/bash\necho \"args: $*\"\nif [ \"$4\" = \"-Pbroken\" ]; then echo \"BUILD FAILURE\"; exit 1; fi\n"
+                + "mkdir -p target\ntouch target/logged.jar\nexit 0\n");
+        script.toFile().setExecutable(true);
+        FeatureJarBuilder builder = builderWithPath(fakeBin);
+        Path log = Path.of(System.getProperty("user.dir"), "target", "pluginloader", "logs", "LoggedFeature-build.log");
+
+        assertTrue(builder.buildAndCopyArtifact(repo, "LoggedFeature", null, List.of("-Pok"), messager).isPresent());
+        assertEquals(List.of("args: -DskipTests clean package -Pok"), Files.readAllLines(log));
+        assertTrue(messager.getMessages().stream().noneMatch(m -> m.contains("[mvn]")));
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Maven build of LoggedFeature finished") && m.contains(log.toString())));
+
+        // invalid: a failed build reports where the log is and its last lines
+        assertTrue(builder.buildAndCopyArtifact(repo, "LoggedFeature", null, List.of("-Pbroken"), messager).isEmpty());
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("full log in " + log)));
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("[mvn] BUILD FAILURE")));
+    }
+
+    @Test
+    void buildAndCopyArtifactGradleWrapperPrefersPlainJar() throws Exception {
+        Path repo = Files.createTempDirectory("repo-gradle");
+        Files.writeString(repo.resolve("settings.gradle.kts"), "rootProject.name = \"app\"\n");
+        Path wrapper = repo.resolve("gradlew");
+        Files.writeString(wrapper, "#!/bin/bash\necho \"$*\" > args.txt\nmkdir -p build/libs\n"
+                + "echo boot > build/libs/app.jar\necho plain > build/libs/app-plain.jar\necho src > build/libs/app-sources.jar\n");
+        // left non-executable, as a checkout may leave it
+        FeatureJarBuilder builder = new FeatureJarBuilder(null, null, new MavenOptions("false", true, null, true, false));
+
+        Optional<Path> jar = builder.buildAndCopyArtifact(repo, "GradleFeature", null, List.of("-Pfast"), messager);
+        assertTrue(jar.isPresent());
+        assertEquals("plain", Files.readString(jar.get()).trim());
+        assertEquals("--offline assemble -x test --build-cache --configuration-cache -Dorg.gradle.configuration-cache.problems=warn -Pfast",
+                Files.readString(repo.resolve("args.txt")).trim());
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Gradle build of GradleFeature finished")));
+    }
+
+    @Test
+    void createProcessBuilderDetectsBuildTool() throws Exception {
+        Path gradle = Files.createTempDirectory("repo-gradle-plain");
+        Files.writeString(gradle.resolve("build.gradle"), "plugins { id 'java' }\n");
+        assertTrue(FeatureJarBuilder.isGradle(gradle));
+        assertEquals(List.of("gradle", "assemble", "-x", "test", "--build-cache", "--configuration-cache",
+                "-Dorg.gradle.configuration-cache.problems=warn"), new FeatureJarBuilder().createProcessBuilder(gradle, List.of()).command());
+
+        // boundary: a pom.xml wins over Gradle files, and an empty checkout is built with Maven
+        Files.writeString(gradle.resolve("pom.xml"), "<project/>");
+        assertFalse(FeatureJarBuilder.isGradle(gradle));
+        assertEquals("mvn", new FeatureJarBuilder().createProcessBuilder(gradle, List.of()).command().get(0));
+        assertFalse(FeatureJarBuilder.isGradle(Files.createTempDirectory("repo-none")));
+    }
+
     private FeatureJarBuilder builderWithPath(Path fakeBin) {
-        return new FeatureJarBuilder() {
+        return builderWithPath(fakeBin, null);
+    }
+
+    private FeatureJarBuilder builderWithPath(Path fakeBin, ArtifactCache artifactCache) {
+        return builderWithPath(fakeBin, artifactCache, null);
+    }
+
+    private FeatureJarBuilder builderWithPath(Path fakeBin, ArtifactCache artifactCache, InProcessCompiler compiler) {
+        return new FeatureJarBuilder(artifactCache, compiler) {
             @Override
             public ProcessBuilder createProcessBuilder(Path repoDir) {
                 ProcessBuilder pb = new ProcessBuilder(fakeBin.resolve("mvn").toString(), "-DskipTests", "clean", "package");
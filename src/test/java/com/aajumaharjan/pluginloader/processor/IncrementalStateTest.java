@@ -0,0 +1,158 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import org.junit.jupiter.api.Test;
+
+import javax.lang.model.element.Element;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.Writer;
+import java.lang.ref.Reference;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalStateTest {
+    private final TestSupport.RecordingMessager messager = new TestSupport.RecordingMessager();
+    private final FeatureRequest feature = new FeatureRequest("file:///repos/demo.git", "main", Set.of("com.demo"));
+
+    @Test
+    void recordSaveAndReplayValid() throws Exception {
+        Path dir = Files.createTempDirectory("incremental");
+        String fingerprint = IncrementalState.fingerprint(feature, "abc123");
+        IncrementalState state = IncrementalState.load(dir, messager);
+        state.record(feature, fingerprint, "generated.DemoDescriptor", null,
+                stash(state, Map.of("com.demo.Service", "class Service {}", "generated.DemoDescriptor", "class DemoDescriptor {}")));
+        state.save(messager);
+
+        IncrementalState reloaded = IncrementalState.load(dir, messager);
+        assertTrue(reloaded.isUpToDate(feature, fingerprint));
+        TestSupport.InMemoryFiler filer = new TestSupport.InMemoryFiler();
+        assertEquals("generated.DemoDescriptor", reloaded.replay(feature, filer, messager));
+        assertEquals("class Service {}", filer.getGeneratedContent("com.demo.Service"));
+        assertEquals("class DemoDescriptor {}", filer.getGeneratedContent("generated.DemoDescriptor"));
+
+        // replayed entries survive the next save
+        reloaded.save(messager);
+        assertTrue(IncrementalState.load(dir, messager).isUpToDate(feature, fingerprint));
+    }
+
+    @Test
+    void isUpToDateInvalidFingerprintOrMissingStash() throws Exception {
+        Path dir = Files.createTempDirectory("incremental");
+        String fingerprint = IncrementalState.fingerprint(feature, "abc123");
+        IncrementalState state = IncrementalState.load(dir, messager);
+        state.record(feature, fingerprint, "generated.DemoDescriptor", "target/pluginloader/features/missing.jar",
+                stash(state, Map.of("generated.DemoDescriptor", "class DemoDescriptor {}")));
+        state.save(messager);
+
+        IncrementalState reloaded = IncrementalState.load(dir, messager);
+        assertFalse(reloaded.isUpToDate(feature, IncrementalState.fingerprint(feature, "def456")));
+        assertFalse(reloaded.isUpToDate(feature, fingerprint), "jar referenced by JAR_PATH is gone");
+    }
+
+    @Test
+    void fingerprintCoversConfigurationBoundary() {
+        String base = IncrementalState.fingerprint(feature, "abc123");
+        assertEquals(base, IncrementalState.fingerprint(new FeatureRequest("file:///repos/demo.git", "main", Set.of("com.demo")), "abc123"));
+        assertNotEquals(base, IncrementalState.fingerprint(new FeatureRequest("file:///repos/demo.git", "dev", Set.of("com.demo")), "abc123"));
+        assertNotEquals(base, IncrementalState.fingerprint(new FeatureRequest("file:///repos/demo.git", "main", Set.of("com.demo"),
+                new CloneOptions(0, false, List.of("src/main"))), "abc123"));
+        assertEquals(base, IncrementalState.fingerprint(feature, "abc123", "class", "full"));
+        assertNotEquals(base, IncrementalState.fingerprint(feature, "abc123", "binary", "full"));
+        assertNotEquals(base, IncrementalState.fingerprint(feature, "abc123", "class", "header"));
+
+        assertEquals(base, IncrementalState.fingerprint(feature, "abc123", "class", "full", new FeatureJarBuilder().buildConfiguration()));
+        String javac = new FeatureJarBuilder(null, new InProcessCompiler("a.jar")).buildConfiguration();
+        String otherClasspath = new FeatureJarBuilder(null, new InProcessCompiler("b.jar")).buildConfiguration();
+        String offline = new FeatureJarBuilder(null, null, new MavenOptions("false", true, null, true, false)).buildConfiguration();
+        assertNotEquals(base, IncrementalState.fingerprint(feature, "abc123", "class", "full", javac));
+        assertNotEquals(IncrementalState.fingerprint(feature, "abc123", "class", "full", javac),
+                IncrementalState.fingerprint(feature, "abc123", "class", "full", otherClasspath));
+        assertNotEquals(base, IncrementalState.fingerprint(feature, "abc123", "class", "full", offline));
+    }
+
+    @Test
+    void saveDropsFeaturesNoLongerConfigured() throws Exception {
+        Path dir = Files.createTempDirectory("incremental");
+        IncrementalState state = IncrementalState.load(dir, messager);
+        state.record(feature, IncrementalState.fingerprint(feature, "abc123"), "generated.DemoDescriptor", null,
+                stash(state, Map.of("generated.DemoDescriptor", "x")));
+        state.save(messager);
+
+        IncrementalState.load(dir, messager).save(messager);
+        try (var children = Files.list(dir)) {
+            assertEquals(List.of("manifest.properties"), children.map(p -> p.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void stagingStreamsOutputsWithoutRetainingThem() throws Exception {
+        // warm-up, so class loading and pooled buffers are not counted
+        importThroughStash(Files.createTempDirectory("incremental"), 50);
+
+        long few = importThroughStash(Files.createTempDirectory("incremental"), 100);
+        long many = importThroughStash(Files.createTempDirectory("incremental"), 1000);
+        // 900 more files of 16 KB would retain about 28 MB if the copies stayed on the heap
+        assertTrue(many - few < 8 * 1024 * 1024, "heap grew by " + (many - few) + " bytes");
+    }
+
+    // Imports `files` sources through a stashing RecordingFiler and returns the heap still in use while it is reachable
+    private long importThroughStash(Path dir, int files) throws Exception {
+        Path srcRoot = Files.createTempDirectory("src");
+        String filler = "    // " + "x".repeat(96) + "\n";
+        for (int i = 0; i < files; i++) {
+            TestSupport.writeJavaSource(srcRoot, "com.demo", "Type" + i + ".java",
+                    "package com.demo;\n@Service\npublic class Type" + i + " {\n" + filler.repeat(160) + "}\n");
+        }
+        IncrementalState state = IncrementalState.load(dir, messager);
+        SourceGenerator generator = new SourceGenerator(4);
+        ScanResult result = generator.scanSources(srcRoot, Set.of("com.demo"), messager);
+
+        long before = usedHeap();
+        RecordingFiler outputs = new RecordingFiler(new DiscardingFiler(), state.staging(feature));
+        generator.writeSources(result, outputs, messager);
+        long after = usedHeap();
+        Reference.reachabilityFence(outputs);
+
+        assertEquals(files, outputs.getSources().size());
+        state.record(feature, IncrementalState.fingerprint(feature, "abc123"), "generated.DemoDescriptor", null, outputs);
+        assertEquals(Files.size(srcRoot.resolve("com/demo/Type0.java")), Files.size(dir.resolve(Digests.sha256Hex(feature.repository()).substring(0, 16)).resolve("com.demo.Type0.java")));
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private RecordingFiler stash(IncrementalState state, Map<String, String> sources) throws Exception {
+        RecordingFiler outputs = new RecordingFiler(new TestSupport.InMemoryFiler(), state.staging(feature));
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            try (Writer writer = outputs.createSourceFile(source.getKey()).openWriter()) {
+                writer.write(source.getValue());
+            }
+        }
+        return outputs;
+    }
+
+    // Compiler stand-in that drops what is written, so only the recording side can hold on to content
+    private static final class DiscardingFiler extends TestSupport.InMemoryFiler {
+        @Override
+        public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) {
+            return new SimpleJavaFileObject(URI.create("string:///" + name.toString().replace('.', '/') + JavaFileObject.Kind.SOURCE.extension), JavaFileObject.Kind.SOURCE) {
+                @Override
+                public Writer openWriter() {
+                    return Writer.nullWriter();
+                }
+            };
+        }
+    }
+}
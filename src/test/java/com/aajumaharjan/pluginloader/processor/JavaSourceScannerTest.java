@@ -0,0 +1,149 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaSourceScannerTest {
+    private final JavaSourceScanner scanner = new JavaSourceScanner();
+
+    @Test
+    void parseTopLevelTypesValid() {
+        JavaSourceScanner.ParsedSource parsed = scanner.parse("""
+                /* header with class Fake { */
+                package com.demo.orders;
+
+                import org.springframework.stereotype.Service;
+                import static java.util.Objects.requireNonNull;
+
+                @Service(value = "orders")
+                @org.springframework.context.annotation.Scope(scopeName = "prototype", proxyMode = ScopedProxyMode.NO)
+                @Lazy(false)
+                public final class OrderService implements OrderApi {
+                    private final String text = "}";
+                    private final char brace = '{';
+                    private final String block = \"""
+                        interface NotAType {
+                        \""";
+                    class Inner {}
+                }
+
+                sealed interface Shape permits Circle {}
+                non-sealed abstract class Base {}
+                record Point(int x, int y) {}
+                enum Mode { A, B; void m() {} }
+                @interface Marker { String value() default "{"; }
+                """);
+
+        assertEquals("com.demo.orders", parsed.packageName());
+        assertEquals(6, parsed.types().size());
+
+        JavaSourceScanner.TypeDeclaration order = parsed.types().get(0);
+        assertEquals("OrderService", order.name());
+        assertEquals("class", order.kind());
+        assertEquals(Set.of("public", "final"), order.modifiers());
+        assertEquals(Map.of("Service", "orders", "Scope", "prototype", "Lazy", "false"), order.annotations());
+
+        assertTrue(parsed.types().get(1).isInterface());
+        assertEquals(Set.of("non-sealed", "abstract"), parsed.types().get(2).modifiers());
+        assertTrue(parsed.types().get(2).isAbstract());
+        assertEquals("record", parsed.types().get(3).kind());
+        assertEquals("enum", parsed.types().get(4).kind());
+        assertEquals("@interface", parsed.types().get(5).kind());
+        assertTrue(parsed.types().get(5).isInterface());
+    }
+
+    @Test
+    void parseMemberTypesNestedStaticAndBoundary() throws Exception {
+        JavaSourceScanner.ParsedSource parsed = scanner.parse("""
+                package a;
+                public class Outer {
+                    @Autowired private Helper helper;
+                    private final Class<?> type = Inner.class;
+                    private final Runnable anonymous = new Runnable() { @Component class Local {} public void run() {} };
+
+                    @Component("nested")
+                    public static class Nested {
+                        @Service static class Deeper {}
+                    }
+
+                    @Component
+                    class Inner {}
+
+                    public record Point(@Size({1}) int x) {}
+
+                    void method() { @Component class InMethod {} }
+                }
+                interface Api {
+                    @Component class Default {}
+                }
+                """);
+
+        assertEquals(2, parsed.types().size());
+        assertEquals(java.util.List.of("Outer.Nested", "Outer.Nested.Deeper", "Outer.Inner", "Outer.Point", "Api.Default"),
+                parsed.memberTypes().stream().map(JavaSourceScanner.TypeDeclaration::name).toList());
+        assertEquals(Map.of("Component", "nested"), parsed.memberTypes().get(0).annotations());
+        assertTrue(parsed.memberTypes().get(1).modifiers().contains("static"));
+        assertFalse(parsed.memberTypes().get(2).modifiers().contains("static"), "inner classes are not static");
+        assertTrue(parsed.memberTypes().get(3).modifiers().contains("static"), "member records are implicitly static");
+        assertTrue(parsed.memberTypes().get(4).modifiers().contains("static"), "interface members are implicitly static");
+
+        // boundary: header-only parsing stops before the body
+        String source = "package a; class Outer { @Component static class Nested {} }";
+        assertEquals(1, scanner.parse(source).memberTypes().size());
+        assertTrue(scanner.parse(new java.io.StringReader(source), "Outer").memberTypes().isEmpty());
+    }
+
+    @Test
+    void parseConstantAnnotationValues() {
+        JavaSourceScanner.ParsedSource parsed = scanner.parse("""
+                package a;
+                @Component
+                @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+                @Primary
+                class Worker {}
+                """);
+        Map<String, String> annotations = parsed.types().get(0).annotations();
+        assertEquals(List.of("Component", "Scope", "Primary"), List.copyOf(annotations.keySet()));
+        assertEquals("", annotations.get("Component"));
+        assertNull(annotations.get("Scope"));
+    }
+
+    @Test
+    void parseNonLiteralAnnotationValuesUnknown() {
+        JavaSourceScanner.ParsedSource parsed = scanner.parse("""
+                package a;
+                @Component(Names.ORDERS)
+                class Orders {}
+                @Service(value = SomeClass.NAME + "x")
+                class Billing {}
+                @Lazy(false)
+                @Repository(value = "store")
+                class Store {}
+                """);
+        assertTrue(parsed.types().get(0).annotations().containsKey("Component"));
+        assertNull(parsed.types().get(0).annotations().get("Component"));
+        assertNull(parsed.types().get(1).annotations().get("Service"));
+        assertEquals(Map.of("Lazy", "false", "Repository", "store"), parsed.types().get(2).annotations());
+    }
+
+    @Test
+    void parseBoundaryNoPackageOrTypes() {
+        assertNull(scanner.parse("").packageName());
+        assertTrue(scanner.parse("").types().isEmpty());
+
+        JavaSourceScanner.ParsedSource packageInfo = scanner.parse("@Deprecated\npackage com.demo;");
+        assertEquals("com.demo", packageInfo.packageName());
+        assertTrue(packageInfo.types().isEmpty());
+
+        JavaSourceScanner.ParsedSource module = scanner.parse("module com.demo { requires spring.context; }");
+        assertTrue(module.types().isEmpty());
+
+        JavaSourceScanner.ParsedSource unterminated = scanner.parse("package x; class Open { String s = \"");
+        assertEquals("Open", unterminated.types().get(0).name());
+    }
+}
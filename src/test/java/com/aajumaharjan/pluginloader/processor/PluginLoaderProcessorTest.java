@@ -0,0 +1,186 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import com.aajumaharjan.pluginloader.model.BinaryDescriptor;
+import com.aajumaharjan.pluginloader.model.DescriptorIndexEntry;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginLoaderProcessorTest {
+
+    @Test
+    void processFeaturesParallelMatchesSequential() throws Exception {
+        List<FeatureRequest> features = List.of(
+                new FeatureRequest(featureRepo("alpha", "com.alpha", "AlphaService").toUri().toString(), "main", Set.of()),
+                new FeatureRequest(featureRepo("beta", "com.beta", "BetaService").toUri().toString(), "main", Set.of()),
+                new FeatureRequest(featureRepo("gamma", "com.gamma", "GammaService").toUri().toString(), "main", Set.of()));
+
+        TestSupport.InMemoryFiler sequential = new TestSupport.InMemoryFiler();
+        TestSupport.RecordingMessager sequentialMessages = new TestSupport.RecordingMessager();
+        processor(sequential, sequentialMessages, "1").processFeatures(features);
+
+        TestSupport.InMemoryFiler parallel = new TestSupport.InMemoryFiler();
+        TestSupport.RecordingMessager parallelMessages = new TestSupport.RecordingMessager();
+        processor(parallel, parallelMessages, "3").processFeatures(features);
+
+        assertEquals(sequential.getGeneratedSources(), parallel.getGeneratedSources());
+        assertEquals(sequential.getGeneratedResource(DescriptorIndexEntry.RESOURCE), parallel.getGeneratedResource(DescriptorIndexEntry.RESOURCE));
+        assertTrue(parallel.getGeneratedResource(DescriptorIndexEntry.RESOURCE).contains("generated.BetaDescriptor|" + features.get(1).repository() + "\n"));
+        assertTrue(parallel.getGeneratedContent("generated.AlphaDescriptor").contains("\"com.alpha.AlphaService\""));
+        assertNotNull(parallel.getGeneratedContent("com.gamma.GammaService"));
+        assertEquals(sequentialMessages.getMessages().stream().filter(m -> m.startsWith("Generated")).toList(),
+                parallelMessages.getMessages().stream().filter(m -> m.startsWith("Generated")).toList());
+    }
+
+    @Test
+    void processFeaturesIsolatesCloneFailure() throws Exception {
+        List<FeatureRequest> features = List.of(
+                new FeatureRequest("file:///nonexistent/repo.git", "main", Set.of()),
+                new FeatureRequest(featureRepo("delta", "com.delta", "DeltaService").toUri().toString(), "main", Set.of()));
+
+        TestSupport.InMemoryFiler filer = new TestSupport.InMemoryFiler();
+        TestSupport.RecordingMessager messager = new TestSupport.RecordingMessager();
+        processor(filer, messager, "2").processFeatures(features);
+
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Failed processing feature file:///nonexistent/repo.git")));
+        assertNotNull(filer.getGeneratedContent("generated.DeltaDescriptor"));
+    }
+
+    @Test
+    void processFeaturesInvalidParallelismBoundary() throws Exception {
+        List<FeatureRequest> features = List.of(
+                new FeatureRequest(featureRepo("epsilon", "com.epsilon", "EpsilonService").toUri().toString(), "main", Set.of()));
+
+        TestSupport.InMemoryFiler filer = new TestSupport.InMemoryFiler();
+        TestSupport.RecordingMessager messager = new TestSupport.RecordingMessager();
+        processor(filer, messager, "lots").processFeatures(features);
+
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Ignoring invalid pluginloader.parallelism")));
+        assertNotNull(filer.getGeneratedContent("generated.EpsilonDescriptor"));
+    }
+
+    @Test
+    void processFeaturesReplaysUnchangedFeatures() throws Exception {
+        Path repo = featureRepo("zeta", "com.zeta", "ZetaService");
+        List<FeatureRequest> features = List.of(new FeatureRequest(repo.toUri().toString(), "main", Set.of()));
+        Path incrementalDir = Files.createTempDirectory("incremental");
+
+        TestSupport.InMemoryFiler first = new TestSupport.InMemoryFiler();
+        processor(first, new TestSupport.RecordingMessager(), "1", incrementalDir).processFeatures(features);
+
+        TestSupport.InMemoryFiler replayed = new TestSupport.InMemoryFiler();
+        TestSupport.RecordingMessager replayMessages = new TestSupport.RecordingMessager();
+        processor(replayed, replayMessages, "1", incrementalDir).processFeatures(features);
+        assertEquals(first.getGeneratedSources(), replayed.getGeneratedSources());
+        assertTrue(replayMessages.getMessages().stream().anyMatch(m -> m.contains("unchanged at")));
+        assertEquals(first.getGeneratedResource(DescriptorIndexEntry.RESOURCE), replayed.getGeneratedResource(DescriptorIndexEntry.RESOURCE));
+        assertTrue(replayMessages.getMessages().stream().noneMatch(m -> m.contains("Checked out") || m.startsWith("Cloning")));
+
+        // boundary: a new commit invalidates the manifest entry
+        try (Git git = Git.open(repo.toFile())) {
+            TestSupport.writeJavaSource(repo.resolve("src/main/java"), "com.zeta", "ZetaHelper.java", "package com.zeta;\n\n@Component\npublic class ZetaHelper {}\n");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("helper").call();
+        }
+        TestSupport.InMemoryFiler changed = new TestSupport.InMemoryFiler();
+        processor(changed, new TestSupport.RecordingMessager(), "1", incrementalDir).processFeatures(features);
+        assertNotNull(changed.getGeneratedContent("com.zeta.ZetaHelper"));
+        assertTrue(changed.getGeneratedContent("generated.ZetaDescriptor").contains("com.zeta.ZetaHelper"));
+    }
+
+    @Test
+    void processFeaturesBinaryDescriptorsReplayed() throws Exception {
+        List<FeatureRequest> features = List.of(new FeatureRequest(featureRepo("eta", "com.eta", "EtaService").toUri().toString(), "main", Set.of()));
+        Path incrementalDir = Files.createTempDirectory("incremental");
+        String resource = BinaryDescriptor.resourceName("generated.EtaDescriptor");
+
+        TestSupport.InMemoryFiler first = new TestSupport.InMemoryFiler();
+        processor(first, new TestSupport.RecordingMessager(), "1", incrementalDir, "binary").processFeatures(features);
+        assertNull(first.getGeneratedContent("generated.EtaDescriptor"));
+        assertNotNull(first.getGeneratedContent("com.eta.EtaService"));
+        BinaryDescriptor descriptor = BinaryDescriptor.decode(ByteBuffer.wrap(first.getGeneratedResourceBytes(resource)));
+        assertEquals(List.of("com.eta.EtaService"), descriptor.beanClasses());
+        assertTrue(first.getGeneratedResource(DescriptorIndexEntry.RESOURCE).contains("generated.EtaDescriptor|"));
+
+        TestSupport.InMemoryFiler replayed = new TestSupport.InMemoryFiler();
+        TestSupport.RecordingMessager replayMessages = new TestSupport.RecordingMessager();
+        processor(replayed, replayMessages, "1", incrementalDir, "binary").processFeatures(features);
+        assertTrue(replayMessages.getMessages().stream().anyMatch(m -> m.contains("unchanged at")));
+        assertArrayEquals(first.getGeneratedResourceBytes(resource), replayed.getGeneratedResourceBytes(resource));
+
+        // boundary: switching back to class descriptors does not replay the binary one
+        TestSupport.InMemoryFiler classes = new TestSupport.InMemoryFiler();
+        processor(classes, new TestSupport.RecordingMessager(), "1", incrementalDir, "class").processFeatures(features);
+        assertNotNull(classes.getGeneratedContent("generated.EtaDescriptor"));
+        assertNull(classes.getGeneratedResourceBytes(resource));
+    }
+
+    @Test
+    void processFeaturesBinaryModeSkipsSources() throws Exception {
+        String repository = featureRepo("theta", "com.theta", "ThetaService").toUri().toString();
+        List<FeatureRequest> features = List.of(new FeatureRequest(repository, "main", Set.of(), CloneOptions.DEFAULTS, true));
+
+        TestSupport.InMemoryFiler filer = new TestSupport.InMemoryFiler();
+        TestSupport.RecordingMessager messager = new TestSupport.RecordingMessager();
+        PluginLoaderProcessor processor = processor(filer, messager, "1");
+        processor.processFeatures(features);
+
+        assertNull(filer.getGeneratedContent("com.theta.ThetaService"));
+        assertNull(filer.getGeneratedContent("com.theta.Api"));
+        assertTrue(filer.getGeneratedContent("generated.ThetaDescriptor").contains("\"com.theta.ThetaService\""));
+        assertTrue(filer.getGeneratedResource(DescriptorIndexEntry.RESOURCE).contains("generated.ThetaDescriptor|" + repository));
+        // the build always fails here, which leaves a binary feature without classes
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("No jar produced/available for binary feature")));
+        Field pendingBridges = PluginLoaderProcessor.class.getDeclaredField("pendingBridges");
+        pendingBridges.setAccessible(true);
+        assertTrue(((Map<?, ?>) pendingBridges.get(processor)).isEmpty());
+    }
+
+    private PluginLoaderProcessor processor(TestSupport.InMemoryFiler filer, TestSupport.RecordingMessager messager, String parallelism) throws Exception {
+        return processor(filer, messager, parallelism, Files.createTempDirectory("incremental"));
+    }
+
+    private PluginLoaderProcessor processor(TestSupport.InMemoryFiler filer, TestSupport.RecordingMessager messager, String parallelism,
+                                            Path incrementalDir) throws Exception {
+        return processor(filer, messager, parallelism, incrementalDir, "class");
+    }
+
+    private PluginLoaderProcessor processor(TestSupport.InMemoryFiler filer, TestSupport.RecordingMessager messager, String parallelism,
+                                            Path incrementalDir, String descriptorFormat) throws Exception {
+        // build always fails, so descriptors carry no (timestamped) JAR_PATH
+        PluginLoaderProcessor processor = new PluginLoaderProcessor(new FeatureJarBuilder() {
+            @Override
+            public ProcessBuilder createProcessBuilder(Path repoDir) {
+                return new ProcessBuilder("false").directory(repoDir.toFile()).redirectErrorStream(true);
+            }
+        });
+        processor.init(new TestSupport.StubProcessingEnvironment(filer, messager, Map.of(
+                PluginLoaderProcessor.PARALLELISM_OPTION, parallelism,
+                PluginLoaderProcessor.CACHE_DIR_OPTION, Files.createTempDirectory("repo-cache").toString(),
+                PluginLoaderProcessor.INCREMENTAL_DIR_OPTION, incrementalDir.toString(),
+                PluginLoaderProcessor.DESCRIPTOR_FORMAT_OPTION, descriptorFormat)));
+        return processor;
+    }
+
+    private Path featureRepo(String name, String pkg, String serviceName) throws Exception {
+        Path repo = Files.createTempDirectory(name);
+        try (Git git = Git.init().setDirectory(repo.toFile()).setInitialBranch("main").call()) {
+            Path srcRoot = repo.resolve("src/main/java");
+            TestSupport.writeJavaSource(srcRoot, pkg, serviceName + ".java",
+                    "package " + pkg + ";\n\n@Service\npublic class " + serviceName + " {}\n");
+            TestSupport.writeJavaSource(srcRoot, pkg, "Api.java", "package " + pkg + ";\n\npublic interface Api {}\n");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("init").call();
+        }
+        return repo;
+    }
+}
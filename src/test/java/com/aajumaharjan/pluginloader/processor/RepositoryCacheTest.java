@@ -0,0 +1,196 @@
+package com.aajumaharjan.pluginloader.processor;
+
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepositoryCacheTest {
+    private final TestSupport.RecordingMessager messager = new TestSupport.RecordingMessager();
+
+    @Test
+    void checkoutReusesEntryAndFollowsBranch() throws Exception {
+        Path source = sourceRepo("demo");
+        RepositoryCache cache = new RepositoryCache(Files.createTempDirectory("repo-cache"), Long.MAX_VALUE);
+        FeatureRequest req = new FeatureRequest(source.toUri().toString(), "main", Set.of());
+
+        CheckedOutRepository first = cache.checkout(req, messager);
+        assertFalse(first.cached());
+        Files.createDirectories(first.directory().resolve("target"));
+        Files.writeString(first.directory().resolve("target/stale.jar"), "old build");
+        Files.writeString(first.directory().resolve("README.md"), "locally modified");
+        assertTrue(cache.release(first.directory(), messager));
+
+        try (Git git = Git.open(source.toFile())) {
+            Files.writeString(source.resolve("NEW.md"), "added");
+            git.add().addFilepattern("NEW.md").call();
+            git.commit().setMessage("second").call();
+        }
+
+        CheckedOutRepository second = cache.checkout(req, messager);
+        assertTrue(second.cached());
+        assertEquals(first.directory(), second.directory());
+        assertNotEquals(first.commitId(), second.commitId());
+        assertEquals("demo", Files.readString(second.directory().resolve("README.md")));
+        assertTrue(Files.exists(second.directory().resolve("NEW.md")));
+        assertFalse(Files.exists(second.directory().resolve("target/stale.jar")));
+        cache.release(second.directory(), messager);
+    }
+
+    @Test
+    void checkoutKeepsIgnoredBuildOutput() throws Exception {
+        Path source = sourceRepo("demo");
+        try (Git git = Git.open(source.toFile())) {
+            Files.writeString(source.resolve(".gitignore"), "target/\n.gradle/\n");
+            git.add().addFilepattern(".gitignore").call();
+            git.commit().setMessage("ignore build output").call();
+        }
+        RepositoryCache cache = new RepositoryCache(Files.createTempDirectory("repo-cache"), Long.MAX_VALUE);
+        FeatureRequest req = new FeatureRequest(source.toUri().toString(), "main", Set.of());
+
+        CheckedOutRepository first = cache.checkout(req, messager);
+        Files.createDirectories(first.directory().resolve("target/classes"));
+        Files.writeString(first.directory().resolve("target/classes/App.class"), "compiled");
+        Files.createDirectories(first.directory().resolve(".gradle"));
+        Files.writeString(first.directory().resolve(".gradle/cache.bin"), "cache");
+        Files.writeString(first.directory().resolve("untracked.txt"), "leftover");
+        cache.release(first.directory(), messager);
+
+        CheckedOutRepository second = cache.checkout(req, messager);
+        assertEquals("compiled", Files.readString(second.directory().resolve("target/classes/App.class")));
+        assertTrue(Files.exists(second.directory().resolve(".gradle/cache.bin")));
+        assertFalse(Files.exists(second.directory().resolve("untracked.txt")));
+        cache.release(second.directory(), messager);
+    }
+
+    @Test
+    void checkoutSparseThenFullBoundary() throws Exception {
+        Path source = sourceRepo("demo");
+        try (Git git = Git.open(source.toFile())) {
+            Files.createDirectories(source.resolve("src/main/java"));
+            Files.writeString(source.resolve("src/main/java/App.java"), "class App {}");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("sources").call();
+        }
+        RepositoryCache cache = new RepositoryCache(Files.createTempDirectory("repo-cache"), Long.MAX_VALUE);
+        String url = source.toUri().toString();
+
+        CheckedOutRepository sparse = cache.checkout(new FeatureRequest(url, "main", Set.of(), new CloneOptions(1, true, List.of("src/main"))), messager);
+        assertTrue(Files.exists(sparse.directory().resolve("src/main/java/App.java")));
+        assertFalse(Files.exists(sparse.directory().resolve("README.md")));
+        cache.release(sparse.directory(), messager);
+
+        CheckedOutRepository full = cache.checkout(new FeatureRequest(url, "main", Set.of()), messager);
+        assertTrue(Files.exists(full.directory().resolve("README.md")));
+        assertTrue(Files.exists(full.directory().resolve("src/main/java/App.java")));
+        cache.release(full.directory(), messager);
+    }
+
+    @Test
+    void checkoutWaitsForLockedEntry() throws Exception {
+        Path source = sourceRepo("demo");
+        RepositoryCache cache = new RepositoryCache(Files.createTempDirectory("repo-cache"), Long.MAX_VALUE);
+        FeatureRequest req = new FeatureRequest(source.toUri().toString(), "main", Set.of());
+
+        CheckedOutRepository held = cache.checkout(req, messager);
+        CompletableFuture<CheckedOutRepository> waiting = CompletableFuture.supplyAsync(() -> {
+            try {
+                return cache.checkout(req, new TestSupport.RecordingMessager());
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        Thread.sleep(300);
+        assertFalse(waiting.isDone());
+
+        cache.release(held.directory(), messager);
+        CheckedOutRepository next = waiting.get(30, TimeUnit.SECONDS);
+        assertTrue(next.cached());
+        cache.release(next.directory(), messager);
+    }
+
+    @Test
+    void checkoutInvalidBranchReleasesLock() throws Exception {
+        Path source = sourceRepo("demo");
+        RepositoryCache cache = new RepositoryCache(Files.createTempDirectory("repo-cache"), Long.MAX_VALUE);
+
+        assertThrows(Exception.class, () -> cache.checkout(new FeatureRequest(source.toUri().toString(), "missing", Set.of()), messager));
+
+        CheckedOutRepository checkout = cache.checkout(new FeatureRequest(source.toUri().toString(), "main", Set.of()), messager);
+        assertTrue(Files.exists(checkout.directory().resolve("README.md")));
+        cache.release(checkout.directory(), messager);
+    }
+
+    @Test
+    void evictRemovesLeastRecentlyUsedBoundary() throws Exception {
+        Path root = Files.createTempDirectory("repo-cache");
+        FeatureRequest older = new FeatureRequest(sourceRepo("older").toUri().toString(), "main", Set.of());
+        FeatureRequest newer = new FeatureRequest(sourceRepo("newer").toUri().toString(), "main", Set.of());
+
+        RepositoryCache unbounded = new RepositoryCache(root, Long.MAX_VALUE);
+        unbounded.release(unbounded.checkout(older, messager).directory(), messager);
+        long entrySize = sizeOf(unbounded.entryFor(older.repository()));
+        Thread.sleep(20);
+
+        // room for one entry only
+        RepositoryCache bounded = new RepositoryCache(root, entrySize * 3 / 2);
+        bounded.release(bounded.checkout(newer, messager).directory(), messager);
+
+        assertFalse(Files.exists(bounded.entryFor(older.repository()).resolve("repo.git")));
+        assertTrue(Files.exists(bounded.entryFor(newer.repository()).resolve("repo.git")));
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Evicted cached repository")));
+    }
+
+    @Test
+    void evictReadsSizesRecordedOnRelease() throws Exception {
+        Path root = Files.createTempDirectory("repo-cache");
+        FeatureRequest older = new FeatureRequest(sourceRepo("older").toUri().toString(), "main", Set.of());
+        FeatureRequest newer = new FeatureRequest(sourceRepo("newer").toUri().toString(), "main", Set.of());
+
+        RepositoryCache unbounded = new RepositoryCache(root, Long.MAX_VALUE);
+        CheckedOutRepository checkout = unbounded.checkout(older, messager);
+        Files.write(checkout.directory().resolve("build.bin"), new byte[64 * 1024]);
+        unbounded.release(checkout.directory(), messager);
+        Path entry = unbounded.entryFor(older.repository());
+        List<String> marker = Files.readAllLines(entry.resolve(".last-used"));
+        assertEquals(checkout.commitId(), marker.get(0));
+        long recorded = Long.parseLong(marker.get(1));
+        assertTrue(recorded >= 64 * 1024);
+
+        // grows behind the cache's back: eviction trusts the recorded size instead of walking the entry again
+        Files.write(entry.resolve("worktree/grown.bin"), new byte[4 * 1024 * 1024]);
+        RepositoryCache bounded = new RepositoryCache(root, recorded * 3);
+        bounded.release(bounded.checkout(newer, messager).directory(), messager);
+        assertTrue(Files.exists(entry.resolve("repo.git")));
+    }
+
+    @Test
+    void releaseUnknownDirectoryInvalid() throws Exception {
+        RepositoryCache cache = new RepositoryCache(Files.createTempDirectory("repo-cache"), Long.MAX_VALUE);
+        assertFalse(cache.release(Files.createTempDirectory("other"), messager));
+    }
+
+    private Path sourceRepo(String content) throws Exception {
+        Path source = Files.createTempDirectory("source-repo");
+        try (Git git = Git.init().setDirectory(source.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(source.resolve("README.md"), content);
+            git.add().addFilepattern("README.md").call();
+            git.commit().setMessage("init").call();
+        }
+        return source;
+    }
+
+    private long sizeOf(Path dir) throws Exception {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> p.toFile().length()).sum();
+        }
+    }
+}
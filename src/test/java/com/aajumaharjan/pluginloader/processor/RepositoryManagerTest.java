@@ -5,26 +5,24 @@ import org.junit.jupiter.api.Test;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 class RepositoryManagerTest {
-    private final RepositoryManager manager = new RepositoryManager();
+    private final RepositoryManager manager = new RepositoryManager(null);
     private final TestSupport.RecordingMessager messager = new TestSupport.RecordingMessager();
 
     @Test
     void cloneRepositoryValid() throws Exception {
-        Path source = Files.createTempDirectory("source-repo");
-        try (Git git = Git.init().setDirectory(source.toFile()).setInitialBranch("main").call()) {
-            Files.writeString(source.resolve("README.md"), "demo");
-            git.add().addFilepattern("README.md").call();
-            git.commit().setMessage("init").call();
-        }
+        Path source = sourceRepo();
 
         FeatureRequest req = new FeatureRequest(source.toUri().toString(), "main", Set.of());
         Path cloned = manager.cloneRepository(req, messager);
         assertTrue(Files.exists(cloned.resolve(".git")));
+        manager.cleanup(cloned, messager);
+        assertFalse(Files.exists(cloned));
     }
 
     @Test
@@ -33,10 +31,77 @@ class RepositoryManagerTest {
         assertThrows(RuntimeException.class, () -> manager.cloneRepository(req, messager));
     }
 
+    @Test
+    void checkoutUsesCacheAndKeepsWorktreeOnCleanup() throws Exception {
+        Path source = sourceRepo();
+        RepositoryManager cached = new RepositoryManager(new RepositoryCache(Files.createTempDirectory("repo-cache"), Long.MAX_VALUE));
+        FeatureRequest req = new FeatureRequest(source.toUri().toString(), "main", Set.of());
+
+        CheckedOutRepository first = cached.checkout(req, messager);
+        assertFalse(first.cached());
+        assertNotNull(first.commitId());
+        assertEquals("demo", Files.readString(first.directory().resolve("README.md")));
+        cached.cleanup(first.directory(), messager);
+        assertTrue(Files.exists(first.directory()));
+    }
+
+    @Test
+    void checkoutFallsBackWhenCacheUnusable() throws Exception {
+        Path source = sourceRepo();
+        Path notADirectory = Files.createTempFile("repo-cache", ".txt");
+        RepositoryManager broken = new RepositoryManager(new RepositoryCache(notADirectory, Long.MAX_VALUE));
+
+        CheckedOutRepository checkout = broken.checkout(new FeatureRequest(source.toUri().toString(), "main", Set.of()), messager);
+        assertFalse(checkout.cached());
+        assertTrue(Files.exists(checkout.directory().resolve(".git")));
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Repository cache unavailable")));
+        broken.cleanup(checkout.directory(), messager);
+        assertFalse(Files.exists(checkout.directory()));
+    }
+
+    @Test
+    void cloneRepositoryShallowSingleBranchSparse() throws Exception {
+        Path source = sourceRepo();
+        try (Git git = Git.open(source.toFile())) {
+            Files.createDirectories(source.resolve("src/main/java"));
+            Files.writeString(source.resolve("src/main/java/App.java"), "class App {}");
+            Files.writeString(source.resolve("docs.md"), "large docs");
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("second").call();
+            git.branchCreate().setName("other").call();
+        }
+
+        CloneOptions options = new CloneOptions(1, true, List.of("src/main"));
+        Path cloned = manager.cloneRepository(new FeatureRequest(source.toUri().toString(), "main", Set.of(), options), messager);
+        try (Git git = Git.open(cloned.toFile())) {
+            assertTrue(Files.exists(cloned.resolve(".git/shallow")));
+            assertNull(git.getRepository().findRef("refs/remotes/origin/other"));
+        }
+        assertTrue(Files.exists(cloned.resolve("src/main/java/App.java")));
+        assertFalse(Files.exists(cloned.resolve("docs.md")));
+        assertFalse(Files.exists(cloned.resolve("README.md")));
+        manager.cleanup(cloned, messager);
+    }
+
+    @Test
+    void cloneOptionsNegativeDepthInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new CloneOptions(-1, false, List.of()));
+    }
+
     @Test
     void cleanupBoundary() throws Exception {
         Path dir = Files.createTempDirectory("cleanup");
         Files.deleteIfExists(dir);
         manager.cleanup(dir, messager); // should not throw
     }
+
+    private Path sourceRepo() throws Exception {
+        Path source = Files.createTempDirectory("source-repo");
+        try (Git git = Git.init().setDirectory(source.toFile()).setInitialBranch("main").call()) {
+            Files.writeString(source.resolve("README.md"), "demo");
+            git.add().addFilepattern("README.md").call();
+            git.commit().setMessage("init").call();
+        }
+        return source;
+    }
 }
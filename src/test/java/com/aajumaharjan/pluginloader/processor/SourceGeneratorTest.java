@@ -1,5 +1,6 @@
 package com.aajumaharjan.pluginloader.processor;
 
+import com.aajumaharjan.pluginloader.model.BeanIndexEntry;
 import org.junit.jupiter.api.Test;
 
 import javax.annotation.processing.Filer;
@@ -7,10 +8,11 @@ import javax.annotation.processing.FilerException;
 import javax.annotation.processing.Messager;
 import javax.annotation.processing.ProcessingEnvironment;
 import java.lang.reflect.Method;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,7 +24,7 @@ class SourceGeneratorTest {
 
     @Test
     void generateSourcesValidAndBoundary() throws Exception {
-        Path srcRoot = TestSupport.createTempJavaFile("com.demo", "Sample", "public void run(){}");
+        Path srcRoot = TestSupport.createTempJavaFile("com.demo", "Sample", "@Service", "public void run(){}");
         ScanResult result = generator.generateSources(srcRoot, Set.of(), processingEnv, messager);
         assertTrue(result.beanClasses().contains("com.demo.Sample"));
         assertTrue(result.packages().contains("com.demo"));
@@ -34,6 +36,176 @@ class SourceGeneratorTest {
         assertTrue(filtered.packages().isEmpty());
     }
 
+    @Test
+    void generateSourcesBuildsBeanIndex() throws Exception {
+        Path srcRoot = Files.createTempDirectory("src");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "OrderService.java", """
+                package com.demo;
+
+                import org.springframework.stereotype.Service;
+
+                @Service("orders")
+                @Primary
+                @Lazy
+                @Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+                public class OrderService {}
+                """);
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "URLHandler.java", "package com.demo;\n@Component\nclass URLHandler {}");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "BaseHandler.java", "package com.demo;\n@Component\npublic abstract class BaseHandler {}");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Api.java", "package com.demo;\npublic interface Api {}");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Billing.java", "package com.demo;\n@Service(Names.BILLING)\n@Scope(\"prototype\")\nclass Billing {}");
+
+        ScanResult result = generator.generateSources(srcRoot, Set.of(), processingEnv, messager);
+
+        assertEquals(Set.of(
+                new BeanIndexEntry("com.demo.OrderService", "Service", null, "orders", true, true),
+                new BeanIndexEntry("com.demo.URLHandler", "Component", null, "URLHandler", false, false),
+                new BeanIndexEntry("com.demo.Billing", "Service", "prototype", null, false, false)
+        ), result.beanIndex());
+        assertEquals(Set.of("com.demo.OrderService", "com.demo.URLHandler", "com.demo.Billing"), result.beanClasses());
+        assertEquals(Set.of("com.demo.Api"), result.exposedTypes());
+    }
+
+    @Test
+    void scanSourcesIndexesNestedComponentsAndAdvice() throws Exception {
+        Path srcRoot = Files.createTempDirectory("src");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Handlers.java", """
+                package com.demo;
+                public class Handlers {
+                    @Component
+                    public static class Nested {}
+                    @Component
+                    class Inner {}
+                }
+                """);
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "ErrorAdvice.java", "package com.demo;\n@ControllerAdvice\n@Slf4j\npublic class ErrorAdvice {}");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Point.java", "package com.demo;\n@Named(\"origin\")\npublic record Point(int x) {}");
+
+        ScanResult result = generator.scanSources(srcRoot, Set.of(), messager);
+        assertEquals(Set.of(
+                new BeanIndexEntry("com.demo.Handlers$Nested", "Component", null, "handlers.Nested", false, false),
+                new BeanIndexEntry("com.demo.ErrorAdvice", "ControllerAdvice", null, "errorAdvice", false, false),
+                new BeanIndexEntry("com.demo.Point", "Named", null, "origin", false, false)
+        ), result.completeBeanIndex());
+        assertTrue(result.indexGaps().isEmpty());
+    }
+
+    @Test
+    void scanSourcesCustomStereotypeOrHeaderOnlyLeavesIndexPartial() throws Exception {
+        Path srcRoot = Files.createTempDirectory("src");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Orders.java", "package com.demo;\n@Component\npublic class Orders {}");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Billing.java", "package com.demo;\n@FeatureService\n@Data\npublic class Billing {}");
+
+        ScanResult custom = generator.scanSources(srcRoot, Set.of(), messager);
+        assertEquals(Set.of("com.demo.Billing (@FeatureService)"), custom.indexGaps());
+        assertEquals(1, custom.beanIndex().size());
+        assertTrue(custom.completeBeanIndex().isEmpty(), "a partial index is not published");
+
+        // boundary: known non-stereotypes keep the index complete, a header-only scan never does
+        Files.writeString(srcRoot.resolve("com/demo/Billing.java"), "package com.demo;\n@Data\n@ConditionalOnProperty(\"x\")\npublic class Billing {}");
+        assertEquals(1, generator.scanSources(srcRoot, Set.of(), messager).completeBeanIndex().size());
+        assertEquals(Set.of("header-only scan"), new SourceGenerator(1, true).scanSources(srcRoot, Set.of(), messager).indexGaps());
+    }
+
+    @Test
+    void scanSourcesDefersWritesUntilWriteSources() throws Exception {
+        Path srcRoot = TestSupport.createTempJavaFile("com.demo.deferred", "Deferred", "@Component", "");
+        ScanResult result = generator.scanSources(srcRoot, Set.of(), messager);
+        assertTrue(result.beanClasses().contains("com.demo.deferred.Deferred"));
+        assertNull(filer.getGeneratedContent("com.demo.deferred.Deferred"));
+
+        generator.writeSources(result, filer, messager);
+        assertTrue(filer.getGeneratedContent("com.demo.deferred.Deferred").contains("class Deferred"));
+    }
+
+    @Test
+    void generateSourcesParallelMatchesSequential() throws Exception {
+        Path srcRoot = Files.createTempDirectory("src");
+        // more files than one fork-join batch holds, spread over nested packages
+        for (int i = 0; i < 300; i++) {
+            String pkg = "com.demo.p" + (i % 3) + (i % 2 == 0 ? ".sub" : "");
+            String annotation = i % 4 == 0 ? "@Service\n" : "";
+            TestSupport.writeJavaSource(srcRoot, pkg, "Type" + i + ".java", "package " + pkg + ";\n" + annotation + "public class Type" + i + " {}");
+        }
+        TestSupport.writeJavaSource(srcRoot, "other.pkg", "Outside.java", "package other.pkg;\n@Service\npublic class Outside {}");
+
+        ScanResult sequential = generator.generateSources(srcRoot, Set.of("com.demo"), processingEnv, messager);
+        TestSupport.InMemoryFiler parallelFiler = new TestSupport.InMemoryFiler();
+        ScanResult parallel = new SourceGenerator(4).generateSources(srcRoot, Set.of("com.demo"),
+                new TestSupport.StubProcessingEnvironment(parallelFiler, messager), messager);
+
+        assertEquals(300, parallel.sourceFiles().size());
+        assertEquals(75, parallel.beanClasses().size());
+        assertEquals(sequential.packages(), parallel.packages());
+        assertEquals(sequential.beanIndex(), parallel.beanIndex());
+        assertEquals(sequential.sourceFiles(), parallel.sourceFiles());
+        for (String type : sequential.sourceFiles().keySet()) {
+            assertEquals(filer.getGeneratedContent(type), parallelFiler.getGeneratedContent(type));
+        }
+        assertNull(parallelFiler.getGeneratedContent("other.pkg.Outside"));
+
+        // scan only: nothing is written, the result is the same
+        ScanResult scanned = new SourceGenerator(4).scanSources(srcRoot, Set.of("com.demo"), messager);
+        assertEquals(sequential.sourceFiles(), scanned.sourceFiles());
+
+        // boundary: missing root
+        ScanResult missing = new SourceGenerator(4).generateSources(Path.of("does-not-exist"), Set.of(), processingEnv, messager);
+        assertTrue(missing.sourceFiles().isEmpty());
+    }
+
+    @Test
+    void generateSourcesHeaderOnlyStopsAtPrimaryType() throws Exception {
+        Path srcRoot = Files.createTempDirectory("src");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Main.java", """
+                package com.demo;
+
+                @Component
+                class Before {}
+
+                @Service
+                public class Main {
+                    // body is not read: @Component class Ignored {}
+                }
+
+                @Component
+                class After {}
+                """);
+        // larger than one pooled buffer, with multi-byte characters straddling buffer boundaries
+        String big = "package com.demo;\npublic interface Big {\n" + "    // \u00e9t\u00e9 \u4e2d\u6587 \uD83D\uDE00\n".repeat(4000) + "}\n";
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Big.java", big);
+
+        ScanResult full = generator.generateSources(srcRoot, Set.of(), processingEnv, messager);
+        assertEquals(Set.of("com.demo.Before", "com.demo.Main", "com.demo.After"), full.beanClasses());
+
+        TestSupport.InMemoryFiler headerFiler = new TestSupport.InMemoryFiler();
+        ScanResult header = new SourceGenerator(1, true).generateSources(srcRoot, Set.of(),
+                new TestSupport.StubProcessingEnvironment(headerFiler, messager), messager);
+        assertEquals(Set.of("com.demo.Before", "com.demo.Main"), header.beanClasses());
+        assertEquals(Set.of("com.demo.Big"), header.exposedTypes());
+        // the copy is still the whole file
+        assertEquals(big, headerFiler.getGeneratedContent("com.demo.Big"));
+        assertTrue(headerFiler.getGeneratedContent("com.demo.Main").contains("class After"));
+
+        // invalid: malformed UTF-8 is skipped like an unreadable file
+        Files.write(srcRoot.resolve("com/demo/Broken.java"), new byte[]{'c', 'l', 'a', 's', 's', ' ', (byte) 0xC3, (byte) 0x28});
+        assertFalse(new SourceGenerator(1, true).scanSources(srcRoot, Set.of(), messager).sourceFiles().containsKey("com.demo.Broken"));
+    }
+
+    @Test
+    void scanSourcesWarnsAboutUnreadableSources() throws Exception {
+        Path srcRoot = TestSupport.createTempJavaFile("com.demo", "Readable", "@Component", "");
+        Path broken = srcRoot.resolve("com/demo/Broken.java");
+        Files.write(broken, new byte[]{'/', '/', ' ', (byte) 0xC3, 0x28});
+
+        for (SourceGenerator scanning : new SourceGenerator[]{generator, new SourceGenerator(4)}) {
+            TestSupport.RecordingMessager recording = new TestSupport.RecordingMessager();
+            ScanResult result = scanning.scanSources(srcRoot, Set.of(), recording);
+            assertEquals(Set.of("com.demo.Readable"), result.sourceFiles().keySet());
+            assertTrue(recording.getMessages().stream()
+                    .anyMatch(m -> m.startsWith("[WARNING]") && m.contains("Skipping unreadable source " + broken)));
+        }
+    }
+
     @Test
     void generateSourcesMissingRoot() {
         Path missing = Path.of("does-not-exist");
@@ -44,15 +216,15 @@ class SourceGeneratorTest {
 
     @Test
     void handleSourceFileAndWriteGeneratedSourceViaReflection() throws Exception {
-        Path srcRoot = TestSupport.createTempJavaFile("com.demo.handle", "HandleMe", "");
+        Path srcRoot = TestSupport.createTempJavaFile("com.demo.handle", "HandleMe", "@Component", "");
         Path javaFile = srcRoot.resolve("com/demo/handle/HandleMe.java");
-        Method handle = SourceGenerator.class.getDeclaredMethod("handleSourceFile", Path.class, Set.class, Set.class, Set.class, ProcessingEnvironment.class, Messager.class);
+        Method handle = SourceGenerator.class.getDeclaredMethod("handleSourceFile", Path.class, Set.class, ScanResult.class, Messager.class);
         handle.setAccessible(true);
-        Set<String> beans = new HashSet<>();
-        Set<String> pkgs = new HashSet<>();
-        handle.invoke(generator, javaFile, Set.of(), beans, pkgs, processingEnv, messager);
-        assertTrue(beans.contains("com.demo.handle.HandleMe"));
-        assertTrue(pkgs.contains("com.demo.handle"));
+        ScanResult result = new ScanResult(new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashSet<>(), new HashMap<>());
+        handle.invoke(generator, javaFile, Set.of(), result, messager);
+        assertTrue(result.beanClasses().contains("com.demo.handle.HandleMe"));
+        assertTrue(result.packages().contains("com.demo.handle"));
+        assertEquals(javaFile, result.sourceFiles().get("com.demo.handle.HandleMe"));
 
         // writeGeneratedSource failure path
         Filer throwingFiler = new Filer() {
@@ -62,21 +234,40 @@ class SourceGeneratorTest {
             @Override public javax.tools.FileObject getResource(javax.tools.JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName) { throw new RuntimeException("unsupported"); }
         };
         ProcessingEnvironment env = new TestSupport.StubProcessingEnvironment(throwingFiler, messager);
-        Method writeGenerated = SourceGenerator.class.getDeclaredMethod("writeGeneratedSource", Filer.class, String.class, String.class, Messager.class);
+        Method writeGenerated = SourceGenerator.class.getDeclaredMethod("writeGeneratedSource", Filer.class, String.class, Path.class, Messager.class);
         writeGenerated.setAccessible(true);
-        writeGenerated.invoke(generator, throwingFiler, "com.demo.handle.HandleMe", "content", messager);
+        writeGenerated.invoke(generator, throwingFiler, "com.demo.handle.HandleMe", javaFile, messager);
         assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("already generated")));
     }
 
     @Test
-    void extractGroupAndPackageAllowedReflection() throws Exception {
-        Method extract = SourceGenerator.class.getDeclaredMethod("extractGroup", Pattern.class, String.class, int.class);
-        extract.setAccessible(true);
-        Pattern pkgPattern = Pattern.compile("package\\s+([\\w\\.]+)");
-        assertEquals("com.demo", extract.invoke(generator, pkgPattern, "package com.demo;", 1));
-        assertNull(extract.invoke(generator, pkgPattern, "no package", 1));
-        assertNull(extract.invoke(generator, pkgPattern, "package com.demo", 3)); // boundary invalid group
+    void generateSourcesSkipsNonBeansAndKeepsInterfaces() throws Exception {
+        Path srcRoot = Files.createTempDirectory("src");
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Plain.java", """
+                package com.demo;
+
+                // @Service in a comment
+                public class Plain {
+                    String s = "@Component class Fake";
+                    @Service static class Nested {}
+                }
+                class Helper {}
+                """);
+        TestSupport.writeJavaSource(srcRoot, "com.demo", "Api.java", "package com.demo;\npublic interface Api {}\ninterface Internal {}");
 
+        ScanResult result = generator.generateSources(srcRoot, Set.of(), processingEnv, messager);
+
+        // only the static member class is a bean, under its binary name
+        assertEquals(Set.of("com.demo.Plain$Nested"), result.beanClasses());
+        assertEquals(1, result.beanIndex().size());
+        assertEquals(Set.of("com.demo.Api"), result.exposedTypes());
+        assertEquals(Set.of("com.demo"), result.packages());
+        assertNotNull(filer.getGeneratedContent("com.demo.Plain"));
+        assertNotNull(filer.getGeneratedContent("com.demo.Api"));
+    }
+
+    @Test
+    void packageAllowedReflection() throws Exception {
         Method isAllowed = SourceGenerator.class.getDeclaredMethod("isPackageAllowed", String.class, Set.class);
         isAllowed.setAccessible(true);
         assertTrue((Boolean) isAllowed.invoke(generator, "a.b.c", Set.of("a.b")));
@@ -59,6 +59,7 @@ class TestSupport {
 
     static class InMemoryFiler implements Filer {
         private final Map<String, String> generatedSources = new HashMap<>();
+        private final Map<String, byte[]> generatedResources = new HashMap<>();
 
         @Override
         public JavaFileObject createSourceFile(CharSequence name, Element... originatingElements) throws IOException {
@@ -84,7 +85,24 @@ class TestSupport {
 
         @Override
         public FileObject createResource(javax.tools.JavaFileManager.Location location, CharSequence pkg, CharSequence relativeName, Element... originatingElements) {
-            throw new UnsupportedOperationException("createResource not supported in tests");
+            String path = relativeName.toString();
+            return new SimpleJavaFileObject(URI.create("string:///" + path), JavaFileObject.Kind.OTHER) {
+                @Override
+                public java.io.OutputStream openOutputStream() {
+                    return new java.io.ByteArrayOutputStream() {
+                        @Override
+                        public void close() throws IOException {
+                            super.close();
+                            generatedResources.put(path, toByteArray());
+                        }
+                    };
+                }
+
+                @Override
+                public Writer openWriter() {
+                    return new java.io.OutputStreamWriter(openOutputStream(), java.nio.charset.StandardCharsets.UTF_8);
+                }
+            };
         }
 
         @Override
@@ -95,9 +113,26 @@ class TestSupport {
         String getGeneratedContent(String name) {
             return generatedSources.get(name);
         }
+
+        Map<String, String> getGeneratedSources() {
+            return generatedSources;
+        }
+
+        String getGeneratedResource(String relativeName) {
+            byte[] content = generatedResources.get(relativeName);
+            return content == null ? null : new String(content, java.nio.charset.StandardCharsets.UTF_8);
+        }
+
+        byte[] getGeneratedResourceBytes(String relativeName) {
+            return generatedResources.get(relativeName);
+        }
     }
 
     static Path createTempJavaFile(String pkg, String className, String body) throws IOException {
+        return createTempJavaFile(pkg, className, null, body);
+    }
+
+    static Path createTempJavaFile(String pkg, String className, String annotation, String body) throws IOException {
         Path tempDir = Files.createTempDirectory("src");
         Path pkgDir = pkg == null ? tempDir : tempDir.resolve(pkg.replace('.', '/'));
         Files.createDirectories(pkgDir);
@@ -106,6 +141,9 @@ class TestSupport {
         if (pkg != null && !pkg.isBlank()) {
             content.append("package ").append(pkg).append(";\n\n");
         }
+        if (annotation != null) {
+            content.append(annotation).append('\n');
+        }
         content.append("public class ").append(className).append(" {\n")
                 .append(body == null ? "" : body)
                 .append("\n}");
@@ -113,18 +151,32 @@ class TestSupport {
         return tempDir;
     }
 
+    static Path writeJavaSource(Path srcRoot, String pkg, String fileName, String content) throws IOException {
+        Path pkgDir = srcRoot.resolve(pkg.replace('.', '/'));
+        Files.createDirectories(pkgDir);
+        Path javaFile = pkgDir.resolve(fileName);
+        Files.writeString(javaFile, content);
+        return javaFile;
+    }
+
     static class StubProcessingEnvironment implements ProcessingEnvironment {
         private final Filer filer;
         private final Messager messager;
+        private final Map<String, String> options;
 
         StubProcessingEnvironment(Filer filer, Messager messager) {
+            this(filer, messager, Collections.emptyMap());
+        }
+
+        StubProcessingEnvironment(Filer filer, Messager messager, Map<String, String> options) {
             this.filer = filer;
             this.messager = messager;
+            this.options = options;
         }
 
         @Override
         public Map<String, String> getOptions() {
-            return Collections.emptyMap();
+            return options;
         }
 
         @Override
@@ -36,6 +36,68 @@ class YamlFeatureConfigLoaderTest {
         assertEquals("https://example.com/repo.git", fr.repository());
         assertEquals("dev", fr.branch());
         assertEquals(Set.of("com.demo", "com.demo.inner"), fr.packages());
+        assertEquals(CloneOptions.DEFAULTS, fr.cloneOptions());
+    }
+
+    @Test
+    void loadCloneOptionsValidAndInvalid() throws IOException {
+        Path temp = Files.createTempFile("app", ".yml");
+        Files.writeString(temp, """
+                pluginloader:
+                  features:
+                    - repo: https://example.com/mono.git
+                      depth: 1
+                      single-branch: true
+                      sparse-paths:
+                        - pom.xml
+                        - src/main
+                    - repo: https://example.com/other.git
+                      depth: deep
+                      sparse-paths: src/main/java
+                """);
+
+        List<FeatureRequest> requests = loader.load(temp, messager);
+        assertEquals(new CloneOptions(1, true, List.of("pom.xml", "src/main")), requests.get(0).cloneOptions());
+        assertEquals(new CloneOptions(0, false, List.of("src/main/java")), requests.get(1).cloneOptions());
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Ignoring invalid depth 'deep'")));
+    }
+
+    @Test
+    void loadModeValidAndInvalid() throws IOException {
+        Path temp = Files.createTempFile("app", ".yml");
+        Files.writeString(temp, """
+                pluginloader:
+                  features:
+                    - repo: https://example.com/binary.git
+                      mode: binary
+                    - repo: https://example.com/source.git
+                      mode: source
+                    - repo: https://example.com/other.git
+                      mode: compiled
+                """);
+
+        List<FeatureRequest> requests = loader.load(temp, messager);
+        assertEquals(List.of(true, false, false), requests.stream().map(FeatureRequest::binary).toList());
+        assertTrue(messager.getMessages().stream().anyMatch(m -> m.contains("Ignoring invalid mode 'compiled'")));
+    }
+
+    @Test
+    void loadBuildArgsListStringAndMissing() throws IOException {
+        Path temp = Files.createTempFile("app", ".yml");
+        Files.writeString(temp, """
+                pluginloader:
+                  features:
+                    - repo: https://example.com/list.git
+                      build-args: ["-P", "a", "-P", "b"]
+                    - repo: https://example.com/string.git
+                      buildArgs: " -Pfast   -Dx=1 "
+                    - repo: https://example.com/none.git
+                """);
+
+        List<FeatureRequest> requests = loader.load(temp, messager);
+        assertEquals(List.of("-P", "a", "-P", "b"), requests.get(0).buildArgs());
+        assertEquals(List.of("-Pfast", "-Dx=1"), requests.get(1).buildArgs());
+        assertEquals(List.of(), requests.get(2).buildArgs());
     }
 
     @Test
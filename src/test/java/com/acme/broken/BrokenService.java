@@ -0,0 +1,10 @@
+package com.acme.broken;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public class BrokenService {
+    public BrokenService() {
+        throw new IllegalStateException("broken feature");
+    }
+}
@@ -0,0 +1,5 @@
+package com.acme.greeting;
+
+public interface GreetingApi {
+    String greet(String name);
+}
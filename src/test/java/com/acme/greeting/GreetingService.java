@@ -0,0 +1,11 @@
+package com.acme.greeting;
+
+import org.springframework.stereotype.Service;
+
+@Service
+class GreetingService implements GreetingApi {
+    @Override
+    public String greet(String name) {
+        return "Hello " + name;
+    }
+}
@@ -0,0 +1,15 @@
+package com.acme.indexed;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Description;
+import org.springframework.context.annotation.Role;
+import org.springframework.stereotype.Service;
+
+@Service(DependentService.NAME)
+@DependsOn("indexedBeans.Nested")
+@Role(BeanDefinition.ROLE_SUPPORT)
+@Description("depends on the nested component")
+public class DependentService {
+    public static final String NAME = "dependent";
+}
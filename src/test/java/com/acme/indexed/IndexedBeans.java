@@ -0,0 +1,9 @@
+package com.acme.indexed;
+
+import org.springframework.stereotype.Component;
+
+public class IndexedBeans {
+    @Component
+    public static class Nested {
+    }
+}
@@ -0,0 +1,11 @@
+package com.acme.indexed;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+@Component
+@Primary
+@Lazy
+public class PrimaryClock {
+}
@@ -0,0 +1,17 @@
+package com.acme.indexed;
+
+import org.springframework.context.annotation.Scope;
+import org.springframework.context.annotation.ScopedProxyMode;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Component
+@Scope(value = "prototype", proxyMode = ScopedProxyMode.TARGET_CLASS)
+public class ScopedCounter {
+    private final AtomicInteger count = new AtomicInteger();
+
+    public int increment() {
+        return count.incrementAndGet();
+    }
+}
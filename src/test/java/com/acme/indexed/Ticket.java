@@ -0,0 +1,9 @@
+package com.acme.indexed;
+
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+@Component
+@Scope("prototype")
+public class Ticket {
+}
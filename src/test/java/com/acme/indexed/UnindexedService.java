@@ -0,0 +1,8 @@
+package com.acme.indexed;
+
+import org.springframework.stereotype.Service;
+
+// left out of IndexedDescriptor.BEAN_INDEX: only a package scan would register it
+@Service
+public class UnindexedService {
+}
@@ -0,0 +1,5 @@
+package com.acme.slow;
+
+public interface SlowApi {
+    String ping();
+}
@@ -0,0 +1,22 @@
+package com.acme.slow;
+
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CountDownLatch;
+
+// Blocks its context's refresh until released, so tests can act while a feature is starting
+@Service
+public class SlowService implements SlowApi {
+    public static volatile CountDownLatch entered = new CountDownLatch(1);
+    public static volatile CountDownLatch release = new CountDownLatch(0);
+
+    public SlowService() throws InterruptedException {
+        entered.countDown();
+        release.await();
+    }
+
+    @Override
+    public String ping() {
+        return "pong";
+    }
+}
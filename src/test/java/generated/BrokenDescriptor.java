@@ -0,0 +1,9 @@
+package generated;
+
+public final class BrokenDescriptor {
+    public static final String[] PACKAGES = new String[] {"com.acme.broken"};
+
+    public static final String[] BEAN_CLASSES = new String[] {"com.acme.broken.BrokenService"};
+
+    private BrokenDescriptor(){}
+}
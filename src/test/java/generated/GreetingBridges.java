@@ -0,0 +1,8 @@
+package generated;
+
+public final class GreetingBridges {
+    // exposedInterface=generatedBridge, registered by the feature manager instead of a JDK proxy
+    public static final String[] BRIDGES = new String[] {"com.acme.greeting.GreetingApi=generated.Greeting_GreetingApiBridge"};
+
+    private GreetingBridges(){}
+}
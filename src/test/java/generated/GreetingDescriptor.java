@@ -0,0 +1,9 @@
+package generated;
+
+public final class GreetingDescriptor {
+    public static final String[] PACKAGES = new String[] {"com.acme.greeting"};
+
+    public static final String[] BEAN_CLASSES = new String[] {"com.acme.greeting.GreetingApi"};
+
+    private GreetingDescriptor(){}
+}
@@ -0,0 +1,25 @@
+package generated;
+
+// generated by pluginloader: calls com.acme.greeting.GreetingApi on the current feature bean without a proxy
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class Greeting_GreetingApiBridge extends com.aajumaharjan.pluginloader.StaticBridge implements com.acme.greeting.GreetingApi {
+    private static final String[] METHODS = new String[] {"greet(String)"};
+
+    public Greeting_GreetingApiBridge(Object bridge) {
+        super(bridge, METHODS);
+    }
+
+    @Override
+    public java.lang.String greet(java.lang.String arg0) {
+        Object binding = enter();
+        long start = start(0);
+        try {
+            return ((com.acme.greeting.GreetingApi) target(binding)).greet(arg0);
+        } catch (Throwable t) {
+            failed(0);
+            throw t;
+        } finally {
+            exit(binding, 0, start);
+        }
+    }
+}
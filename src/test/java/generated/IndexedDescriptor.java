@@ -0,0 +1,16 @@
+package generated;
+
+public final class IndexedDescriptor {
+    public static final String[] PACKAGES = new String[] {"com.acme.indexed"};
+
+    public static final String[] BEAN_CLASSES = new String[] {"com.acme.indexed.DependentService", "com.acme.indexed.IndexedBeans$Nested", "com.acme.indexed.PrimaryClock", "com.acme.indexed.ScopedCounter", "com.acme.indexed.Ticket"};
+
+    public static final String[] BEAN_INDEX = new String[] {
+        "com.acme.indexed.DependentService|Service|||false|false",
+        "com.acme.indexed.IndexedBeans$Nested|Component||indexedBeans.Nested|false|false",
+        "com.acme.indexed.PrimaryClock|Component||primaryClock|true|true",
+        "com.acme.indexed.ScopedCounter|Component|prototype|scopedCounter|false|false",
+        "com.acme.indexed.Ticket|Component|prototype|ticket|false|false"};
+
+    private IndexedDescriptor(){}
+}
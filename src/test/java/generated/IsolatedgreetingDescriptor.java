@@ -0,0 +1,18 @@
+package generated;
+
+public final class IsolatedgreetingDescriptor {
+    // path relative to project root
+    public static final String JAR_PATH = "target/test-features/isolated-greeting.jar";
+
+    public static final String[] PACKAGES = new String[] {"com.acme.greeting"};
+
+    public static final String[] BEAN_CLASSES = new String[] {"com.acme.greeting.GreetingService"};
+
+    // public interfaces exposed to the host through a bridge when a feature bean implements them
+    public static final String[] EXPOSED_TYPES = new String[] {"com.acme.greeting.GreetingApi"};
+
+    // className|stereotype|scope|beanName|primary|lazy, registered without classpath scanning
+    public static final String[] BEAN_INDEX = new String[] {"com.acme.greeting.GreetingService|Service||greetingService|false|false"};
+
+    private IsolatedgreetingDescriptor(){}
+}
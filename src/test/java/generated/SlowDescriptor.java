@@ -0,0 +1,9 @@
+package generated;
+
+public final class SlowDescriptor {
+    public static final String[] PACKAGES = new String[] {"com.acme.slow"};
+
+    public static final String[] BEAN_CLASSES = new String[] {"com.acme.slow.SlowApi"};
+
+    private SlowDescriptor(){}
+}